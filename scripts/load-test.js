@@ -1,6 +1,12 @@
 import http from 'k6/http';
 import { check, sleep } from 'k6';
 
+// End-to-end smoke load against a running server (with its Postgres and Redis): run with `k6 run scripts/load-test.js`.
+// It checks that the HTTP stack holds up under concurrent clients, not how fast the engine is. Each virtual user sleeps
+// between requests and k6 measures from when a request was actually sent, so stalls hide behind the sleeps
+// (coordinated omission) and the percentiles look better than what a client would see. Use the in-process load harness
+// (see README, Benchmarks) for latency numbers that can be compared across commits.
+
 // This is the configuration for our load test.
 export const options = {
     // We define "stages" to simulate a ramp-up, peak load, and ramp-down.
@@ -19,6 +25,11 @@ export const options = {
 
 const API_BASE_URL = 'http://localhost:8080/api/v1';
 
+// Prices off the instrument's tick size (0.01 for BTC/USD) are rejected
+function onTick(price) {
+    return Math.round(price * 100) / 100;
+}
+
 // This is the main function that k6 will execute over and over for each virtual user.
 export default function () {
     const symbol = 'BTC/USD';
@@ -29,7 +40,7 @@ export default function () {
         side: 'BUY',
         orderType: 'LIMIT',
         quantity: 0.1,
-        price: 50000.0 + Math.random() * 100 // Add some price variation
+        price: onTick(50000.0 + Math.random() * 100) // Add some price variation
     });
 
     const params = {
@@ -53,7 +64,7 @@ export default function () {
         side: 'SELL',
         orderType: 'LIMIT',
         quantity: 0.05,
-        price: 50000.0 - Math.random() * 100 // Sell at a slightly lower price
+        price: onTick(50000.0 - Math.random() * 100) // Sell at a slightly lower price
     });
     
     const sellRes = http.post(`${API_BASE_URL}/orders`, sellPayload, params);
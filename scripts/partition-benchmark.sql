@@ -0,0 +1,112 @@
+-- =====================================================================================================================
+-- Data-volume benchmark for the partitioned orders/trades schema (db/migration/V1__partitioned_orders_and_trades.sql).
+--
+-- Loads :rows trades and :rows orders spread over the last 12 months into the partitioned tables and into unpartitioned
+-- copies with the same indexes, then times the hot lookups against both. Default is 100M rows per table; expect roughly
+-- 40 GB of disk and an hour or more of loading.
+--
+-- Run ONLY against a scratch database that the application has migrated (it writes into the real tables):
+--   psql -h localhost -p 5433 -U user -d exchange_bench -f scripts/partition-benchmark.sql
+--   psql ... -v rows=10000000 -f scripts/partition-benchmark.sql      # smaller run
+-- =====================================================================================================================
+\if :{?rows}
+\else
+\set rows 100000000
+\endif
+\set ON_ERROR_STOP on
+\timing on
+
+-- Partitions for the whole loaded range (the migration only creates the current month onwards)
+SELECT ensure_monthly_partitions('orders', (now() - INTERVAL '12 months')::date, 3, 4);
+SELECT ensure_monthly_partitions('trades', (now() - INTERVAL '12 months')::date, 3, 4);
+
+DROP TABLE IF EXISTS bench_orders_flat;
+DROP TABLE IF EXISTS bench_trades_flat;
+CREATE TABLE bench_orders_flat (LIKE orders INCLUDING DEFAULTS, PRIMARY KEY (id));
+CREATE TABLE bench_trades_flat (LIKE trades INCLUDING DEFAULTS, PRIMARY KEY (id));
+CREATE INDEX bench_orders_flat_open_idx ON bench_orders_flat (symbol, "timestamp") WHERE status IN ('OPEN', 'PARTIALLY_FILLED');
+CREATE INDEX bench_trades_flat_symbol_time_idx ON bench_trades_flat (symbol, "timestamp");
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Load: 16 symbols, timestamps evenly spread over 12 months, ~2% of orders still open
+-- ---------------------------------------------------------------------------------------------------------------------
+\echo 'Loading trades (partitioned)'
+INSERT INTO trades (symbol, buy_order_id, sell_order_id, price, quantity, "timestamp")
+SELECT 'SYM' || (g % 16) || '/USD', 2 * g, 2 * g + 1, 100 + (g % 10000) * 0.01, 0.001 * (1 + g % 1000),
+       now() - INTERVAL '365 days' + (g * (365.0 * 86400 / :rows)) * INTERVAL '1 second'
+FROM generate_series(1, :rows) AS g;
+
+\echo 'Loading trades (unpartitioned)'
+INSERT INTO bench_trades_flat SELECT * FROM trades;
+
+\echo 'Loading orders (partitioned)'
+INSERT INTO orders (symbol, side, order_type, status, price, quantity, remaining_quantity, "timestamp")
+SELECT 'SYM' || (g % 16) || '/USD', CASE WHEN g % 2 = 0 THEN 'BUY' ELSE 'SELL' END, 'LIMIT',
+       CASE WHEN g % 50 = 0 THEN 'OPEN' WHEN g % 50 = 1 THEN 'PARTIALLY_FILLED' ELSE 'FILLED' END,
+       100 + (g % 10000) * 0.01, 1, CASE WHEN g % 50 < 2 THEN 1 ELSE 0 END,
+       now() - INTERVAL '365 days' + (g * (365.0 * 86400 / :rows)) * INTERVAL '1 second'
+FROM generate_series(1, :rows) AS g;
+
+\echo 'Loading orders (unpartitioned)'
+INSERT INTO bench_orders_flat SELECT * FROM orders;
+
+VACUUM ANALYZE trades;
+VACUUM ANALYZE orders;
+VACUUM ANALYZE bench_trades_flat;
+VACUUM ANALYZE bench_orders_flat;
+
+SELECT relname, pg_size_pretty(pg_total_relation_size(oid)) AS total_size
+FROM pg_class WHERE relname IN ('bench_trades_flat', 'bench_orders_flat')
+UNION ALL
+SELECT 'trades (all partitions)', pg_size_pretty(sum(pg_total_relation_size(relid))) FROM pg_partition_tree('trades')
+UNION ALL
+SELECT 'orders (all partitions)', pg_size_pretty(sum(pg_total_relation_size(relid))) FROM pg_partition_tree('orders');
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Lookups: compare plans, buffers touched and execution time
+-- ---------------------------------------------------------------------------------------------------------------------
+\echo '== Trades by symbol, last hour (partitioned / flat)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM trades WHERE symbol = 'SYM3/USD' AND "timestamp" >= now() - INTERVAL '1 hour' ORDER BY "timestamp" DESC LIMIT 100;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_trades_flat WHERE symbol = 'SYM3/USD' AND "timestamp" >= now() - INTERVAL '1 hour' ORDER BY "timestamp" DESC LIMIT 100;
+
+\echo '== Trade volume by symbol, one day last month (partitioned / flat)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT sum(quantity) FROM trades WHERE symbol = 'SYM3/USD'
+  AND "timestamp" >= date_trunc('day', now() - INTERVAL '30 days') AND "timestamp" < date_trunc('day', now() - INTERVAL '29 days');
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT sum(quantity) FROM bench_trades_flat WHERE symbol = 'SYM3/USD'
+  AND "timestamp" >= date_trunc('day', now() - INTERVAL '30 days') AND "timestamp" < date_trunc('day', now() - INTERVAL '29 days');
+
+\echo '== Open orders by symbol (partitioned / flat)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM orders WHERE symbol = 'SYM3/USD' AND status IN ('OPEN', 'PARTIALLY_FILLED') ORDER BY "timestamp" LIMIT 1000;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_orders_flat WHERE symbol = 'SYM3/USD' AND status IN ('OPEN', 'PARTIALLY_FILLED') ORDER BY "timestamp" LIMIT 1000;
+
+\echo '== Order by id, as issued by the persistence updates (partitioned / flat)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM orders WHERE id = (SELECT max(id) FROM orders) - 12345;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_orders_flat WHERE id = (SELECT max(id) FROM bench_orders_flat) - 12345;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Insert cost at volume: 1M new rows into the current month (partitioned) vs the 100M-row table (flat)
+-- ---------------------------------------------------------------------------------------------------------------------
+\echo '== Insert 1M current trades (partitioned)'
+INSERT INTO trades (symbol, buy_order_id, sell_order_id, price, quantity, "timestamp")
+SELECT 'SYM' || (g % 16) || '/USD', g, g + 1, 100, 1, now() FROM generate_series(1, 1000000) AS g;
+\echo '== Insert 1M current trades (flat)'
+INSERT INTO bench_trades_flat (symbol, buy_order_id, sell_order_id, price, quantity, "timestamp")
+SELECT 'SYM' || (g % 16) || '/USD', g, g + 1, 100, 1, now() FROM generate_series(1, 1000000) AS g;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Archiving the oldest month (catalog-only) vs deleting it row by row
+-- ---------------------------------------------------------------------------------------------------------------------
+\echo '== Archive months older than 11 months (partitioned)'
+SELECT archive_partitions_before('trades', date_trunc('month', now() - INTERVAL '10 months')::date);
+\echo '== Delete the same range (flat)'
+DELETE FROM bench_trades_flat WHERE "timestamp" < date_trunc('month', now() - INTERVAL '10 months');
+
+\echo 'Done. Drop the bench_* tables and the archive schema contents when finished.'
@@ -0,0 +1,45 @@
+package com.example.exchange.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.service.OrderService;
+
+/**
+ * REST controller for opening and reopening auctions: start the call phase, watch the indicative price, uncross.
+ * Like OrderController, it only parses parameters and delegates to the service layer.
+ */
+@RestController
+@RequestMapping("/api/v1/auctions")
+public class AuctionController {
+
+    private final OrderService orderService;
+
+    public AuctionController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @PostMapping("/{symbolPair}")
+    public ResponseEntity<AuctionIndication> startAuction(@PathVariable String symbolPair) {
+        return ResponseEntity.ok(orderService.startAuction(toSymbol(symbolPair)));
+    }
+
+    @GetMapping("/{symbolPair}")
+    public ResponseEntity<AuctionIndication> getAuction(@PathVariable String symbolPair) {
+        return ResponseEntity.ok(orderService.getAuctionIndication(toSymbol(symbolPair)));
+    }
+
+    @PostMapping("/{symbolPair}/uncross")
+    public ResponseEntity<AuctionIndication> uncross(@PathVariable String symbolPair) {
+        return ResponseEntity.ok(orderService.uncrossAuction(toSymbol(symbolPair)));
+    }
+
+    private static String toSymbol(String symbolPair) {
+        return symbolPair.replace("_", "/").replace("-", "/").toUpperCase();
+    }
+}
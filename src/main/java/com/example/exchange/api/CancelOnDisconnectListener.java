@@ -0,0 +1,75 @@
+package com.example.exchange.api;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.service.OrderService;
+
+/**
+ * Optional cancel-on-disconnect for WebSocket clients such as market makers: a client that sends the STOMP CONNECT
+ * headers {@code account:<account>} and {@code cancel-on-disconnect:true} has all of that account's resting orders
+ * cancelled when its session ends, whether it disconnects cleanly or its connection drops.
+ * An account may hold several such sessions; its orders are cancelled when the last one ends.
+ */
+@Component
+public class CancelOnDisconnectListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CancelOnDisconnectListener.class);
+
+    static final String ACCOUNT_HEADER = "account";
+    static final String CANCEL_ON_DISCONNECT_HEADER = "cancel-on-disconnect";
+
+    private final OrderService orderService;
+    // Session id -> account, for sessions that asked for cancel-on-disconnect
+    private final ConcurrentHashMap<String, String> guardedSessions = new ConcurrentHashMap<>();
+    // Account -> number of its guarded sessions
+    private final ConcurrentHashMap<String, Integer> sessionCounts = new ConcurrentHashMap<>();
+
+    public CancelOnDisconnectListener(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String account = headers.getFirstNativeHeader(ACCOUNT_HEADER);
+        if (account == null || account.isBlank()
+                || !Boolean.parseBoolean(headers.getFirstNativeHeader(CANCEL_ON_DISCONNECT_HEADER))) {
+            return;
+        }
+        if (guardedSessions.putIfAbsent(headers.getSessionId(), account) == null) {
+            sessionCounts.merge(account, 1, Integer::sum);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String account = guardedSessions.remove(event.getSessionId());
+        if (account == null) {
+            return;
+        }
+        Integer remaining = sessionCounts.computeIfPresent(account, (a, count) -> count == 1 ? null : count - 1);
+        if (remaining != null) {
+            return;
+        }
+        try {
+            MassCancelResult result = orderService.cancelOrders(account, null, null);
+            log.info("Session {} of account {} disconnected ({}); cancelled {} resting orders",
+                    event.getSessionId(), account, event.getCloseStatus(), result.getCancelledOrderIds().size());
+            if (!result.getFailedSymbols().isEmpty()) {
+                log.error("Cancel-on-disconnect for account {} could not reach the books of {}; their orders are still resting",
+                        account, result.getFailedSymbols());
+            }
+        } catch (RuntimeException e) {
+            log.error("Cancel-on-disconnect failed for account {}", account, e);
+        }
+    }
+}
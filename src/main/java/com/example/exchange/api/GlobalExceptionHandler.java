@@ -8,6 +8,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import com.example.exchange.cluster.ClusterUnavailableException;
+import com.example.exchange.cluster.NotSymbolOwnerException;
+import com.example.exchange.core.matching.OwnershipFencedException;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -34,6 +39,46 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Invalid request");
+        response.put("message", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Invalid request");
+        response.put("message", "Invalid value for " + ex.getName() + ": " + ex.getValue());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(NotSymbolOwnerException.class)
+    public ResponseEntity<Map<String, String>> handleNotSymbolOwner(NotSymbolOwnerException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Not the symbol owner");
+        response.put("message", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OwnershipFencedException.class)
+    public ResponseEntity<Map<String, String>> handleOwnershipFenced(OwnershipFencedException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Not the symbol owner");
+        response.put("message", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ClusterUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleClusterUnavailable(ClusterUnavailableException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Symbol owner unavailable");
+        response.put("message", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
         Map<String, String> response = new HashMap<>();
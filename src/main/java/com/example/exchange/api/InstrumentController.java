@@ -0,0 +1,42 @@
+package com.example.exchange.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.service.OrderService;
+
+/**
+ * REST controller for instrument reference data and lifecycle: halt, close, reopen.
+ * Like OrderController, it only parses parameters and delegates to the service layer.
+ */
+@RestController
+@RequestMapping("/api/v1/instruments")
+public class InstrumentController {
+
+    private final OrderService orderService;
+
+    public InstrumentController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @GetMapping("/{symbolPair}")
+    public ResponseEntity<Instrument> getInstrument(@PathVariable String symbolPair) {
+        return ResponseEntity.ok(orderService.getInstrument(toSymbol(symbolPair)));
+    }
+
+    @PutMapping("/{symbolPair}/state")
+    public ResponseEntity<Instrument> changeState(@PathVariable String symbolPair, @RequestParam InstrumentState state) {
+        return ResponseEntity.ok(orderService.changeInstrumentState(toSymbol(symbolPair), state));
+    }
+
+    private static String toSymbol(String symbolPair) {
+        return symbolPair.replace("_", "/").replace("-", "/").toUpperCase();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.exchange.api;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.service.MarketDataService;
+
+/**
+ * REST controller for public market data: recent trades and OHLCV candles.
+ * Like OrderController, it only parses parameters and delegates to the service layer.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class MarketDataController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final MarketDataService marketDataService;
+
+    public MarketDataController(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @GetMapping("/trades/{symbolPair}")
+    public ResponseEntity<List<Trade>> getRecentTrades(@PathVariable String symbolPair,
+                                                       @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(marketDataService.getRecentTrades(toSymbol(symbolPair), checkLimit(limit)));
+    }
+
+    @GetMapping("/candles/{symbolPair}")
+    public ResponseEntity<List<Candle>> getCandles(@PathVariable String symbolPair,
+                                                   @RequestParam(defaultValue = "1m") String interval,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        CandleInterval candleInterval = CandleInterval.fromCode(interval);
+        return ResponseEntity.ok(marketDataService.getCandles(toSymbol(symbolPair), candleInterval, checkLimit(limit)));
+    }
+
+    private static String toSymbol(String symbolPair) {
+        return symbolPair.replace("_", "/").replace("-", "/").toUpperCase();
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
@@ -1,17 +1,23 @@
 package com.example.exchange.api;
 
+import java.math.BigDecimal;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.MassCancelResult;
 import com.example.exchange.api.dto.OrderRequest;
 import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Side;
 import com.example.exchange.service.OrderService;
 
 import jakarta.validation.Valid;
@@ -40,10 +46,33 @@ public class OrderController {
         return new ResponseEntity<>(newOrder, HttpStatus.CREATED);
     }
 
-    @GetMapping("/orderbook/{symbolPair}")
-    public ResponseEntity<OrderBookDto> getOrderBook(@PathVariable String symbolPair) {
-        String symbol = symbolPair.replace("_", "/").replace("-", "/").toUpperCase();
-        OrderBookDto orderBook = orderService.getOrderBook(symbol);
-        return ResponseEntity.ok(orderBook);
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<Order> getOrder(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderService.getOrder(orderId));
+    }
+
+    /**
+     * Mass cancel: every resting order of the account, or only those in one symbol (e.g. BTC_USD) and/or on one side.
+     */
+    @DeleteMapping("/accounts/{account}/orders")
+    public ResponseEntity<MassCancelResult> cancelOrders(@PathVariable String account,
+                                                         @RequestParam(required = false) String symbol,
+                                                         @RequestParam(required = false) Side side) {
+        String orderSymbol = symbol == null ? null : toSymbol(symbol);
+        return ResponseEntity.ok(orderService.cancelOrders(account, orderSymbol, side));
+    }
+
+    @GetMapping(value = "/orderbook/{symbolPair}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getOrderBook(@PathVariable String symbolPair,
+                                               @RequestParam(required = false) Integer depth,
+                                               @RequestParam(required = false) BigDecimal grouping) {
+        String symbol = toSymbol(symbolPair);
+        // The body is already-encoded OrderBookDto JSON, written as-is without another Jackson pass
+        byte[] orderBook = orderService.getOrderBookJson(symbol, depth, grouping);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(orderBook);
+    }
+
+    private static String toSymbol(String symbolPair) {
+        return symbolPair.replace("_", "/").replace("-", "/").toUpperCase();
     }
 }
@@ -0,0 +1,26 @@
+package com.example.exchange.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a mass cancel: which of the account's resting orders were cancelled, and for which symbols
+ * the cancel could not be carried out (in clustered mode, symbols whose owner could not be reached). A caller that
+ * gets failed symbols back should retry them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MassCancelResult {
+
+    private String account;
+    private List<Long> cancelledOrderIds;
+    private List<String> failedSymbols = List.of();
+
+    public MassCancelResult(String account, List<Long> cancelledOrderIds) {
+        this(account, cancelledOrderIds, List.of());
+    }
+}
@@ -8,6 +8,7 @@ import com.example.exchange.domain.Side;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 /**
@@ -33,4 +34,8 @@ public class OrderRequest {
     @NotNull(message = "Price is required for LIMIT orders")
     @DecimalMin(value = "0.00000001", message = "Price must be positive")
     private BigDecimal price;
+
+    // Optional; orders with an account can be cancelled in bulk (mass cancel, cancel-on-disconnect)
+    @Size(max = 64, message = "Account must be at most 64 characters")
+    private String account;
 }
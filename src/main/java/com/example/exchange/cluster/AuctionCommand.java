@@ -0,0 +1,10 @@
+package com.example.exchange.cluster;
+
+/**
+ * The auction operations a node can ask a symbol's owner to run, see {@link OrderForwarder#runAuction}.
+ */
+public enum AuctionCommand {
+    START,
+    INDICATE,
+    UNCROSS
+}
@@ -0,0 +1,81 @@
+package com.example.exchange.cluster;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.client.RestClient;
+
+import com.example.exchange.core.matching.MatchingEngine;
+
+/**
+ * Wiring for clustered mode (exchange.cluster.enabled=true), in which each symbol is matched by exactly one node.
+ * Ownership is either "static" (configured owners, otherwise rendezvous hashing over the node list) or "lease"
+ * (first node to need a symbol leases it in Redis; leases fail over when their owner stops renewing).
+ */
+@Configuration
+@ConditionalOnProperty(name = "exchange.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    public ClusterNodes clusterNodes(@Value("${exchange.cluster.node-id}") String nodeId,
+                                     @Value("${exchange.cluster.nodes}") String nodes) {
+        return ClusterNodes.parse(nodeId, nodes);
+    }
+
+    @Bean
+    public SymbolOwnership symbolOwnership(ClusterNodes nodes,
+                                           MatchingEngine matchingEngine,
+                                           ObjectProvider<StringRedisTemplate> redisTemplate,
+                                           @Value("${exchange.cluster.assignment:static}") String assignment,
+                                           @Value("${exchange.cluster.static-owners:}") String staticOwners,
+                                           @Value("${exchange.cluster.lease-ttl-ms:5000}") long leaseTtlMillis,
+                                           @Value("${exchange.cluster.lease-renew-interval-ms:1000}") long renewIntervalMillis) {
+        SymbolOwnership ownership = switch (assignment) {
+            case "static" -> new StaticSymbolOwnership(nodes, parseOwners(staticOwners));
+            case "lease" -> {
+                if (renewIntervalMillis * 3 > leaseTtlMillis) {
+                    throw new IllegalArgumentException("exchange.cluster.lease-renew-interval-ms must be at most a third of lease-ttl-ms");
+                }
+                // A lost symbol's book is dropped and its orders cancelled, so none is served here or left open in the database
+                yield new LeaseSymbolOwnership(new RedisLeaseCoordinator(redisTemplate.getObject()), nodes.localNodeId(),
+                        Duration.ofMillis(leaseTtlMillis), System::currentTimeMillis, matchingEngine::removeOrderBook);
+            }
+            default -> throw new IllegalArgumentException("exchange.cluster.assignment must be 'static' or 'lease', was " + assignment);
+        };
+        // Routing checks ownership before an order is stored; the engine checks it again under the symbol lock
+        matchingEngine.setOwnershipFence(ownership::holdsLocally);
+        return ownership;
+    }
+
+    @Bean
+    public OrderForwarder orderForwarder(ClusterNodes nodes,
+                                         RestClient.Builder restClientBuilder,
+                                         @Value("${exchange.cluster.forward-timeout-ms:2000}") long timeoutMillis) {
+        return new HttpOrderForwarder(nodes, restClientBuilder, Duration.ofMillis(timeoutMillis));
+    }
+
+    /**
+     * Parses "BTC/USD=node-1,ETH/USD=node-2".
+     */
+    static Map<String, String> parseOwners(String owners) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String entry : owners.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid exchange.cluster.static-owners entry: " + entry.trim());
+            }
+            result.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return result;
+    }
+}
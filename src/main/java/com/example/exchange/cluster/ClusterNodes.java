@@ -0,0 +1,54 @@
+package com.example.exchange.cluster;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The static membership of the cluster: this node's id and the base URL of every node, including this one.
+ *
+ * @param localNodeId This node's id.
+ * @param baseUrls    Node id to base URL (e.g. "http://10.0.0.2:8080"), in configuration order.
+ */
+public record ClusterNodes(String localNodeId, Map<String, String> baseUrls) {
+
+    public ClusterNodes {
+        if (!baseUrls.containsKey(localNodeId)) {
+            throw new IllegalArgumentException("exchange.cluster.nodes must include this node (" + localNodeId + ")");
+        }
+        baseUrls = Map.copyOf(baseUrls);
+    }
+
+    /**
+     * Parses "node-1=http://host1:8080,node-2=http://host2:8080".
+     */
+    public static ClusterNodes parse(String localNodeId, String nodes) {
+        Map<String, String> baseUrls = new LinkedHashMap<>();
+        for (String entry : nodes.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid exchange.cluster.nodes entry: " + entry.trim());
+            }
+            baseUrls.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return new ClusterNodes(localNodeId, baseUrls);
+    }
+
+    public List<String> nodeIds() {
+        List<String> ids = new ArrayList<>(baseUrls.keySet());
+        ids.sort(null);
+        return ids;
+    }
+
+    public String baseUrl(String nodeId) {
+        String url = baseUrls.get(nodeId);
+        if (url == null) {
+            throw new ClusterUnavailableException("Unknown cluster node " + nodeId);
+        }
+        return url;
+    }
+}
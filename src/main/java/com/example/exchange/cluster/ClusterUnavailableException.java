@@ -0,0 +1,16 @@
+package com.example.exchange.cluster;
+
+/**
+ * Thrown when a request cannot be routed: the symbol's owner is unknown or unreachable. Mapped to HTTP 503, since
+ * retrying later (once a lease is taken over or the owner is back) can succeed.
+ */
+public class ClusterUnavailableException extends RuntimeException {
+
+    public ClusterUnavailableException(String message) {
+        super(message);
+    }
+
+    public ClusterUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
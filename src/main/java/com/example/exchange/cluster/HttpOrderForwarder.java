@@ -0,0 +1,180 @@
+package com.example.exchange.cluster;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * {@link OrderForwarder} over HTTP to the owner's internal endpoints (see InternalClusterController).
+ * Design Principle (Reuse Connections): One JDK HttpClient is shared by all nodes, so every node pair keeps persistent
+ * keep-alive connections and forwarding costs one request/response on an open socket, with no per-call handshake.
+ * Errors from the owner are mapped back to the exceptions the local API already translates into status codes.
+ */
+public class HttpOrderForwarder implements OrderForwarder {
+
+    private static final ParameterizedTypeReference<List<Trade>> TRADES = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<Candle>> CANDLES = new ParameterizedTypeReference<>() {
+    };
+
+    private final ClusterNodes nodes;
+    private final RestClient.Builder restClientBuilder;
+    private final JdkClientHttpRequestFactory requestFactory;
+    private final Map<String, RestClient> clients = new ConcurrentHashMap<>();
+
+    public HttpOrderForwarder(ClusterNodes nodes, RestClient.Builder restClientBuilder, Duration timeout) {
+        this.nodes = nodes;
+        this.restClientBuilder = restClientBuilder;
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        this.requestFactory.setReadTimeout(timeout);
+    }
+
+    @Override
+    public Order placeOrder(String nodeId, OrderRequest request) {
+        return call(nodeId, request.getSymbol(), client -> client.post()
+                .uri("/internal/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .body(Order.class));
+    }
+
+    @Override
+    public MassCancelResult cancelOrders(String nodeId, String account, String symbol, Side side) {
+        return call(nodeId, symbol != null ? symbol : "the books of account " + account, client -> client.delete()
+                .uri(uri -> uri.path("/internal/v1/accounts/{account}/orders")
+                        .queryParamIfPresent("symbol", Optional.ofNullable(symbol))
+                        .queryParamIfPresent("side", Optional.ofNullable(side)).build(account))
+                .retrieve()
+                .body(MassCancelResult.class));
+    }
+
+    @Override
+    public AuctionIndication runAuction(String nodeId, String symbol, AuctionCommand command) {
+        return call(nodeId, symbol, client -> client.post()
+                .uri(uri -> uri.path("/internal/v1/auctions").queryParam("symbol", symbol).queryParam("command", command).build())
+                .retrieve()
+                .body(AuctionIndication.class));
+    }
+
+    @Override
+    public Instrument getInstrument(String nodeId, String symbol) {
+        return call(nodeId, symbol, client -> client.get()
+                .uri(uri -> uri.path("/internal/v1/instruments").queryParam("symbol", symbol).build())
+                .retrieve()
+                .body(Instrument.class));
+    }
+
+    @Override
+    public Instrument changeInstrumentState(String nodeId, String symbol, InstrumentState state) {
+        return call(nodeId, symbol, client -> client.put()
+                .uri(uri -> uri.path("/internal/v1/instruments").queryParam("symbol", symbol).queryParam("state", state).build())
+                .retrieve()
+                .body(Instrument.class));
+    }
+
+    @Override
+    public OrderBookDto getOrderBook(String nodeId, String symbol) {
+        return call(nodeId, symbol, client -> client.get()
+                .uri(uri -> uri.path("/internal/v1/orderbooks").queryParam("symbol", symbol).build())
+                .retrieve()
+                .body(OrderBookDto.class));
+    }
+
+    @Override
+    public byte[] getOrderBookJson(String nodeId, String symbol, Integer depth, BigDecimal grouping) {
+        return call(nodeId, symbol, client -> client.get()
+                .uri(uri -> uri.path("/internal/v1/orderbooks/json").queryParam("symbol", symbol)
+                        .queryParamIfPresent("depth", Optional.ofNullable(depth))
+                        .queryParamIfPresent("grouping", Optional.ofNullable(grouping)).build())
+                .retrieve()
+                .body(byte[].class));
+    }
+
+    @Override
+    public List<Trade> getRecentTrades(String nodeId, String symbol, int limit) {
+        return call(nodeId, symbol, client -> client.get()
+                .uri(uri -> uri.path("/internal/v1/trades").queryParam("symbol", symbol).queryParam("limit", limit).build())
+                .retrieve()
+                .body(TRADES));
+    }
+
+    @Override
+    public List<Candle> getCandles(String nodeId, String symbol, CandleInterval interval, int limit) {
+        return call(nodeId, symbol, client -> client.get()
+                .uri(uri -> uri.path("/internal/v1/candles").queryParam("symbol", symbol)
+                        .queryParam("interval", interval.getCode()).queryParam("limit", limit).build())
+                .retrieve()
+                .body(CANDLES));
+    }
+
+    private <T> T call(String nodeId, String symbol, Function<RestClient, T> request) {
+        RestClient client = clients.computeIfAbsent(nodeId, id -> restClientBuilder.clone()
+                .baseUrl(nodes.baseUrl(id))
+                .requestFactory(requestFactory)
+                .build());
+        try {
+            return request.apply(client);
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT)) {
+                throw new NotSymbolOwnerException(symbol, nodeId);
+            }
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                throw new EntityNotFoundException(errorMessage(e));
+            }
+            if (e.getStatusCode().is4xxClientError()) {
+                throw new IllegalArgumentException(errorMessage(e));
+            }
+            throw new ClusterUnavailableException("Owner " + nodeId + " of " + symbol + " failed: " + e.getStatusCode(), e);
+        } catch (ResourceAccessException e) {
+            throw new ClusterUnavailableException("Owner " + nodeId + " of " + symbol + " is unreachable", e);
+        }
+    }
+
+    /**
+     * @return The owner's error message (GlobalExceptionHandler's "message" field), or the raw body.
+     */
+    private static String errorMessage(RestClientResponseException e) {
+        try {
+            Map<?, ?> body = e.getResponseBodyAs(Map.class);
+            Object message = body != null ? body.get("message") : null;
+            if (message != null) {
+                return message.toString();
+            }
+        } catch (RuntimeException notJson) {
+            // Fall through to the raw body
+        }
+        return e.getResponseBodyAsString();
+    }
+}
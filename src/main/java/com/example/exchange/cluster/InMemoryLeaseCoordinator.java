@@ -0,0 +1,52 @@
+package com.example.exchange.cluster;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-local {@link LeaseCoordinator}: a stand-in for tests and for running several nodes in one JVM.
+ * The clock is injectable so tests can expire leases without waiting.
+ */
+public class InMemoryLeaseCoordinator implements LeaseCoordinator {
+
+    private final ConcurrentHashMap<String, SymbolLease> leases = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public InMemoryLeaseCoordinator() {
+        this(System::currentTimeMillis);
+    }
+
+    public InMemoryLeaseCoordinator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<SymbolLease> current(String symbol) {
+        SymbolLease lease = leases.get(symbol);
+        return lease != null && lease.expiresAtMillis() > clock.getAsLong() ? Optional.of(lease) : Optional.empty();
+    }
+
+    @Override
+    public Optional<SymbolLease> tryAcquire(String symbol, String nodeId, Duration ttl) {
+        long now = clock.getAsLong();
+        SymbolLease result = leases.compute(symbol, (s, existing) ->
+                existing == null || existing.expiresAtMillis() <= now ? new SymbolLease(s, nodeId, now + ttl.toMillis()) : existing);
+        return result.nodeId().equals(nodeId) && result.expiresAtMillis() > now ? Optional.of(result) : Optional.empty();
+    }
+
+    @Override
+    public Optional<SymbolLease> renew(String symbol, String nodeId, Duration ttl) {
+        long now = clock.getAsLong();
+        SymbolLease result = leases.computeIfPresent(symbol, (s, existing) ->
+                existing.nodeId().equals(nodeId) && existing.expiresAtMillis() > now
+                        ? new SymbolLease(s, nodeId, now + ttl.toMillis()) : existing);
+        return result != null && result.nodeId().equals(nodeId) && result.expiresAtMillis() > now ? Optional.of(result) : Optional.empty();
+    }
+
+    @Override
+    public void release(String symbol, String nodeId) {
+        leases.computeIfPresent(symbol, (s, existing) -> existing.nodeId().equals(nodeId) ? null : existing);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.exchange.cluster;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.service.MarketDataService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Node-to-node endpoints used by {@link HttpOrderForwarder}. Requests are always served from this node's own state.
+ * Not meant for clients: expose /internal only on the cluster's private network.
+ */
+@RestController
+@RequestMapping("/internal/v1")
+@ConditionalOnProperty(name = "exchange.cluster.enabled", havingValue = "true")
+public class InternalClusterController {
+
+    private final RoutingOrderService orderService;
+    private final MarketDataService localMarketData;
+
+    public InternalClusterController(RoutingOrderService orderService,
+                                     @Qualifier("marketDataServiceImpl") MarketDataService localMarketData) {
+        this.orderService = orderService;
+        this.localMarketData = localMarketData;
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<Order> placeOrder(@Valid @RequestBody OrderRequest orderRequest) {
+        return new ResponseEntity<>(orderService.placeForwardedOrder(orderRequest), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/accounts/{account}/orders")
+    public ResponseEntity<MassCancelResult> cancelOrders(@PathVariable String account,
+                                                         @RequestParam(required = false) String symbol,
+                                                         @RequestParam(required = false) Side side) {
+        return ResponseEntity.ok(orderService.cancelForwardedOrders(account, symbol, side));
+    }
+
+    @PostMapping("/auctions")
+    public ResponseEntity<AuctionIndication> runAuction(@RequestParam String symbol, @RequestParam AuctionCommand command) {
+        return ResponseEntity.ok(orderService.runForwardedAuction(symbol, command));
+    }
+
+    @GetMapping("/instruments")
+    public ResponseEntity<Instrument> getInstrument(@RequestParam String symbol) {
+        return ResponseEntity.ok(orderService.forwardedInstrument(symbol, null));
+    }
+
+    @PutMapping("/instruments")
+    public ResponseEntity<Instrument> changeInstrumentState(@RequestParam String symbol, @RequestParam InstrumentState state) {
+        return ResponseEntity.ok(orderService.forwardedInstrument(symbol, state));
+    }
+
+    @GetMapping("/orderbooks")
+    public ResponseEntity<OrderBookDto> getOrderBook(@RequestParam String symbol) {
+        return ResponseEntity.ok(orderService.forwardedOrderBook(symbol));
+    }
+
+    @GetMapping(value = "/orderbooks/json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getOrderBookJson(@RequestParam String symbol,
+                                                   @RequestParam(required = false) Integer depth,
+                                                   @RequestParam(required = false) BigDecimal grouping) {
+        return ResponseEntity.ok(orderService.forwardedOrderBookJson(symbol, depth, grouping));
+    }
+
+    @GetMapping("/trades")
+    public ResponseEntity<List<Trade>> getRecentTrades(@RequestParam String symbol, @RequestParam int limit) {
+        return ResponseEntity.ok(localMarketData.getRecentTrades(symbol, limit));
+    }
+
+    @GetMapping("/candles")
+    public ResponseEntity<List<Candle>> getCandles(@RequestParam String symbol,
+                                                   @RequestParam String interval,
+                                                   @RequestParam int limit) {
+        return ResponseEntity.ok(localMarketData.getCandles(symbol, CandleInterval.fromCode(interval), limit));
+    }
+}
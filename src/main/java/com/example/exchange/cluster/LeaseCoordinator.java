@@ -0,0 +1,35 @@
+package com.example.exchange.cluster;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Shared store of symbol leases. Implementations must make acquire and renew atomic: at most one node holds an
+ * unexpired lease on a symbol.
+ */
+public interface LeaseCoordinator {
+
+    /**
+     * @return The unexpired lease on the symbol, if any.
+     */
+    Optional<SymbolLease> current(String symbol);
+
+    /**
+     * Claims the symbol if nobody holds an unexpired lease on it.
+     *
+     * @return The new lease, or empty if another node holds the symbol.
+     */
+    Optional<SymbolLease> tryAcquire(String symbol, String nodeId, Duration ttl);
+
+    /**
+     * Extends a lease the node still holds.
+     *
+     * @return The extended lease, or empty if the node no longer holds the symbol (it expired or was taken over).
+     */
+    Optional<SymbolLease> renew(String symbol, String nodeId, Duration ttl);
+
+    /**
+     * Gives up a lease the node holds; no-op otherwise.
+     */
+    void release(String symbol, String nodeId);
+}
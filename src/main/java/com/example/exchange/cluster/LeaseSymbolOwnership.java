@@ -0,0 +1,182 @@
+package com.example.exchange.cluster;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Lease-based symbol assignment with automatic failover.
+ * The first node that needs an unowned symbol claims it with a time-limited lease in the shared
+ * {@link LeaseCoordinator} and keeps renewing it (see {@link #renewLeases()}). If the owner stops renewing (it crashed
+ * or lost its connection), the lease lapses and the next node to receive an order for the symbol takes it over.
+ *
+ * Design Principle (Stop Before Someone Else Starts): A node treats its own lease as valid only until a safety margin
+ * before the coordinator's expiry, so it stops matching a symbol before another node can acquire it. When a renewal
+ * fails the symbol's book is dropped through the loss callback, which cancels its resting orders and persists the
+ * cancellations. The new owner starts from an empty book; no order of the previous owner is left open.
+ *
+ * Owners of symbols held by other nodes are cached until their lease expires, so forwarding costs no coordinator
+ * round trip per order.
+ */
+public class LeaseSymbolOwnership implements SymbolOwnership {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseSymbolOwnership.class);
+
+    private final LeaseCoordinator coordinator;
+    private final String localNodeId;
+    private final Duration ttl;
+    private final long safetyMarginMillis;
+    private final LongSupplier clock;
+    private final Consumer<String> onLeaseLost;
+
+    // Leases held by this node, with the coordinator's expiry
+    private final ConcurrentHashMap<String, SymbolLease> held = new ConcurrentHashMap<>();
+    // Last known lease of symbols owned by other nodes
+    private final ConcurrentHashMap<String, SymbolLease> remote = new ConcurrentHashMap<>();
+
+    /**
+     * @param coordinator The shared lease store.
+     * @param localNodeId This node's id.
+     * @param ttl         How long a lease lasts without renewal. Renewals must run several times per TTL.
+     * @param clock       Epoch millisecond clock, in step with the coordinator's.
+     * @param onLeaseLost Called with the symbol when this node loses a lease it held.
+     */
+    public LeaseSymbolOwnership(LeaseCoordinator coordinator, String localNodeId, Duration ttl, LongSupplier clock,
+                                Consumer<String> onLeaseLost) {
+        this.coordinator = coordinator;
+        this.localNodeId = localNodeId;
+        this.ttl = ttl;
+        this.safetyMarginMillis = ttl.toMillis() / 5;
+        this.clock = clock;
+        this.onLeaseLost = onLeaseLost;
+    }
+
+    @Override
+    public String ownerOf(String symbol) {
+        long now = clock.getAsLong();
+        SymbolLease own = held.get(symbol);
+        if (own != null && own.expiresAtMillis() - safetyMarginMillis > now) {
+            return localNodeId;
+        }
+        SymbolLease known = remote.get(symbol);
+        if (known != null && known.expiresAtMillis() > now) {
+            return known.nodeId();
+        }
+
+        Optional<SymbolLease> lease = coordinator.current(symbol).or(() -> coordinator.tryAcquire(symbol, localNodeId, ttl));
+        if (lease.isEmpty()) {
+            // Lost a race between reading and acquiring; whoever won holds it now
+            lease = coordinator.current(symbol);
+        }
+        SymbolLease current = lease.orElseThrow(() -> new ClusterUnavailableException("No owner for symbol " + symbol));
+        if (current.nodeId().equals(localNodeId) && current.expiresAtMillis() - safetyMarginMillis <= now) {
+            // Our own lease is about to lapse (renewals are late): extend it now or stop matching the symbol
+            current = coordinator.renew(symbol, localNodeId, ttl).orElse(null);
+            if (current == null) {
+                lose(symbol);
+                throw new ClusterUnavailableException("Ownership of " + symbol + " is changing; retry shortly");
+            }
+        }
+        if (current.nodeId().equals(localNodeId)) {
+            if (held.put(symbol, current) == null) {
+                log.info("Acquired ownership of {} until {}", symbol, current.expiresAtMillis());
+            }
+            remote.remove(symbol);
+        } else {
+            remote.put(symbol, current);
+        }
+        return current.nodeId();
+    }
+
+    /**
+     * Answers from this node's leases and the cache where possible, otherwise reads the coordinator. Never acquires a
+     * lease, so looking up every symbol (an account-wide cancel) does not make this node the owner of idle ones.
+     */
+    @Override
+    public Optional<String> currentOwner(String symbol) {
+        if (holdsLocally(symbol)) {
+            return Optional.of(localNodeId);
+        }
+        SymbolLease known = remote.get(symbol);
+        if (known != null && known.expiresAtMillis() > clock.getAsLong()) {
+            return Optional.of(known.nodeId());
+        }
+        try {
+            return coordinator.current(symbol).map(SymbolLease::nodeId);
+        } catch (RuntimeException e) {
+            throw new ClusterUnavailableException("Cannot look up the owner of " + symbol, e);
+        }
+    }
+
+    @Override
+    public boolean isLocal(String symbol) {
+        return localNodeId.equals(ownerOf(symbol));
+    }
+
+    /**
+     * True while this node's lease is valid by its own, margin-adjusted reckoning, the same test {@link #ownerOf} applies
+     * before answering with this node. A lease about to lapse is not renewed here; the next routed request does that.
+     */
+    @Override
+    public boolean holdsLocally(String symbol) {
+        SymbolLease own = held.get(symbol);
+        return own != null && own.expiresAtMillis() - safetyMarginMillis > clock.getAsLong();
+    }
+
+    @Override
+    public void invalidate(String symbol) {
+        remote.remove(symbol);
+    }
+
+    /**
+     * Renews every lease this node holds; leases that could not be renewed are given up. Must run several times per
+     * TTL (e.g. every TTL / 3).
+     */
+    @Scheduled(fixedDelayString = "${exchange.cluster.lease-renew-interval-ms:1000}")
+    public void renewLeases() {
+        for (SymbolLease lease : held.values()) {
+            Optional<SymbolLease> renewed;
+            try {
+                renewed = coordinator.renew(lease.symbol(), localNodeId, ttl);
+            } catch (RuntimeException e) {
+                // Coordinator unreachable: keep matching until our own lease runs out, then give the symbol up
+                log.warn("Failed to renew lease on {}: {}", lease.symbol(), e.toString());
+                if (lease.expiresAtMillis() - safetyMarginMillis <= clock.getAsLong()) {
+                    lose(lease.symbol());
+                }
+                continue;
+            }
+            if (renewed.isPresent()) {
+                held.put(lease.symbol(), renewed.get());
+            } else {
+                lose(lease.symbol());
+            }
+        }
+    }
+
+    /**
+     * Gives up every lease, e.g. on shutdown, so other nodes can take the symbols over without waiting for expiry.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        for (String symbol : held.keySet()) {
+            held.remove(symbol);
+            coordinator.release(symbol, localNodeId);
+        }
+    }
+
+    private void lose(String symbol) {
+        if (held.remove(symbol) != null) {
+            log.warn("Lost ownership of {}", symbol);
+            onLeaseLost.accept(symbol);
+        }
+    }
+}
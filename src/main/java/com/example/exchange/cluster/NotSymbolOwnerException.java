@@ -0,0 +1,12 @@
+package com.example.exchange.cluster;
+
+/**
+ * Thrown by a node that receives a forwarded order for a symbol it does not own, typically because ownership moved
+ * while the order was in flight. Mapped to HTTP 409; the forwarding node refreshes the owner and retries once.
+ */
+public class NotSymbolOwnerException extends RuntimeException {
+
+    public NotSymbolOwnerException(String symbol, String localNodeId) {
+        super("Node " + localNodeId + " does not own " + symbol);
+    }
+}
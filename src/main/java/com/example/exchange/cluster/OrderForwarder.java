@@ -0,0 +1,85 @@
+package com.example.exchange.cluster;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+
+/**
+ * Node-to-node channel used to hand requests for a symbol to the node that owns it.
+ * The receiving node always serves them locally and never forwards them again, so a disagreement about ownership
+ * surfaces as a {@link NotSymbolOwnerException} instead of a forwarding loop. Whatever the owner could not find (an
+ * order, a book to uncross) surfaces as an {@code EntityNotFoundException}, as it would locally.
+ */
+public interface OrderForwarder {
+
+    /**
+     * Places an order on its symbol's owner.
+     *
+     * @throws NotSymbolOwnerException     if the node does not own the symbol (any more).
+     * @throws IllegalArgumentException    if the owner rejected the order as invalid.
+     * @throws ClusterUnavailableException if the node could not be reached.
+     */
+    Order placeOrder(String nodeId, OrderRequest request);
+
+    /**
+     * Cancels an account's resting orders in one symbol on its owner, or, with a null symbol, in every book the node
+     * holds.
+     *
+     * @throws NotSymbolOwnerException     if the node does not own the symbol (any more).
+     * @throws ClusterUnavailableException if the node could not be reached.
+     */
+    MassCancelResult cancelOrders(String nodeId, String account, String symbol, Side side);
+
+    /**
+     * Starts, reads or uncrosses a symbol's auction on its owner.
+     *
+     * @throws NotSymbolOwnerException     if the node does not own the symbol (any more).
+     * @throws ClusterUnavailableException if the node could not be reached.
+     */
+    AuctionIndication runAuction(String nodeId, String symbol, AuctionCommand command);
+
+    /**
+     * Reads an instrument and its lifecycle state on its owner.
+     */
+    Instrument getInstrument(String nodeId, String symbol);
+
+    /**
+     * Changes an instrument's lifecycle state on its owner.
+     *
+     * @throws NotSymbolOwnerException     if the node does not own the symbol (any more).
+     * @throws IllegalArgumentException    if the owner rejected the change.
+     * @throws ClusterUnavailableException if the node could not be reached.
+     */
+    Instrument changeInstrumentState(String nodeId, String symbol, InstrumentState state);
+
+    /**
+     * Reads a symbol's order book on its owner, which rebuilds the Redis snapshot from its book.
+     *
+     * @throws NotSymbolOwnerException     if the node does not own the symbol (any more).
+     * @throws ClusterUnavailableException if the node could not be reached.
+     */
+    OrderBookDto getOrderBook(String nodeId, String symbol);
+
+    /**
+     * Reads a view of a symbol's order book on its owner, as the encoded JSON response body.
+     *
+     * @throws NotSymbolOwnerException     if the node does not own the symbol (any more).
+     * @throws ClusterUnavailableException if the node could not be reached.
+     */
+    byte[] getOrderBookJson(String nodeId, String symbol, Integer depth, BigDecimal grouping);
+
+    List<Trade> getRecentTrades(String nodeId, String symbol, int limit);
+
+    List<Candle> getCandles(String nodeId, String symbol, CandleInterval interval, int limit);
+}
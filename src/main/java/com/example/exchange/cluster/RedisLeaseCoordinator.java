@@ -0,0 +1,69 @@
+package com.example.exchange.cluster;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * {@link LeaseCoordinator} backed by the Redis instance the nodes already share for order book snapshots.
+ * A lease is a key holding the owner's node id with a TTL: acquiring is SET NX PX, and renewing and releasing are
+ * compare-and-set Lua scripts, so a node can only extend or drop a lease it still holds.
+ * Expiry times are derived from the key's remaining TTL and the local clock; lease holders renew well before expiry,
+ * so clock offsets between nodes only need to be small relative to the TTL.
+ */
+public class RedisLeaseCoordinator implements LeaseCoordinator {
+
+    private static final String KEY_PREFIX = "cluster:lease:";
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLeaseCoordinator(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<SymbolLease> current(String symbol) {
+        String key = key(symbol);
+        String holder = redisTemplate.opsForValue().get(key);
+        Long remaining = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+        if (holder == null || remaining == null || remaining <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new SymbolLease(symbol, holder, System.currentTimeMillis() + remaining));
+    }
+
+    @Override
+    public Optional<SymbolLease> tryAcquire(String symbol, String nodeId, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key(symbol), nodeId, ttl);
+        return Boolean.TRUE.equals(acquired) ? Optional.of(new SymbolLease(symbol, nodeId, now + ttl.toMillis())) : Optional.empty();
+    }
+
+    @Override
+    public Optional<SymbolLease> renew(String symbol, String nodeId, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Long renewed = redisTemplate.execute(RENEW, List.of(key(symbol)), nodeId, Long.toString(ttl.toMillis()));
+        return renewed != null && renewed == 1 ? Optional.of(new SymbolLease(symbol, nodeId, now + ttl.toMillis())) : Optional.empty();
+    }
+
+    @Override
+    public void release(String symbol, String nodeId) {
+        redisTemplate.execute(RELEASE, List.of(key(symbol)), nodeId);
+    }
+
+    private static String key(String symbol) {
+        return KEY_PREFIX + symbol;
+    }
+}
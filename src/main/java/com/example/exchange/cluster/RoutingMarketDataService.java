@@ -0,0 +1,63 @@
+package com.example.exchange.cluster;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.service.MarketDataService;
+
+/**
+ * Cluster-aware front of the local MarketDataService. Trade history and open candles live in the memory of the node
+ * that matches the symbol, so reads for a symbol owned elsewhere are forwarded to its owner; any node can serve them.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "exchange.cluster.enabled", havingValue = "true")
+public class RoutingMarketDataService implements MarketDataService {
+
+    private final MarketDataService local;
+    private final SymbolOwnership ownership;
+    private final OrderForwarder forwarder;
+    private final InstrumentRegistry instruments;
+    private final String localNodeId;
+
+    public RoutingMarketDataService(@Qualifier("marketDataServiceImpl") MarketDataService local,
+                                    SymbolOwnership ownership,
+                                    OrderForwarder forwarder,
+                                    InstrumentRegistry instruments,
+                                    ClusterNodes nodes) {
+        this.local = local;
+        this.ownership = ownership;
+        this.forwarder = forwarder;
+        this.instruments = instruments;
+        this.localNodeId = nodes.localNodeId();
+    }
+
+    @Override
+    public void onTrades(List<Trade> trades) {
+        // Only ever called with trades matched on this node
+        local.onTrades(trades);
+    }
+
+    @Override
+    public List<Trade> getRecentTrades(String symbol, int limit) {
+        // Unknown symbols must not reach the ownership lookup, which may take a lease
+        instruments.require(symbol);
+        String owner = ownership.ownerOf(symbol);
+        return owner.equals(localNodeId) ? local.getRecentTrades(symbol, limit) : forwarder.getRecentTrades(owner, symbol, limit);
+    }
+
+    @Override
+    public List<Candle> getCandles(String symbol, CandleInterval interval, int limit) {
+        instruments.require(symbol);
+        String owner = ownership.ownerOf(symbol);
+        return owner.equals(localNodeId) ? local.getCandles(symbol, interval, limit) : forwarder.getCandles(owner, symbol, interval, limit);
+    }
+}
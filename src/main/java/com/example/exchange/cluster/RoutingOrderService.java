@@ -0,0 +1,293 @@
+package com.example.exchange.cluster;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.core.matching.OwnershipFencedException;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Side;
+import com.example.exchange.service.OrderService;
+
+/**
+ * Cluster-aware front of the local OrderService.
+ * Design Principle (Decorator): Controllers keep depending on OrderService; in clustered mode this @Primary bean wraps
+ * the local implementation and only adds routing:
+ * - Orders for a symbol this node owns are matched locally; all others are forwarded to the owner. If the presumed
+ *   owner answers that it no longer owns the symbol, the owner is looked up again and the order is forwarded once more.
+ * - Auctions and instrument lifecycle changes run on the owner of their symbol, which is the node holding the book, and are routed like orders.
+ * - Reads are served by whichever node receives them: order state from the local live index or the shared database,
+ *   and order books from the owner's snapshot in Redis whenever this node has no book for the symbol. Only when
+ *   there is no snapshot either (cold start, or the key of a quiet symbol expired) is the read sent to the owner,
+ *   which rebuilds the snapshot from its book.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "exchange.cluster.enabled", havingValue = "true")
+public class RoutingOrderService implements OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutingOrderService.class);
+
+    private final OrderService local;
+    private final SymbolOwnership ownership;
+    private final OrderForwarder forwarder;
+    private final InstrumentRegistry instruments;
+    private final String localNodeId;
+
+    public RoutingOrderService(@Qualifier("orderServiceImpl") OrderService local,
+                               SymbolOwnership ownership,
+                               OrderForwarder forwarder,
+                               InstrumentRegistry instruments,
+                               ClusterNodes nodes) {
+        this.local = local;
+        this.ownership = ownership;
+        this.forwarder = forwarder;
+        this.instruments = instruments;
+        this.localNodeId = nodes.localNodeId();
+    }
+
+    @Override
+    public Order placeNewOrder(OrderRequest orderRequest) {
+        return route(orderRequest.getSymbol(),
+                () -> local.placeNewOrder(orderRequest),
+                owner -> forwarder.placeOrder(owner, orderRequest));
+    }
+
+    /**
+     * Entry point for orders forwarded by other nodes: matched here or rejected, never forwarded again.
+     *
+     * @throws NotSymbolOwnerException if this node does not own the order's symbol.
+     */
+    public Order placeForwardedOrder(OrderRequest orderRequest) {
+        requireLocal(orderRequest.getSymbol());
+        return local.placeNewOrder(orderRequest);
+    }
+
+    @Override
+    public AuctionIndication startAuction(String symbol) {
+        return routeAuction(symbol, AuctionCommand.START);
+    }
+
+    @Override
+    public AuctionIndication getAuctionIndication(String symbol) {
+        return routeAuction(symbol, AuctionCommand.INDICATE);
+    }
+
+    @Override
+    public AuctionIndication uncrossAuction(String symbol) {
+        return routeAuction(symbol, AuctionCommand.UNCROSS);
+    }
+
+    /**
+     * Entry point for auction commands forwarded by other nodes: run here or rejected, never forwarded again.
+     *
+     * @throws NotSymbolOwnerException if this node does not own the symbol.
+     */
+    public AuctionIndication runForwardedAuction(String symbol, AuctionCommand command) {
+        requireLocal(symbol);
+        return runLocalAuction(symbol, command);
+    }
+
+    private AuctionIndication routeAuction(String symbol, AuctionCommand command) {
+        return route(symbol, () -> runLocalAuction(symbol, command), owner -> forwarder.runAuction(owner, symbol, command));
+    }
+
+    private AuctionIndication runLocalAuction(String symbol, AuctionCommand command) {
+        return switch (command) {
+            case START -> local.startAuction(symbol);
+            case INDICATE -> local.getAuctionIndication(symbol);
+            case UNCROSS -> local.uncrossAuction(symbol);
+        };
+    }
+
+    /**
+     * A single-symbol cancel is routed like an order. An account-wide cancel (cancel-on-disconnect, a dead market
+     * maker) must reach every book the account may rest in, and must not stop halfway:
+     * - Owners are looked up without claiming symbols, and symbols without an owner are skipped (no book exists).
+     * - Each owning node gets one request, which cancels the account's orders in every book it holds.
+     * - A node that cannot be reached does not abort the others; its symbols are returned as failed.
+     */
+    @Override
+    public MassCancelResult cancelOrders(String account, String symbol, Side side) {
+        if (symbol != null) {
+            return route(symbol,
+                    () -> local.cancelOrders(account, symbol, side),
+                    owner -> forwarder.cancelOrders(owner, account, symbol, side));
+        }
+        Map<String, List<String>> symbolsByOwner = new LinkedHashMap<>();
+        List<String> failedSymbols = new ArrayList<>();
+        for (Instrument instrument : instruments.all()) {
+            try {
+                ownership.currentOwner(instrument.symbol()).ifPresent(owner ->
+                        symbolsByOwner.computeIfAbsent(owner, o -> new ArrayList<>()).add(instrument.symbol()));
+            } catch (RuntimeException e) {
+                log.warn("Mass cancel for account {} cannot find the owner of {}: {}", account, instrument.symbol(), e.toString());
+                failedSymbols.add(instrument.symbol());
+            }
+        }
+
+        List<Long> cancelledOrderIds = new ArrayList<>();
+        symbolsByOwner.forEach((owner, symbols) -> {
+            try {
+                MassCancelResult result = owner.equals(localNodeId)
+                        ? local.cancelOrders(account, null, side)
+                        : forwarder.cancelOrders(owner, account, null, side);
+                cancelledOrderIds.addAll(result.getCancelledOrderIds());
+            } catch (RuntimeException e) {
+                log.warn("Mass cancel for account {} failed on {} ({}): {}", account, owner, symbols, e.toString());
+                failedSymbols.addAll(symbols);
+            }
+        });
+        return new MassCancelResult(account, cancelledOrderIds, failedSymbols);
+    }
+
+    /**
+     * Entry point for mass cancels forwarded by other nodes. Without a symbol, cancels the account's orders in every
+     * book this node holds; no ownership check is needed, since the engine only holds books of symbols it owned.
+     *
+     * @throws NotSymbolOwnerException if a symbol is given and this node does not own it.
+     */
+    public MassCancelResult cancelForwardedOrders(String account, String symbol, Side side) {
+        if (symbol != null) {
+            requireLocal(symbol);
+        }
+        return local.cancelOrders(account, symbol, side);
+    }
+
+    /**
+     * Lifecycle states live with the book, on the owner.
+     */
+    @Override
+    public Instrument getInstrument(String symbol) {
+        return route(symbol, () -> local.getInstrument(symbol), owner -> forwarder.getInstrument(owner, symbol));
+    }
+
+    @Override
+    public Instrument changeInstrumentState(String symbol, InstrumentState state) {
+        return route(symbol,
+                () -> local.changeInstrumentState(symbol, state),
+                owner -> forwarder.changeInstrumentState(owner, symbol, state));
+    }
+
+    /**
+     * Entry point for instrument reads and state changes forwarded by other nodes.
+     *
+     * @param state The new state, or null to only read the instrument.
+     * @throws NotSymbolOwnerException if this node does not own the symbol.
+     */
+    public Instrument forwardedInstrument(String symbol, InstrumentState state) {
+        requireLocal(symbol);
+        return state == null ? local.getInstrument(symbol) : local.changeInstrumentState(symbol, state);
+    }
+
+    /**
+     * Runs a request on the symbol's owner: here if this node owns it, otherwise through the forwarder. If the presumed
+     * owner no longer owns the symbol (including this node, when the engine's fence refuses the command), the owner is
+     * looked up again and the request is sent once more.
+     * Unknown symbols are rejected first, so they never reach the ownership lookup (which may take a lease).
+     */
+    private <T> T route(String symbol, Supplier<T> onLocal, Function<String, T> onOwner) {
+        instruments.require(symbol);
+        try {
+            return routeOnce(symbol, onLocal, onOwner);
+        } catch (NotSymbolOwnerException | OwnershipFencedException e) {
+            ownership.invalidate(symbol);
+            return routeOnce(symbol, onLocal, onOwner);
+        }
+    }
+
+    private <T> T routeOnce(String symbol, Supplier<T> onLocal, Function<String, T> onOwner) {
+        String owner = ownership.ownerOf(symbol);
+        return owner.equals(localNodeId) ? onLocal.get() : onOwner.apply(owner);
+    }
+
+    private void requireLocal(String symbol) {
+        if (!ownership.isLocal(symbol)) {
+            throw new NotSymbolOwnerException(symbol, localNodeId);
+        }
+    }
+
+    @Override
+    public Order getOrder(Long orderId) {
+        return local.getOrder(orderId);
+    }
+
+    @Override
+    public OrderBookDto getOrderBook(String symbol) {
+        return local.findOrderBook(symbol).orElseGet(() ->
+                readFromOwner(symbol, () -> local.getOrderBook(symbol), owner -> forwarder.getOrderBook(owner, symbol)));
+    }
+
+    @Override
+    public byte[] getOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+        return local.findOrderBookJson(symbol, depth, grouping).orElseGet(() ->
+                readFromOwner(symbol,
+                        () -> local.getOrderBookJson(symbol, depth, grouping),
+                        owner -> forwarder.getOrderBookJson(owner, symbol, depth, grouping)));
+    }
+
+    @Override
+    public Optional<OrderBookDto> findOrderBook(String symbol) {
+        return local.findOrderBook(symbol);
+    }
+
+    @Override
+    public Optional<byte[]> findOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+        return local.findOrderBookJson(symbol, depth, grouping);
+    }
+
+    /**
+     * Entry point for order book reads forwarded by other nodes, which found neither a book nor a snapshot.
+     *
+     * @throws NotSymbolOwnerException if this node does not own the symbol.
+     */
+    public OrderBookDto forwardedOrderBook(String symbol) {
+        requireLocal(symbol);
+        return local.getOrderBook(symbol);
+    }
+
+    /**
+     * @see #forwardedOrderBook
+     */
+    public byte[] forwardedOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+        requireLocal(symbol);
+        return local.getOrderBookJson(symbol, depth, grouping);
+    }
+
+    /**
+     * Sends a read to the symbol's current owner without claiming the symbol: a symbol nobody owns has no book
+     * anywhere, so it is answered here (as empty). A stale owner is looked up again once.
+     */
+    private <T> T readFromOwner(String symbol, Supplier<T> onLocal, Function<String, T> onOwner) {
+        Optional<String> owner = ownership.currentOwner(symbol);
+        if (owner.isEmpty() || owner.get().equals(localNodeId)) {
+            return onLocal.get();
+        }
+        try {
+            return onOwner.apply(owner.get());
+        } catch (NotSymbolOwnerException e) {
+            ownership.invalidate(symbol);
+            Optional<String> newOwner = ownership.currentOwner(symbol);
+            return newOwner.isEmpty() || newOwner.get().equals(localNodeId) ? onLocal.get() : onOwner.apply(newOwner.get());
+        }
+    }
+}
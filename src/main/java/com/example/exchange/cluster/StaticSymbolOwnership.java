@@ -0,0 +1,78 @@
+package com.example.exchange.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed symbol assignment: explicitly configured symbols go to their configured node, every other symbol to the node
+ * chosen by rendezvous (highest random weight) hashing.
+ * Design Principle (No Coordination on the Hot Path): Every node computes the same answer from the same configuration,
+ * so ownership needs no shared state and no network round trip. Rendezvous hashing moves only the symbols of a node
+ * that is added or removed; the trade-off is that a failed node's symbols stay unavailable until the configuration
+ * changes (use lease-based ownership for automatic failover).
+ */
+public class StaticSymbolOwnership implements SymbolOwnership {
+
+    private final String localNodeId;
+    private final List<String> nodeIds;
+    private final Map<String, String> explicitOwners;
+
+    /**
+     * @param nodes          The cluster members.
+     * @param explicitOwners Symbol to node id overrides.
+     */
+    public StaticSymbolOwnership(ClusterNodes nodes, Map<String, String> explicitOwners) {
+        explicitOwners.forEach((symbol, node) -> {
+            if (!nodes.baseUrls().containsKey(node)) {
+                throw new IllegalArgumentException("Symbol " + symbol + " is assigned to unknown node " + node);
+            }
+        });
+        this.localNodeId = nodes.localNodeId();
+        this.nodeIds = nodes.nodeIds();
+        this.explicitOwners = Map.copyOf(explicitOwners);
+    }
+
+    @Override
+    public String ownerOf(String symbol) {
+        String owner = explicitOwners.get(symbol);
+        return owner != null ? owner : rendezvous(symbol, nodeIds);
+    }
+
+    @Override
+    public Optional<String> currentOwner(String symbol) {
+        return Optional.of(ownerOf(symbol));
+    }
+
+    @Override
+    public boolean isLocal(String symbol) {
+        return localNodeId.equals(ownerOf(symbol));
+    }
+
+    @Override
+    public boolean holdsLocally(String symbol) {
+        return isLocal(symbol);
+    }
+
+    /**
+     * @return The node with the highest hash of (node, symbol). Ties are broken by node id order.
+     */
+    static String rendezvous(String symbol, List<String> nodeIds) {
+        String best = null;
+        long bestWeight = -1;
+        for (String nodeId : nodeIds) {
+            CRC32C crc = new CRC32C();
+            crc.update(nodeId.getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            crc.update(symbol.getBytes(StandardCharsets.UTF_8));
+            long weight = crc.getValue();
+            if (weight > bestWeight) {
+                best = nodeId;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+}
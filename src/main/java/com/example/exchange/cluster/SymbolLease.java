@@ -0,0 +1,11 @@
+package com.example.exchange.cluster;
+
+/**
+ * A time-limited claim by one node on one symbol.
+ *
+ * @param symbol          The symbol.
+ * @param nodeId          The holder.
+ * @param expiresAtMillis When the claim lapses unless renewed, in epoch milliseconds of the coordinator's clock.
+ */
+public record SymbolLease(String symbol, String nodeId, long expiresAtMillis) {
+}
@@ -0,0 +1,46 @@
+package com.example.exchange.cluster;
+
+import java.util.Optional;
+
+/**
+ * Decides which node of the cluster owns (matches) each symbol.
+ * Exactly one node owns a symbol at any time; every other node forwards that symbol's orders to it.
+ */
+public interface SymbolOwnership {
+
+    /**
+     * @param symbol The trading symbol.
+     * @return The id of the node that owns the symbol.
+     * @throws ClusterUnavailableException if no owner can be determined.
+     */
+    String ownerOf(String symbol);
+
+    /**
+     * Looks up a symbol's owner without claiming it, e.g. to reach the books an account may have orders in.
+     *
+     * @param symbol The trading symbol.
+     * @return The id of the node that owns the symbol, or empty if no node does.
+     * @throws ClusterUnavailableException if the owner cannot be determined.
+     */
+    Optional<String> currentOwner(String symbol);
+
+    /**
+     * @return True if this node owns the symbol and may match its orders.
+     */
+    boolean isLocal(String symbol);
+
+    /**
+     * Answers from local state only, never acquiring anything or calling the coordinator, so it is cheap enough to
+     * check under a symbol lock on every order. The matching engine uses it to fence each order: ownership is checked
+     * when a request is routed, but may be lost before the order reaches the engine.
+     *
+     * @return True if this node holds the symbol right now.
+     */
+    boolean holdsLocally(String symbol);
+
+    /**
+     * Forgets anything cached about the symbol's owner, e.g. after the presumed owner rejected a forwarded order.
+     */
+    default void invalidate(String symbol) {
+    }
+}
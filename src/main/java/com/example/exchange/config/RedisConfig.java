@@ -4,13 +4,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import com.example.exchange.api.dto.OrderBookDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.example.exchange.repository.OrderBookBinarySerializer;
 
 /**
  * Configures Redis integration, specifically the RedisTemplate.
@@ -28,19 +25,13 @@ public class RedisConfig {
 
         template.setKeySerializer(new StringRedisSerializer());
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+        // Order book snapshots use a purpose-built binary codec: no type metadata, fixed-point delta-encoded levels.
+        // Far smaller and cheaper than type-annotated JSON, and the gap grows with book depth.
+        OrderBookBinarySerializer orderBookSerializer = new OrderBookBinarySerializer();
 
-        // Enable default typing for polymorphic deserialization, crucial for complex nested objects
-        objectMapper.activateDefaultTyping(
-            BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build(),
-            ObjectMapper.DefaultTyping.NON_FINAL
-        );
-        GenericJackson2JsonRedisSerializer jsonRedisSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-
-        template.setValueSerializer(jsonRedisSerializer);
+        template.setValueSerializer(orderBookSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(jsonRedisSerializer);
+        template.setHashValueSerializer(orderBookSerializer);
         template.afterPropertiesSet();
         return template;
     }
@@ -0,0 +1,28 @@
+package com.example.exchange.core.codec;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Converts prices and quantities between BigDecimal and fixed-point longs for the binary codecs.
+ * All values are carried with 8 decimal places, the same scale as the price/quantity columns in the database.
+ * Values with more decimals are rounded HALF_UP, which matches how PostgreSQL rounds into NUMERIC(18, 8).
+ */
+public final class ScaledDecimals {
+
+    public static final int SCALE = 8;
+
+    private ScaledDecimals() {
+    }
+
+    /**
+     * @throws ArithmeticException if the value does not fit in a long at 8 decimal places.
+     */
+    public static long toScaledLong(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromScaledLong(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.exchange.core.events;
+
+import java.util.List;
+
+import com.example.exchange.core.matching.FillReport;
+import com.example.exchange.domain.Trade;
+
+/**
+ * One change to a book, as published by the matching engine: an order placed (whether it traded, rested or was
+ * rejected), a mass cancel or an auction uncross.
+ *
+ * @param sequence The position of the event in the engine's output stream. Events of one symbol are numbered in the
+ *                 order they were applied to its book.
+ * @param symbol   The book that changed.
+ * @param trades   The trades executed, possibly none.
+ * @param fills    The new state of every order that changed, possibly none (an order that rested without trading).
+ */
+public record EngineEvent(long sequence, String symbol, List<Trade> trades, List<FillReport> fills) {
+}
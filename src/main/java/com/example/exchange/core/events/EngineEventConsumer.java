@@ -0,0 +1,36 @@
+package com.example.exchange.core.events;
+
+/**
+ * A downstream system that follows the matching engine's output, e.g. persistence, market data or risk.
+ * Every bean implementing this interface is subscribed to the {@link EngineEventRing} on startup and gets its own
+ * thread and cursor, so consumers never wait for each other or for the engine, and new ones are added without
+ * touching the order path.
+ *
+ * Events arrive in sequence order on the consumer's thread. By default a consumer sees every event: when it falls a
+ * full ring behind, the engine waits for it. A consumer that opts into loss ({@link #mayLoseEvents()}) never holds the
+ * engine back and instead skips events that were overwritten before it read them (see {@link EngineEventDispatcher}).
+ */
+public interface EngineEventConsumer {
+
+    /**
+     * @return A short, stable name for the consumer's thread and metrics, e.g. "persistence".
+     */
+    String name();
+
+    void onEvent(EngineEvent event);
+
+    /**
+     * @return Whether the consumer tolerates losing events when it falls behind, rather than slowing the engine down.
+     *         Must be true for a consumer that takes a symbol lock (e.g. reads a book), since the engine publishes
+     *         while holding it.
+     */
+    default boolean mayLoseEvents() {
+        return false;
+    }
+
+    /**
+     * Called after each run of events taken from the ring in one go, for consumers that coalesce work across events.
+     */
+    default void onBatchEnd() {
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.exchange.core.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs every {@link EngineEventConsumer} against the {@link EngineEventRing}, each on its own thread with its own cursor.
+ * A consumer drains whatever has been published since its last pass, up to a batch, then gets
+ * {@link EngineEventConsumer#onBatchEnd}. When it has caught up it spins briefly, then parks for short intervals, so an
+ * idle consumer costs little and the engine never has to signal it.
+ *
+ * The cursor of a durable consumer gates the ring, so the engine waits rather than overwrite an event it has not read
+ * (counted as exchange.events.publish.gated); its thread releases the gate when it exits. A consumer that opted into
+ * loss and falls a full lap behind has lost events to the overwrite. It skips ahead to half a ring behind the head, so
+ * it is not lapped again at once, and the skipped events are counted (exchange.events.consumer.skipped) and logged.
+ * Each consumer's distance from the head is exposed as exchange.events.consumer.lag.
+ *
+ * An event a durable consumer throws on is handed to it again, a few times with a short pause in between; its cursor
+ * stays on the event meanwhile, so the ring cannot move past it either. An event that still fails, or that a lossy
+ * consumer throws on once, is logged and counted as lost for that consumer only, like the skipped ones.
+ * On shutdown each consumer finishes the events already published before its thread exits.
+ */
+@Component
+public class EngineEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EngineEventDispatcher.class);
+
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int DURABLE_ATTEMPTS = 3;
+    private static final long RETRY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final EngineEventRing ring;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public EngineEventDispatcher(EngineEventRing ring, List<EngineEventConsumer> consumers, MeterRegistry meterRegistry) {
+        this.ring = ring;
+        for (EngineEventConsumer consumer : consumers) {
+            Subscription subscription = new Subscription(consumer, Counter.builder("exchange.events.consumer.skipped")
+                    .description("Engine events a consumer lost because it fell a full ring behind or failed to handle them")
+                    .tag("consumer", consumer.name())
+                    .register(meterRegistry));
+            Gauge.builder("exchange.events.consumer.lag", subscription, s -> ring.getNextSequence() - s.next.get())
+                    .description("Engine events published but not yet handled by a consumer")
+                    .tag("consumer", consumer.name())
+                    .register(meterRegistry);
+            if (!consumer.mayLoseEvents()) {
+                ring.addGatingSequence(subscription.next);
+            }
+            subscriptions.add(subscription);
+        }
+        FunctionCounter.builder("exchange.events.publish.gated", ring, EngineEventRing::getGatedPublishes)
+                .description("Engine events whose publishing waited for a durable consumer to catch up")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (Subscription subscription : subscriptions) {
+            Thread thread = new Thread(subscription, "engine-events-" + subscription.consumer.name());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Lets every consumer handle what has already been published, then stops their threads.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private final class Subscription implements Runnable {
+
+        private final EngineEventConsumer consumer;
+        private final Counter skipped;
+        // The next sequence this consumer reads; only written by its own thread
+        private final AtomicLong next = new AtomicLong();
+
+        private Subscription(EngineEventConsumer consumer, Counter skipped) {
+            this.consumer = consumer;
+            this.skipped = skipped;
+        }
+
+        @Override
+        public void run() {
+            int idleSpins = 0;
+            try {
+                while (running || next.get() < ring.getNextSequence()) {
+                    if (drain() > 0) {
+                        idleSpins = 0;
+                    } else if (idleSpins++ < SPINS_BEFORE_PARKING) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                }
+            } finally {
+                // Nothing reads for this consumer any more; the engine must not wait for it
+                ring.removeGatingSequence(next);
+            }
+        }
+
+        /**
+         * @return The number of events handled.
+         */
+        private int drain() {
+            int handled = 0;
+            while (handled < MAX_BATCH_SIZE) {
+                long sequence = next.get();
+                EngineEvent event = ring.get(sequence);
+                if (event == null || event.sequence() < sequence) {
+                    break; // not published yet
+                }
+                if (event.sequence() > sequence) {
+                    // Only possible for a consumer that does not gate the ring
+                    skipAhead();
+                    continue;
+                }
+                if (!handle(event)) {
+                    skipped.increment();
+                }
+                next.lazySet(sequence + 1);
+                handled++;
+            }
+            if (handled > 0) {
+                try {
+                    consumer.onBatchEnd();
+                } catch (RuntimeException e) {
+                    log.error("Engine event consumer {} failed to finish a batch", consumer.name(), e);
+                }
+            }
+            return handled;
+        }
+
+        /**
+         * Hands an event to the consumer, retrying a durable consumer that throws.
+         *
+         * @return Whether the consumer handled the event.
+         */
+        private boolean handle(EngineEvent event) {
+            int attempts = consumer.mayLoseEvents() ? 1 : DURABLE_ATTEMPTS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    consumer.onEvent(event);
+                    return true;
+                } catch (RuntimeException e) {
+                    if (attempt == attempts) {
+                        log.error("Engine event consumer {} failed on event {} for {} ({} attempts); the event is lost to it",
+                                consumer.name(), event.sequence(), event.symbol(), attempts, e);
+                        return false;
+                    }
+                    log.warn("Engine event consumer {} failed on event {} for {} (attempt {} of {}), retrying: {}",
+                            consumer.name(), event.sequence(), event.symbol(), attempt, attempts, e.toString());
+                    LockSupport.parkNanos(RETRY_PARK_NANOS * attempt);
+                }
+            }
+        }
+
+        private void skipAhead() {
+            long from = next.get();
+            long resumeAt = Math.max(from + 1, ring.getNextSequence() - ring.getCapacity() / 2);
+            skipped.increment(resumeAt - from);
+            log.error("Engine event consumer {} fell a full ring behind; skipping {} events from {}",
+                    consumer.name(), resumeAt - from, from);
+            next.set(resumeAt);
+        }
+    }
+}
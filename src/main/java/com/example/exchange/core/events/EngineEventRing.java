@@ -0,0 +1,132 @@
+package com.example.exchange.core.events;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.core.matching.FillReport;
+import com.example.exchange.domain.Trade;
+
+/**
+ * The sequenced output stream of the matching engine, held in a fixed-size ring that every consumer reads.
+ * Design Principle (Only Durable Readers Hold Back the Producer): Publishing claims the next sequence with one atomic
+ * increment and writes the event into its slot. Each consumer keeps its own cursor. The cursors of consumers that must
+ * see every event (persistence) are registered as gating sequences: a publish whose slot still holds an event one of
+ * them has not read waits until it has, so a slow durable consumer slows the engine down instead of losing events.
+ * Consumers that accept loss (market data, the Redis snapshot) are not tracked at all; one that falls a full lap
+ * behind finds its next slot overwritten by a newer event and detects that from the sequence stored in the event.
+ * While every durable consumer keeps up, which is the normal case, publishing never waits.
+ *
+ * The engine publishes under the symbol's lock, so the events of one symbol are sequenced in book order. Events of
+ * different symbols may complete out of sequence order; consumers wait for each sequence in turn.
+ */
+@Component
+public class EngineEventRing {
+
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AtomicReferenceArray<EngineEvent> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    // Next sequence to be read by each durable consumer; a slot is free once every one of them is past it
+    private final List<AtomicLong> gatingSequences = new CopyOnWriteArrayList<>();
+    private final AtomicLong gatedPublishes = new AtomicLong();
+
+    public EngineEventRing(@Value("${exchange.events.ring-size:65536}") int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("exchange.events.ring-size must be a power of two, was " + size);
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends an event to the stream, overwriting the event one lap behind it once every durable consumer has read
+     * that one.
+     *
+     * @return The event's sequence.
+     */
+    public long publish(String symbol, List<Trade> trades, List<FillReport> fills) {
+        long sequence = nextSequence.getAndIncrement();
+        awaitSlot(sequence);
+        slots.setRelease(index(sequence), new EngineEvent(sequence, symbol, trades, fills));
+        return sequence;
+    }
+
+    /**
+     * Makes publishing wait for a consumer that must not lose events.
+     *
+     * @param cursor The next sequence the consumer reads, advanced by the consumer as it goes.
+     */
+    public void addGatingSequence(AtomicLong cursor) {
+        gatingSequences.add(cursor);
+    }
+
+    /**
+     * Stops publishing from waiting for a consumer, e.g. when its thread exits.
+     */
+    public void removeGatingSequence(AtomicLong cursor) {
+        gatingSequences.remove(cursor);
+    }
+
+    /**
+     * @return The event in the slot of this sequence: the event itself, an older one if it is not published yet, a
+     *         newer one if it was overwritten, or null if the slot was never written.
+     */
+    public EngineEvent get(long sequence) {
+        return slots.getAcquire(index(sequence));
+    }
+
+    /**
+     * @return The sequence the next published event will get, i.e. the number of events published so far.
+     */
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return How many publishes had to wait for a durable consumer to free their slot.
+     */
+    public long getGatedPublishes() {
+        return gatedPublishes.get();
+    }
+
+    private void awaitSlot(long sequence) {
+        long wrapPoint = sequence - getCapacity();
+        if (wrapPoint < 0 || minimumGatingSequence() > wrapPoint) {
+            return;
+        }
+        gatedPublishes.incrementAndGet();
+        int spins = 0;
+        while (minimumGatingSequence() <= wrapPoint) {
+            if (spins++ < SPINS_BEFORE_PARKING) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    private long minimumGatingSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (AtomicLong cursor : gatingSequences) {
+            minimum = Math.min(minimum, cursor.get());
+        }
+        return minimum;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.exchange.core.instrument;
+
+import java.math.BigDecimal;
+
+/**
+ * A tradable instrument and its current lifecycle state. Immutable: a state change replaces the registry entry.
+ *
+ * @param symbol           The trading symbol (e.g. "BTC/USD").
+ * @param tickSize         Prices must be a multiple of this.
+ * @param lotSize          Quantities must be a multiple of this.
+ * @param priceBandPercent Maximum distance of an execution price from the reference price, in percent, before the
+ *                         circuit breaker halts the instrument; null for no circuit breaker.
+ * @param state            The lifecycle state.
+ */
+public record Instrument(String symbol, BigDecimal tickSize, BigDecimal lotSize, BigDecimal priceBandPercent,
+                         InstrumentState state) {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    public Instrument {
+        if (tickSize.signum() <= 0 || lotSize.signum() <= 0) {
+            throw new IllegalArgumentException("Tick and lot size of " + symbol + " must be positive");
+        }
+        if (priceBandPercent != null && (priceBandPercent.signum() <= 0 || priceBandPercent.compareTo(HUNDRED) >= 0)) {
+            throw new IllegalArgumentException("Price band of " + symbol + " must be between 0 and 100 percent");
+        }
+    }
+
+    /**
+     * Checks that an order can be accepted now.
+     *
+     * @throws IllegalArgumentException if the instrument does not accept orders, or the price or quantity is off the
+     *                                  tick or lot grid.
+     */
+    public void checkOrder(BigDecimal price, BigDecimal quantity) {
+        if (!state.acceptsOrders()) {
+            throw new IllegalArgumentException(symbol + " is " + state + " and does not accept orders");
+        }
+        if (price.remainder(tickSize).signum() != 0) {
+            throw new IllegalArgumentException("Price must be a multiple of the tick size " + tickSize.toPlainString());
+        }
+        if (quantity.remainder(lotSize).signum() != 0) {
+            throw new IllegalArgumentException("Quantity must be a multiple of the lot size " + lotSize.toPlainString());
+        }
+    }
+
+    public Instrument withState(InstrumentState newState) {
+        return new Instrument(symbol, tickSize, lotSize, priceBandPercent, newState);
+    }
+
+    public boolean hasPriceBand() {
+        return priceBandPercent != null;
+    }
+
+    /**
+     * @return The lowest execution price the circuit breaker allows around the reference price.
+     */
+    public BigDecimal lowerPriceLimit(BigDecimal reference) {
+        return reference.subtract(bandWidth(reference));
+    }
+
+    /**
+     * @return The highest execution price the circuit breaker allows around the reference price.
+     */
+    public BigDecimal upperPriceLimit(BigDecimal reference) {
+        return reference.add(bandWidth(reference));
+    }
+
+    private BigDecimal bandWidth(BigDecimal reference) {
+        return reference.multiply(priceBandPercent).divide(HUNDRED);
+    }
+}
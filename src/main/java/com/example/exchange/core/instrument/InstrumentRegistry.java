@@ -0,0 +1,78 @@
+package com.example.exchange.core.instrument;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The instruments this exchange trades, loaded once at startup from exchange.instruments.definitions.
+ * Design Principle (Fail Fast): The set of symbols is fixed, so an order or read for an unknown symbol (e.g. a typo)
+ * is rejected here before it can allocate a book, a lock or a cache entry.
+ * Only the lifecycle states change at runtime, and only through the matching engine under the symbol's lock.
+ */
+@Component
+public class InstrumentRegistry {
+
+    private final ConcurrentHashMap<String, Instrument> instruments = new ConcurrentHashMap<>();
+
+    /**
+     * @param definitions  Comma separated "symbol:tickSize:lotSize[:priceBandPercent]" entries,
+     *                     e.g. "BTC/USD:0.01:0.00000001:10,ETH/USD:0.01:0.0001".
+     * @param initialState The state every instrument starts in.
+     */
+    public InstrumentRegistry(@Value("${exchange.instruments.definitions:BTC/USD:0.01:0.00000001:10}") String definitions,
+                              @Value("${exchange.instruments.initial-state:OPEN}") InstrumentState initialState) {
+        for (String entry : definitions.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            Instrument instrument = parse(entry.trim(), initialState);
+            if (instruments.putIfAbsent(instrument.symbol(), instrument) != null) {
+                throw new IllegalArgumentException("Duplicate instrument " + instrument.symbol());
+            }
+        }
+    }
+
+    /**
+     * @return The instrument, or null if the symbol is not traded here.
+     */
+    public Instrument find(String symbol) {
+        return instruments.get(symbol);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the symbol is not traded here.
+     */
+    public Instrument require(String symbol) {
+        Instrument instrument = instruments.get(symbol);
+        if (instrument == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        return instrument;
+    }
+
+    public Collection<Instrument> all() {
+        return List.copyOf(instruments.values());
+    }
+
+    /**
+     * Must only be called by the thread holding the symbol's matching lock.
+     */
+    public Instrument updateState(String symbol, InstrumentState state) {
+        return instruments.computeIfPresent(symbol, (s, instrument) -> instrument.withState(state));
+    }
+
+    private static Instrument parse(String entry, InstrumentState initialState) {
+        String[] fields = entry.split(":");
+        if (fields.length < 3 || fields.length > 4) {
+            throw new IllegalArgumentException("Invalid exchange.instruments.definitions entry: " + entry);
+        }
+        BigDecimal priceBand = fields.length == 4 ? new BigDecimal(fields[3].trim()) : null;
+        return new Instrument(fields[0].trim(), new BigDecimal(fields[1].trim()), new BigDecimal(fields[2].trim()),
+                priceBand, initialState);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.exchange.core.instrument;
+
+/**
+ * The lifecycle state of a tradable instrument.
+ */
+public enum InstrumentState {
+    /** Accepting orders into the call phase of an opening or reopening auction; nothing matches until it uncrosses. */
+    PRE_OPEN,
+    /** Continuous matching. */
+    OPEN,
+    /** Trading paused, by an operator or by the price-band circuit breaker. Resting orders are kept; new ones are rejected. */
+    HALTED,
+    /** Not trading. Resting orders are kept; new ones are rejected. */
+    CLOSED;
+
+    public boolean acceptsOrders() {
+        return this == PRE_OPEN || this == OPEN;
+    }
+}
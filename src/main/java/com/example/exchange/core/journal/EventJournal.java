@@ -0,0 +1,287 @@
+package com.example.exchange.core.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Trade;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous, binary audit log of matching engine events.
+ * Design Principle (Keep I/O off the Matching Thread): The engine only captures a small {@link JournalEvent} and
+ * offers it to a bounded queue, which never blocks. A single writer thread drains the queue, encodes the events in the
+ * compact {@link JournalFormat} and appends them to memory-mapped segment files, rolling to a new file when one fills.
+ * If the queue is ever full the event is dropped and counted rather than stalling matching. An event that cannot be
+ * encoded (a symbol longer than the format allows, or a value outside its fixed-point range) is skipped and counted
+ * too. The segment size is checked at startup against the largest record, so every record fits in a fresh segment.
+ *
+ * Records are visible to {@link JournalReader} as soon as they are written to the mapping; segments are forced to
+ * disk when they are rolled and on shutdown.
+ */
+@Component
+public class EventJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(EventJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+    private static final int DRAIN_BATCH_SIZE = 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSizeBytes;
+    private final ArrayBlockingQueue<JournalEvent> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // Owned by the writer thread
+    private final Map<String, byte[]> symbolBytes = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long nextSequence;
+
+    public EventJournal(@Value("${exchange.journal.enabled:true}") boolean enabled,
+                        @Value("${exchange.journal.directory:journal}") String directory,
+                        @Value("${exchange.journal.segment-size-bytes:67108864}") int segmentSizeBytes,
+                        @Value("${exchange.journal.queue-capacity:65536}") int queueCapacity,
+                        MeterRegistry meterRegistry) {
+        int minSegmentSizeBytes = JournalFormat.SEGMENT_HEADER_BYTES + JournalFormat.MAX_RECORD_BYTES + Integer.BYTES;
+        if (enabled && segmentSizeBytes < minSegmentSizeBytes) {
+            throw new IllegalArgumentException("exchange.journal.segment-size-bytes must be at least " + minSegmentSizeBytes
+                    + " to hold the largest journal record");
+        }
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("exchange.journal.queue.depth", queue, ArrayBlockingQueue::size)
+                .description("Engine events waiting to be written to the journal")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.journal.dropped", dropped, AtomicLong::get)
+                .description("Engine events dropped because the journal queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.journal.rejected", rejected, AtomicLong::get)
+                .description("Engine events not journaled because they cannot be encoded")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        recoverPosition();
+        openNextSegment();
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "event-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops accepting new events, writes out everything already queued and forces the last segment to disk.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void orderAccepted(Order order) {
+        if (enabled) {
+            publish(JournalEvent.orderAccepted(order));
+        }
+    }
+
+    public void orderRested(Order order) {
+        if (enabled) {
+            publish(JournalEvent.orderRested(order));
+        }
+    }
+
+    public void orderCancelled(Order order) {
+        if (enabled) {
+            publish(JournalEvent.orderCancelled(order));
+        }
+    }
+
+    public void trade(Trade trade) {
+        if (enabled) {
+            publish(JournalEvent.trade(trade));
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private void publish(JournalEvent event) {
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void runWriter() {
+        List<JournalEvent> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        try {
+            while (running || !queue.isEmpty()) {
+                JournalEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+                for (JournalEvent event : batch) {
+                    write(event);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Event journal writer failed, journaling is stopped", e);
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void write(JournalEvent event) throws IOException {
+        String symbol = event.order() != null ? event.order().getSymbol() : event.trade().getSymbol();
+        byte[] symbol8 = symbolBytes.computeIfAbsent(symbol, s -> s.getBytes(StandardCharsets.UTF_8));
+        if (symbol8.length > JournalFormat.MAX_SYMBOL_BYTES) {
+            rejected.incrementAndGet();
+            log.warn("Skipping {} journal event: symbol is longer than {} bytes", event.type(), JournalFormat.MAX_SYMBOL_BYTES);
+            return;
+        }
+
+        // Always leave room for the zero length that terminates a segment
+        if (segment.remaining() < JournalFormat.encodedLength(event, symbol8) + Integer.BYTES) {
+            closeSegment();
+            openNextSegment();
+        }
+        int start = segment.position();
+        try {
+            JournalFormat.encode(segment, event, nextSequence, symbol8);
+            nextSequence++;
+        } catch (ArithmeticException e) {
+            // A value that does not fit the fixed-point format; erase the partial record and skip it
+            // instead of stopping the journal
+            for (int i = start; i < segment.position(); i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.position(start);
+            rejected.incrementAndGet();
+            log.warn("Skipping unencodable {} journal event: {}", event.type(), e.getMessage());
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes);
+        segment.putInt(JournalFormat.MAGIC);
+        segment.putInt(JournalFormat.VERSION);
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            log.error("Failed to close journal segment {}", segmentIndex, e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Continues numbering after the segments left by a previous run, so sequences stay unique across restarts.
+     */
+    private void recoverPosition() throws IOException {
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            return;
+        }
+        segmentIndex = segmentIndexOf(segments.getLast());
+        for (Path path : segments.reversed()) {
+            long lastSequence = lastSequenceIn(path);
+            if (lastSequence >= 0) {
+                nextSequence = lastSequence + 1;
+                return;
+            }
+        }
+    }
+
+    private static long lastSequenceIn(Path path) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            buffer.position(JournalFormat.SEGMENT_HEADER_BYTES);
+            long last = -1;
+            for (long sequence = JournalFormat.skip(buffer); sequence >= 0; sequence = JournalFormat.skip(buffer)) {
+                last = sequence;
+            }
+            return last;
+        }
+    }
+
+    /**
+     * @return The journal segment files in the directory, in write order.
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int segmentIndexOf(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
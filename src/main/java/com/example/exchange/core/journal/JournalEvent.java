@@ -0,0 +1,30 @@
+package com.example.exchange.core.journal;
+
+import java.math.BigDecimal;
+
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Trade;
+
+/**
+ * An engine event captured on the matching thread and handed to the journal writer.
+ * Only references and values that are immutable at capture time are kept (the order's identity fields, the trade,
+ * and the remaining quantity BigDecimal), so the writer thread can encode it later without racing the engine.
+ */
+record JournalEvent(JournalRecordType type, long timestamp, Order order, Trade trade, BigDecimal remainingQuantity) {
+
+    static JournalEvent orderAccepted(Order order) {
+        return new JournalEvent(JournalRecordType.ORDER_ACCEPTED, System.currentTimeMillis(), order, null, order.getQuantity());
+    }
+
+    static JournalEvent orderRested(Order order) {
+        return new JournalEvent(JournalRecordType.ORDER_RESTED, System.currentTimeMillis(), order, null, order.getRemainingQuantity());
+    }
+
+    static JournalEvent orderCancelled(Order order) {
+        return new JournalEvent(JournalRecordType.ORDER_CANCELLED, System.currentTimeMillis(), order, null, order.getRemainingQuantity());
+    }
+
+    static JournalEvent trade(Trade trade) {
+        return new JournalEvent(JournalRecordType.TRADE, System.currentTimeMillis(), null, trade, null);
+    }
+}
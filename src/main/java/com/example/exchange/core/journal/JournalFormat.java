@@ -0,0 +1,160 @@
+package com.example.exchange.core.journal;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.example.exchange.core.codec.ScaledDecimals;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+
+/**
+ * The binary layout of journal segment files, shared by the writer ({@link EventJournal}) and the decoder
+ * ({@link JournalReader}).
+ *
+ * <pre>
+ * segment : int magic ("EJNL") | int version | record* | zero padding
+ * record  : int length (bytes that follow) | byte type | long sequence | long epochMillis | body
+ * ORDER_ACCEPTED body : long orderId | byte side | byte orderType | long price | long quantity | symbol
+ * ORDER_RESTED body   : long orderId | long remainingQuantity | symbol
+ * ORDER_CANCELLED body: long orderId | long remainingQuantity (cancelled quantity) | symbol
+ * TRADE body          : long buyOrderId | long sellOrderId | long price | long quantity | symbol
+ * symbol              : short length | UTF-8 bytes
+ * </pre>
+ * Prices and quantities are fixed-point longs with 8 decimals (see {@link ScaledDecimals}). A zero length marks the
+ * end of the written part of a segment.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x454A4E4C;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 8;
+
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + 1 + Long.BYTES + Long.BYTES;
+    // Events of longer symbols are not journaled, so every record fits in an empty segment of a validated size
+    static final int MAX_SYMBOL_BYTES = 128;
+    // A trade (the longest body) of a symbol of the maximum length
+    static final int MAX_RECORD_BYTES = RECORD_HEADER_BYTES + Long.BYTES * 4 + Short.BYTES + MAX_SYMBOL_BYTES;
+
+    private JournalFormat() {
+    }
+
+    /**
+     * @return The full encoded size of the event, including its length prefix.
+     */
+    static int encodedLength(JournalEvent event, byte[] symbol) {
+        int body = switch (event.type()) {
+            case ORDER_ACCEPTED -> Long.BYTES + 2 + Long.BYTES * 2;
+            case ORDER_RESTED, ORDER_CANCELLED -> Long.BYTES * 2;
+            case TRADE -> Long.BYTES * 4;
+        };
+        return RECORD_HEADER_BYTES + body + Short.BYTES + symbol.length;
+    }
+
+    static void encode(ByteBuffer buffer, JournalEvent event, long sequence, byte[] symbol) {
+        buffer.putInt(encodedLength(event, symbol) - Integer.BYTES);
+        buffer.put(event.type().getCode());
+        buffer.putLong(sequence);
+        buffer.putLong(event.timestamp());
+        switch (event.type()) {
+            case ORDER_ACCEPTED -> {
+                Order order = event.order();
+                buffer.putLong(idOf(order.getId()));
+                buffer.put((byte) order.getSide().ordinal());
+                buffer.put((byte) order.getOrderType().ordinal());
+                buffer.putLong(ScaledDecimals.toScaledLong(order.getPrice()));
+                buffer.putLong(ScaledDecimals.toScaledLong(event.remainingQuantity()));
+            }
+            case ORDER_RESTED, ORDER_CANCELLED -> {
+                buffer.putLong(idOf(event.order().getId()));
+                buffer.putLong(ScaledDecimals.toScaledLong(event.remainingQuantity()));
+            }
+            case TRADE -> {
+                Trade trade = event.trade();
+                buffer.putLong(idOf(trade.getBuyOrderId()));
+                buffer.putLong(idOf(trade.getSellOrderId()));
+                buffer.putLong(ScaledDecimals.toScaledLong(trade.getPrice()));
+                buffer.putLong(ScaledDecimals.toScaledLong(trade.getQuantity()));
+            }
+        }
+        buffer.putShort((short) symbol.length);
+        buffer.put(symbol);
+    }
+
+    /**
+     * Decodes the record at the buffer's position.
+     *
+     * @return The decoded record, or null if the buffer is at the end of the written data.
+     */
+    static JournalRecord decode(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length == 0) {
+            return null;
+        }
+        JournalRecordType type = JournalRecordType.fromCode(buffer.get());
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+
+        long orderId = 0;
+        long buyOrderId = 0;
+        long sellOrderId = 0;
+        Side side = null;
+        OrderType orderType = null;
+        BigDecimal price = null;
+        BigDecimal quantity;
+        switch (type) {
+            case ORDER_ACCEPTED -> {
+                orderId = buffer.getLong();
+                side = Side.values()[buffer.get()];
+                orderType = OrderType.values()[buffer.get()];
+                price = ScaledDecimals.fromScaledLong(buffer.getLong());
+                quantity = ScaledDecimals.fromScaledLong(buffer.getLong());
+            }
+            case ORDER_RESTED, ORDER_CANCELLED -> {
+                orderId = buffer.getLong();
+                quantity = ScaledDecimals.fromScaledLong(buffer.getLong());
+            }
+            case TRADE -> {
+                buyOrderId = buffer.getLong();
+                sellOrderId = buffer.getLong();
+                price = ScaledDecimals.fromScaledLong(buffer.getLong());
+                quantity = ScaledDecimals.fromScaledLong(buffer.getLong());
+            }
+            default -> throw new IllegalStateException("Unhandled record type " + type);
+        }
+        byte[] symbol = new byte[buffer.getShort()];
+        buffer.get(symbol);
+
+        return new JournalRecord(sequence, timestamp, type, new String(symbol, StandardCharsets.UTF_8),
+                orderId, side, orderType, price, quantity, buyOrderId, sellOrderId);
+    }
+
+    /**
+     * Skips the record at the buffer's position without decoding it.
+     *
+     * @return The sequence number of the skipped record, or -1 if the buffer is at the end of the written data.
+     */
+    static long skip(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return -1;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt();
+        if (length == 0) {
+            return -1;
+        }
+        long sequence = buffer.getLong(start + Integer.BYTES + 1);
+        buffer.position(start + Integer.BYTES + length);
+        return sequence;
+    }
+
+    private static long idOf(Long id) {
+        // Ids are assigned by the database before matching; 0 only shows up for unsaved (test) orders
+        return id == null ? 0L : id;
+    }
+}
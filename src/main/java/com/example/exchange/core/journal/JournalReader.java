@@ -0,0 +1,70 @@
+package com.example.exchange.core.journal;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decoder for the binary engine journal written by {@link EventJournal}.
+ * Can be used programmatically via {@link #read(Path, Consumer)} or from the command line, printing one line per record:
+ *
+ * <pre>
+ * java -cp exchange.jar -Dloader.main=com.example.exchange.core.journal.JournalReader \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher journal/ [--symbol BTC/USD]
+ * </pre>
+ * The path may be a single segment file or the journal directory, in which case all segments are read in order.
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: JournalReader <journal directory or segment file> [--symbol SYMBOL]");
+            System.exit(2);
+        }
+        String symbolFilter = args.length >= 3 && "--symbol".equals(args[1]) ? args[2] : null;
+        PrintStream out = System.out;
+        read(Path.of(args[0]), record -> {
+            if (symbolFilter == null || symbolFilter.equals(record.symbol())) {
+                out.println(record);
+            }
+        });
+    }
+
+    /**
+     * Decodes every record under the path, in sequence order.
+     *
+     * @param path     A segment file or a journal directory.
+     * @param consumer Receives each decoded record.
+     */
+    public static void read(Path path, Consumer<JournalRecord> consumer) throws IOException {
+        List<Path> segments = Files.isDirectory(path) ? EventJournal.listSegments(path) : List.of(path);
+        for (Path segment : segments) {
+            readSegment(segment, consumer);
+        }
+    }
+
+    private static void readSegment(Path path, Consumer<JournalRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < JournalFormat.SEGMENT_HEADER_BYTES || buffer.getInt() != JournalFormat.MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != JournalFormat.VERSION) {
+                throw new IOException("Unsupported journal version " + version + " in " + path);
+            }
+            for (JournalRecord record = JournalFormat.decode(buffer); record != null; record = JournalFormat.decode(buffer)) {
+                consumer.accept(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.exchange.core.journal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+
+/**
+ * A decoded journal record. Fields that do not apply to the record's type are 0 or null.
+ */
+public record JournalRecord(long sequence,
+                            long timestamp,
+                            JournalRecordType type,
+                            String symbol,
+                            long orderId,
+                            Side side,
+                            OrderType orderType,
+                            BigDecimal price,
+                            BigDecimal quantity,
+                            long buyOrderId,
+                            long sellOrderId) {
+
+    /**
+     * One human-readable line per record, used by the {@link JournalReader} CLI.
+     */
+    @Override
+    public String toString() {
+        String prefix = sequence + " " + Instant.ofEpochMilli(timestamp) + " " + type + " " + symbol;
+        return switch (type) {
+            case ORDER_ACCEPTED -> prefix + " order=" + orderId + " side=" + side + " type=" + orderType
+                    + " price=" + price.toPlainString() + " qty=" + quantity.toPlainString();
+            case ORDER_RESTED, ORDER_CANCELLED -> prefix + " order=" + orderId + " remaining=" + quantity.toPlainString();
+            case TRADE -> prefix + " buy=" + buyOrderId + " sell=" + sellOrderId
+                    + " price=" + price.toPlainString() + " qty=" + quantity.toPlainString();
+        };
+    }
+}
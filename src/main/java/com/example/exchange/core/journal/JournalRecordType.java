@@ -0,0 +1,31 @@
+package com.example.exchange.core.journal;
+
+/**
+ * The kinds of engine events written to the binary journal, with their on-disk type codes.
+ * Codes are part of the file format: never reuse or renumber them.
+ */
+public enum JournalRecordType {
+    ORDER_ACCEPTED((byte) 1),
+    TRADE((byte) 2),
+    ORDER_RESTED((byte) 3),
+    ORDER_CANCELLED((byte) 4);
+
+    private final byte code;
+
+    JournalRecordType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static JournalRecordType fromCode(byte code) {
+        for (JournalRecordType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown journal record type: " + code);
+    }
+}
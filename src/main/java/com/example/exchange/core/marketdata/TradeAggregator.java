@@ -0,0 +1,212 @@
+package com.example.exchange.core.marketdata;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Trade;
+
+/**
+ * Streaming aggregator over the matching engine's trade output.
+ * Design Principle (Compute Once, at Write Time): Instead of scanning the trades table for every history or chart
+ * request, each trade is folded into per-symbol in-memory state as it happens:
+ * - a fixed-size ring buffer of the most recent trades, and
+ * - for every {@link CandleInterval}, the currently open OHLCV bar plus a ring buffer of recently closed bars.
+ * Queries are answered from these buffers. Closed bars are queued so they can be published and persisted in batches.
+ * A bar is closed exactly once: a trade stamped inside a bar that has already closed is folded into the bar after it,
+ * so its volume is counted without publishing a second candle for the same interval.
+ *
+ * Each symbol's state is guarded by its own monitor, so symbols aggregate in parallel.
+ */
+@Component
+public class TradeAggregator {
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+
+    private final int recentTradeCapacity;
+    private final int barHistory;
+    private final ConcurrentHashMap<String, SymbolMarketData> symbols = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Candle> closedBars = new ConcurrentLinkedQueue<>();
+
+    public TradeAggregator(@Value("${exchange.marketdata.recent-trades:1000}") int recentTradeCapacity,
+                           @Value("${exchange.marketdata.bar-history:500}") int barHistory) {
+        this.recentTradeCapacity = recentTradeCapacity;
+        this.barHistory = barHistory;
+    }
+
+    /**
+     * Folds a trade into its symbol's recent trades and open bars. Bars whose interval has passed are closed first.
+     */
+    public void onTrade(Trade trade) {
+        SymbolMarketData data = symbolData(trade.getSymbol());
+        synchronized (data) {
+            data.add(trade);
+        }
+    }
+
+    /**
+     * Closes every open bar whose interval ended at or before the given time, even if no newer trade arrived.
+     */
+    public void closeExpiredBars(long nowMillis) {
+        for (SymbolMarketData data : symbols.values()) {
+            synchronized (data) {
+                data.closeExpired(nowMillis);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns up to {@code max} closed bars, oldest first, for publishing and persistence.
+     */
+    public List<Candle> drainClosedBars(int max) {
+        List<Candle> drained = new ArrayList<>();
+        Candle bar;
+        while (drained.size() < max && (bar = closedBars.poll()) != null) {
+            drained.add(bar);
+        }
+        return drained;
+    }
+
+    /**
+     * @return Up to {@code limit} of the symbol's most recent trades, newest first.
+     */
+    public List<Trade> getRecentTrades(String symbol, int limit) {
+        SymbolMarketData data = symbols.get(symbol);
+        if (data == null) {
+            return List.of();
+        }
+        synchronized (data) {
+            return data.trades.newestFirst(limit);
+        }
+    }
+
+    /**
+     * @return Up to {@code limit} bars of the interval, newest first. The first bar may still be open.
+     */
+    public List<Candle> getCandles(String symbol, CandleInterval interval, int limit) {
+        SymbolMarketData data = symbols.get(symbol);
+        if (data == null) {
+            return List.of();
+        }
+        synchronized (data) {
+            int i = interval.ordinal();
+            List<Candle> candles = new ArrayList<>(Math.min(limit, barHistory + 1));
+            if (data.openBars[i] != null && limit > 0) {
+                candles.add(data.openBars[i].copy());
+            }
+            for (Candle closed : data.closedBarHistory[i].newestFirst(limit - candles.size())) {
+                candles.add(closed.copy());
+            }
+            return candles;
+        }
+    }
+
+    private SymbolMarketData symbolData(String symbol) {
+        SymbolMarketData data = symbols.get(symbol);
+        if (data == null) {
+            data = symbols.computeIfAbsent(symbol, SymbolMarketData::new);
+        }
+        return data;
+    }
+
+    private final class SymbolMarketData {
+        private final String symbol;
+        private final Ring<Trade> trades = new Ring<>(recentTradeCapacity);
+        private final Candle[] openBars = new Candle[INTERVALS.length];
+        // Start of the open bar, or of the last closed one while no bar is open (MIN_VALUE before the first bar)
+        private final long[] openBarStarts = new long[INTERVALS.length];
+        @SuppressWarnings("unchecked")
+        private final Ring<Candle>[] closedBarHistory = new Ring[INTERVALS.length];
+
+        private SymbolMarketData(String symbol) {
+            this.symbol = symbol;
+            for (int i = 0; i < INTERVALS.length; i++) {
+                closedBarHistory[i] = new Ring<>(barHistory);
+            }
+            Arrays.fill(openBarStarts, Long.MIN_VALUE);
+        }
+
+        private void add(Trade trade) {
+            trades.add(trade);
+            long time = trade.getTimestamp().toEpochMilli();
+            BigDecimal price = trade.getPrice();
+            BigDecimal quantity = trade.getQuantity();
+
+            for (int i = 0; i < INTERVALS.length; i++) {
+                long barStart = INTERVALS[i].barStart(time);
+                Candle bar = openBars[i];
+                if (bar != null && barStart <= openBarStarts[i]) {
+                    // Same bar (a trade stamped slightly earlier than the previous one also lands here)
+                    bar.addTrade(price, quantity);
+                    continue;
+                }
+                if (bar != null) {
+                    close(i);
+                } else if (barStart <= openBarStarts[i]) {
+                    // Late for a bar the timer already closed: it goes into the next bar instead of reopening that one
+                    barStart = openBarStarts[i] + INTERVALS[i].getMillis();
+                }
+                openBars[i] = new Candle(symbol, INTERVALS[i], Instant.ofEpochMilli(barStart), price, quantity);
+                openBarStarts[i] = barStart;
+            }
+        }
+
+        private void closeExpired(long nowMillis) {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                if (openBars[i] != null && openBarStarts[i] + INTERVALS[i].getMillis() <= nowMillis) {
+                    close(i);
+                }
+            }
+        }
+
+        private void close(int i) {
+            Candle bar = openBars[i];
+            closedBarHistory[i].add(bar);
+            closedBars.add(bar);
+            openBars[i] = null;
+        }
+    }
+
+    /**
+     * Fixed-capacity ring buffer that overwrites its oldest element when full.
+     */
+    private static final class Ring<T> {
+        private final Object[] items;
+        private int next;
+        private int size;
+
+        private Ring(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+        private void add(T item) {
+            if (items.length == 0) {
+                return;
+            }
+            items[next] = item;
+            next = (next + 1) % items.length;
+            if (size < items.length) {
+                size++;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> newestFirst(int limit) {
+            int count = Math.max(0, Math.min(limit, size));
+            List<T> result = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                result.add((T) items[Math.floorMod(next - i, items.length)]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.exchange.core.matching;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.NavigableMap;
+
+import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.core.orderbook.PriceLevel;
+import com.example.exchange.domain.Side;
+
+/**
+ * Finds the equilibrium price of a crossed book.
+ * Design Principle (Maintain Aggregates Incrementally): Only the per-level totals of {@link PriceLevel} are read, never
+ * individual orders. The crossing range [best ask, best bid] is walked once, in ascending price order, merging the
+ * bid and ask levels while keeping two running sums:
+ * - supply(p): ask quantity at or below p, which grows as asks are passed;
+ * - demand(p): bid quantity at or above p, which starts at the total of the crossing bids and shrinks as bids are passed.
+ * At every candidate price the executable volume is min(demand, supply) and the imbalance is demand - supply.
+ *
+ * The chosen price is, in order of precedence:
+ * 1. the one with the maximum executable volume;
+ * 2. then the smallest absolute imbalance;
+ * 3. then the closest to the reference price (the last trade price), if there is one;
+ * 4. otherwise the side with the surplus sets the price: the highest candidate for a buy surplus, else the lowest.
+ *    Between a buy surplus at a lower price and an equal sell surplus at a higher one neither side dominates, and the
+ *    lower price is kept.
+ *
+ * Like OrderBook, this is only called under the symbol's lock.
+ */
+final class AuctionCalculator {
+
+    private AuctionCalculator() {
+    }
+
+    /**
+     * @return The auction state of the book if it were uncrossed now.
+     */
+    static AuctionIndication indicate(OrderBook book) {
+        NavigableMap<BigDecimal, PriceLevel> bids = book.getBids();
+        NavigableMap<BigDecimal, PriceLevel> asks = book.getAsks();
+        if (bids.isEmpty() || asks.isEmpty() || bids.firstKey().compareTo(asks.firstKey()) < 0) {
+            return new AuctionIndication(book.getSymbol(), book.getPhase(), book.getSequence(), null, BigDecimal.ZERO, BigDecimal.ZERO, null);
+        }
+        BigDecimal low = asks.firstKey();
+        BigDecimal high = bids.firstKey();
+        BigDecimal reference = book.getLastTradePrice();
+
+        // Bids map is sorted high to low, so its head up to "low" is every crossing bid
+        NavigableMap<BigDecimal, PriceLevel> crossingBids = bids.headMap(low, true);
+        BigDecimal demand = BigDecimal.ZERO;
+        for (PriceLevel level : crossingBids.values()) {
+            demand = demand.add(level.getTotalQuantity());
+        }
+        BigDecimal supply = BigDecimal.ZERO;
+
+        Iterator<PriceLevel> bidLevels = crossingBids.descendingMap().values().iterator();
+        Iterator<PriceLevel> askLevels = asks.headMap(high, true).values().iterator();
+        PriceLevel bid = next(bidLevels);
+        PriceLevel ask = next(askLevels);
+
+        BigDecimal bestPrice = null;
+        BigDecimal bestVolume = BigDecimal.ZERO;
+        BigDecimal bestImbalance = BigDecimal.ZERO;
+        while (bid != null || ask != null) {
+            BigDecimal price = bid == null ? ask.getPrice()
+                    : ask == null ? bid.getPrice()
+                    : bid.getPrice().min(ask.getPrice());
+
+            if (ask != null && ask.getPrice().compareTo(price) == 0) {
+                supply = supply.add(ask.getTotalQuantity());
+                ask = next(askLevels);
+            }
+
+            BigDecimal volume = demand.min(supply);
+            BigDecimal imbalance = demand.subtract(supply);
+            if (bestPrice == null || isBetter(price, volume, imbalance, bestPrice, bestVolume, bestImbalance, reference)) {
+                bestPrice = price;
+                bestVolume = volume;
+                bestImbalance = imbalance;
+            }
+
+            if (bid != null && bid.getPrice().compareTo(price) == 0) {
+                demand = demand.subtract(bid.getTotalQuantity());
+                bid = next(bidLevels);
+            }
+        }
+
+        Side imbalanceSide = bestImbalance.signum() > 0 ? Side.BUY : bestImbalance.signum() < 0 ? Side.SELL : null;
+        return new AuctionIndication(book.getSymbol(), book.getPhase(), book.getSequence(), bestPrice, bestVolume, bestImbalance.abs(), imbalanceSide);
+    }
+
+    /**
+     * Candidates arrive in ascending price order, so on a full tie the current best is the lower price.
+     */
+    private static boolean isBetter(BigDecimal price, BigDecimal volume, BigDecimal imbalance,
+                                    BigDecimal bestPrice, BigDecimal bestVolume, BigDecimal bestImbalance,
+                                    BigDecimal reference) {
+        int byVolume = volume.compareTo(bestVolume);
+        if (byVolume != 0) {
+            return byVolume > 0;
+        }
+        int byImbalance = imbalance.abs().compareTo(bestImbalance.abs());
+        if (byImbalance != 0) {
+            return byImbalance < 0;
+        }
+        if (reference != null) {
+            int byDistance = price.subtract(reference).abs().compareTo(bestPrice.subtract(reference).abs());
+            if (byDistance != 0) {
+                return byDistance < 0;
+            }
+        }
+        return imbalance.signum() > 0;
+    }
+
+    private static PriceLevel next(Iterator<PriceLevel> levels) {
+        return levels.hasNext() ? levels.next() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.exchange.core.matching;
+
+import java.math.BigDecimal;
+
+import com.example.exchange.core.orderbook.TradingPhase;
+import com.example.exchange.domain.Side;
+
+/**
+ * The state of a symbol's auction: what would execute if the book were uncrossed now (during the call phase), or what
+ * did execute (in the result of an uncross).
+ *
+ * @param symbol        The trading symbol.
+ * @param phase         The book's trading phase.
+ * @param sequence      The book sequence the state was computed at. Indications are published from the threads of the
+ *                      orders that moved them and can reach subscribers out of order; a subscriber drops any indication
+ *                      whose sequence is lower than that of the last one it applied.
+ * @param price         The equilibrium price, or null if the book does not cross.
+ * @param matchedVolume The quantity executable (or executed) at the equilibrium price.
+ * @param imbalance     Quantity on the heavier side that would be left unexecuted at that price.
+ * @param imbalanceSide The heavier side, or null if the book is balanced at that price.
+ */
+public record AuctionIndication(String symbol, TradingPhase phase, long sequence, BigDecimal price, BigDecimal matchedVolume,
+                                BigDecimal imbalance, Side imbalanceSide) {
+}
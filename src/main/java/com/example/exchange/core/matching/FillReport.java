@@ -0,0 +1,20 @@
+package com.example.exchange.core.matching;
+
+import java.math.BigDecimal;
+
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderStatus;
+
+/**
+ * The engine's report of one side of an execution: which order traded, how much, and the order's state afterwards.
+ * Two reports (one per side) are emitted for every trade, and a report with nothing filled for an order the engine
+ * rejects, so its cancellation is persisted the same way as a fill. Quantities and status are captured at execution time, so
+ * the report stays accurate even after the order keeps trading.
+ *
+ * @param order             The engine-owned order that traded.
+ * @param filledQuantity    The quantity executed in this fill.
+ * @param remainingQuantity The order's open quantity after this fill.
+ * @param status            The order's status after this fill.
+ */
+public record FillReport(Order order, BigDecimal filledQuantity, BigDecimal remainingQuantity, OrderStatus status) {
+}
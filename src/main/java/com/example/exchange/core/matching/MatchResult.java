@@ -0,0 +1,20 @@
+package com.example.exchange.core.matching;
+
+import java.util.List;
+
+import com.example.exchange.domain.Trade;
+
+/**
+ * Everything the engine produced for one incoming order.
+ *
+ * @param trades The trades generated, in execution order. Empty if the order did not match.
+ * @param fills  Two fill reports per trade (incoming side and resting side), in execution order. A single report with
+ *               status CANCELLED and nothing filled if the engine rejected the order.
+ * @param halted Whether the order hit the price band and the circuit breaker halted the symbol; its remainder rests.
+ */
+public record MatchResult(List<Trade> trades, List<FillReport> fills, boolean halted) {
+
+    public MatchResult(List<Trade> trades, List<FillReport> fills) {
+        this(trades, fills, false);
+    }
+}
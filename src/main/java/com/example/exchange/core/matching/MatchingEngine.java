@@ -2,20 +2,32 @@ package com.example.exchange.core.matching;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.List;
 import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.example.exchange.core.events.EngineEventRing;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.journal.EventJournal;
+import com.example.exchange.core.orderbook.LiveOrderIndex;
 import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.core.orderbook.PriceLevel;
+import com.example.exchange.core.orderbook.TradingPhase;
 import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderStatus;
 import com.example.exchange.domain.Side;
 import com.example.exchange.domain.Trade;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.metrics.LatencyStage;
 
 /**
  * The core matching engine.
@@ -25,76 +37,168 @@ import com.example.exchange.domain.Trade;
  *
  * It is thread-safe, using a lock per symbol to ensure that orders for the same symbol are processed sequentially,
  * which is critical for maintaining data integrity in a concurrent environment.
+ *
+ * Only symbols of the {@link InstrumentRegistry} are traded: their locks are created up front, and an order for any
+ * other symbol is rejected without allocating anything. The engine also owns the instruments' lifecycle states,
+ * which it changes under the same locks, and trips the price-band circuit breaker inline while matching.
+ *
+ * Every change to a book is also published, still under the symbol's lock, to the {@link EngineEventRing}, from where
+ * downstream consumers (persistence, market data, the Redis cache) pick it up on their own threads.
+ *
+ * In clustered mode an ownership fence is checked under the same lock before a book is created or an order matched,
+ * so a node whose ownership lapsed after it routed a request to itself cannot match the symbol alongside its new owner.
  */
 @Component
 public class MatchingEngine {
-    
-    private static final Logger log = LoggerFactory.getLogger(MatchingEngine.class);
 
     // In-memory store for all order books, one per symbol
     private final ConcurrentHashMap<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
-    // A lock for each symbol to ensure serial processing of orders for the same symbol
+    // A lock for each instrument to ensure serial processing of orders for the same symbol; fixed at construction
     private final ConcurrentHashMap<String, ReentrantLock> symbolLocks = new ConcurrentHashMap<>();
+    // Where the sequence of a book recreated after removeOrderBook starts
+    private final ConcurrentHashMap<String, Long> nextBookSequences = new ConcurrentHashMap<>();
+    // Every resting order across all books, for status lookups without a database round trip
+    private final LiveOrderIndex liveOrders = new LiveOrderIndex();
+
+    private final EngineMetrics metrics;
+    // Binary audit trail of engine events; written off the matching thread, so there is no text logging here
+    private final EventJournal journal;
+    private final InstrumentRegistry instruments;
+    // The sequenced output stream for downstream consumers; publishing never blocks
+    private final EngineEventRing events;
+    // Whether this node may match a symbol right now; always true outside clustered mode
+    private volatile Predicate<String> ownershipFence = symbol -> true;
+
+    public MatchingEngine(EngineMetrics metrics, EventJournal journal, InstrumentRegistry instruments, EngineEventRing events) {
+        this.metrics = metrics;
+        this.journal = journal;
+        this.instruments = instruments;
+        this.events = events;
+        for (Instrument instrument : instruments.all()) {
+            symbolLocks.put(instrument.symbol(), new ReentrantLock());
+        }
+    }
 
     /**
      * The main entry point for processing a new order.
      * It finds the correct order book, acquires a lock for that symbol, and attempts to match the order.
      *
+     * The engine is the authority on order state: it updates the remaining quantity and status of the incoming order
+     * and of every resting order it trades against, and reports each change as a {@link FillReport}.
+     *
+     * If the symbol stopped accepting orders after the caller checked it, or this node no longer owns it, the order is
+     * rejected: it is marked CANCELLED and reported with nothing filled.
+     *
      * @param newOrder The new order to be processed.
-     * @return A list of trades generated by this order. The list is empty if no match occurred.
+     * @return The trades and fill reports generated by this order. Both are empty if no match occurred.
+     * @throws IllegalArgumentException if the symbol is not a registered instrument.
      */
-    public List<Trade> processOrder(Order newOrder) {
-        // Get or create the lock and order book for the symbol
-        ReentrantLock lock = symbolLocks.computeIfAbsent(newOrder.getSymbol(), k -> new ReentrantLock());
-        OrderBook book = orderBooks.computeIfAbsent(newOrder.getSymbol(), OrderBook::new);
+    public MatchResult processOrder(Order newOrder) {
+        ReentrantLock lock = lockFor(newOrder.getSymbol());
 
+        long lockRequested = System.nanoTime();
         lock.lock();
         try {
-            log.info("Processing order {} for symbol {}", newOrder.getId(), newOrder.getSymbol());
+            long lockAcquired = System.nanoTime();
+            metrics.recordLatency(LatencyStage.LOCK_WAIT, lockAcquired - lockRequested);
+            // Checked before the book is looked up, so a node that lost the symbol never recreates its book
+            if (!ownershipFence.test(newOrder.getSymbol())) {
+                return reject(newOrder);
+            }
+            // Looked up under the lock, so a concurrent removeOrderBook cannot leave us matching against a dropped book
+            OrderBook book = orderBooks.computeIfAbsent(newOrder.getSymbol(), this::createOrderBook);
+            Instrument instrument = instruments.find(newOrder.getSymbol());
+            if (!instrument.state().acceptsOrders()) {
+                return reject(newOrder);
+            }
+
+            journal.orderAccepted(newOrder);
             List<Trade> trades = new ArrayList<>();
+            List<FillReport> fills = new ArrayList<>();
+            boolean halted = false;
 
-            // Match a sell order against bids
-            // Match a buy order against asks
-            if (newOrder.getSide() == Side.BUY) {
-                match(trades, newOrder, book.getAsks());
-            } else {
-                match(trades, newOrder, book.getBids());
+            // During an auction call phase orders only accumulate; they trade when the auction is uncrossed
+            if (book.getPhase() == TradingPhase.CONTINUOUS) {
+                // Match a sell order against bids
+                // Match a buy order against asks
+                if (newOrder.getSide() == Side.BUY) {
+                    halted = match(trades, fills, newOrder, book.getAsks(), book);
+                } else {
+                    halted = match(trades, fills, newOrder, book.getBids(), book);
+                }
+                if (!trades.isEmpty()) {
+                    // The band follows the market: it re-centers on the order's last trade, so a gradual drift never
+                    // halts the symbol, while a single order that sweeps the book is still held to the band it started
+                    // with
+                    BigDecimal lastPrice = trades.get(trades.size() - 1).getPrice();
+                    book.setLastTradePrice(lastPrice);
+                    setReferencePrice(book, instrument, lastPrice);
+                }
+                if (halted) {
+                    // The remainder may rest crossed; the book can only reopen through an auction, which uncrosses it
+                    instruments.updateState(newOrder.getSymbol(), InstrumentState.HALTED);
+                    book.setPhase(TradingPhase.CALL);
+                    metrics.circuitBreakerTripped(newOrder.getSymbol());
+                }
             }
 
             // If the order is not fully filled, add it to the order book
             if (newOrder.getRemainingQuantity().compareTo(BigDecimal.ZERO) > 0) {
                 book.addOrder(newOrder);
-                log.info("Added partially filled or unfilled order {} to the book with remaining quantity {}", newOrder.getId(), newOrder.getRemainingQuantity());
+                liveOrders.add(newOrder);
+                journal.orderRested(newOrder);
             }
+            book.advanceSequence();
+            events.publish(newOrder.getSymbol(), trades, fills);
 
-            return trades;
+            metrics.recordLatency(LatencyStage.MATCH, System.nanoTime() - lockAcquired);
+            metrics.orderProcessed(newOrder.getSymbol());
+            metrics.fills(newOrder.getSymbol(), trades.size());
+            return new MatchResult(trades, fills, halted);
         } finally {
             lock.unlock();
         }
     }
 
+    private MatchResult reject(Order order) {
+        order.setStatus(OrderStatus.CANCELLED);
+        List<FillReport> rejection = List.of(
+                new FillReport(order, BigDecimal.ZERO, order.getRemainingQuantity(), OrderStatus.CANCELLED));
+        events.publish(order.getSymbol(), List.of(), rejection);
+        return new MatchResult(List.of(), rejection);
+    }
+
     /**
      * The core matching algorithm.
      * Iterates through the resting orders of the opposite side and creates trades if prices match.
+     * Stops before trading at a price outside the book's circuit breaker band.
      *
      * @param trades          The list to add any generated trades to.
+     * @param fills           The list to add the fill reports of both sides of each trade to.
      * @param incomingOrder   The new order being processed.
      * @param restingOrders   The opposite side of the book to match against.
+     * @param book            The book, for its price limits.
+     * @return Whether matching stopped at the price band.
      */
-    private void match(List<Trade> trades, Order incomingOrder, NavigableMap<BigDecimal, Deque<Order>> restingOrders) {
+    private boolean match(List<Trade> trades, List<FillReport> fills, Order incomingOrder,
+                          NavigableMap<BigDecimal, PriceLevel> restingOrders, OrderBook book) {
         // Iterate through the price levels of the opposite side
-        for (var entry: restingOrders.entrySet()) {
-            Deque<Order> ordersAtPrice = entry.getValue();
+        var levels = restingOrders.values().iterator();
+        while (levels.hasNext()) {
+            PriceLevel level = levels.next();
 
             // Check if a match is possible
-            boolean isMatchPossible = (incomingOrder.getSide() == Side.BUY && incomingOrder.getPrice().compareTo(entry.getKey()) >= 0) || (incomingOrder.getSide() == Side.SELL && incomingOrder.getPrice().compareTo(entry.getKey()) <= 0);
+            boolean isMatchPossible = (incomingOrder.getSide() == Side.BUY && incomingOrder.getPrice().compareTo(level.getPrice()) >= 0) || (incomingOrder.getSide() == Side.SELL && incomingOrder.getPrice().compareTo(level.getPrice()) <= 0);
 
             if (!isMatchPossible) {
                 break;
             }
+            if (!book.isWithinPriceLimits(level.getPrice())) {
+                return true;
+            }
 
             // Iterate through orders at this price level
-            var iterator = ordersAtPrice.iterator();
+            var iterator = level.getOrders().iterator();
             while (iterator.hasNext()) {
                 Order restingOrder = iterator.next();
                 BigDecimal tradeQuantity = incomingOrder.getRemainingQuantity().min(restingOrder.getRemainingQuantity());
@@ -102,25 +206,409 @@ public class MatchingEngine {
                 // Create the trade. The execution price is the price of the resting order
                 Trade trade = createTrade(incomingOrder, restingOrder, restingOrder.getPrice(), tradeQuantity);
                 trades.add(trade);
-                log.info("Generated Trade: {}", trade);
+                journal.trade(trade);
 
-                // Update the quantities of both orders
+                // Update the quantities of both orders and the level's aggregate
                 incomingOrder.setRemainingQuantity(incomingOrder.getRemainingQuantity().subtract(tradeQuantity));
                 restingOrder.setRemainingQuantity(restingOrder.getRemainingQuantity().subtract(tradeQuantity));
+                level.reduce(tradeQuantity);
+                fills.add(fill(incomingOrder, tradeQuantity));
+                fills.add(fill(restingOrder, tradeQuantity));
 
                 // If the resting order is fully filled, remove it
                 if (restingOrder.getRemainingQuantity().compareTo(BigDecimal.ZERO) == 0) {
                     iterator.remove();
+                    liveOrders.remove(restingOrder);
                 }
 
                 // If the incoming order is fully filled, we are done
                 if (incomingOrder.getRemainingQuantity().compareTo(BigDecimal.ZERO) == 0) {
-                    return;
+                    if (level.isEmpty()) {
+                        levels.remove();
+                    }
+                    return false;
+                }
+            }
+
+            // Every order at this price was filled; drop the level so it no longer shows in the book
+            levels.remove();
+        }
+        return false;
+    }
+
+    /**
+     * Puts a symbol into the auction call phase (instrument state PRE_OPEN): from now on its orders rest without
+     * matching until {@link #uncross}. This is how a halted or closed symbol reopens.
+     * Creates the book if the symbol has none yet, e.g. before the opening auction.
+     *
+     * @param symbol The symbol.
+     * @return The current auction state (the book may already cross if orders were resting).
+     * @throws IllegalArgumentException if the symbol is not a registered instrument.
+     * @throws OwnershipFencedException if this node no longer owns the symbol (clustered mode).
+     */
+    public AuctionIndication startAuction(String symbol) {
+        ReentrantLock lock = lockFor(symbol);
+        lock.lock();
+        try {
+            return enterCallPhase(symbol);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AuctionIndication enterCallPhase(String symbol) {
+        if (!ownershipFence.test(symbol)) {
+            throw new OwnershipFencedException(symbol);
+        }
+        OrderBook book = orderBooks.computeIfAbsent(symbol, this::createOrderBook);
+        instruments.updateState(symbol, InstrumentState.PRE_OPEN);
+        book.setPhase(TradingPhase.CALL);
+        book.advanceSequence();
+        return AuctionCalculator.indicate(book);
+    }
+
+    /**
+     * Moves a symbol to another lifecycle state.
+     * - PRE_OPEN starts an auction, like {@link #startAuction}.
+     * - OPEN resumes continuous matching. A symbol in an auction call phase (including one halted by the circuit
+     *   breaker, whose book may be crossed) has to be uncrossed instead.
+     * - HALTED and CLOSED stop accepting orders; resting orders stay in the book.
+     *
+     * @param symbol The symbol.
+     * @param state  The new state.
+     * @return The instrument in its new state.
+     * @throws IllegalArgumentException if the symbol is not a registered instrument, or it cannot open directly.
+     * @throws OwnershipFencedException if the new state is PRE_OPEN and this node no longer owns the symbol.
+     */
+    public Instrument changeState(String symbol, InstrumentState state) {
+        ReentrantLock lock = lockFor(symbol);
+        lock.lock();
+        try {
+            if (state == InstrumentState.PRE_OPEN) {
+                enterCallPhase(symbol);
+                return instruments.find(symbol);
+            }
+            OrderBook book = orderBooks.get(symbol);
+            if (state == InstrumentState.OPEN && book != null && book.getPhase() == TradingPhase.CALL) {
+                throw new IllegalArgumentException(symbol + " is in an auction call phase; uncross it to open");
+            }
+            Instrument instrument = instruments.updateState(symbol, state);
+            if (book != null) {
+                book.advanceSequence();
+            }
+            return instrument;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param symbol The symbol.
+     * @return The symbol's indicative equilibrium price, volume and imbalance, or null if it has no book.
+     */
+    public AuctionIndication indicateAuction(String symbol) {
+        return readBook(symbol, AuctionCalculator::indicate);
+    }
+
+    /**
+     * Ends the call phase: executes every crossing order at the single equilibrium price in one batch, then returns the
+     * book to continuous matching. Crossing orders execute in price-time priority; whatever is left rests in the book.
+     *
+     * @param symbol The symbol.
+     * The auction price becomes the reference price of the circuit breaker band, and the instrument is OPEN.
+     *
+     * @return The executed auction and its trades and fill reports.
+     * @throws IllegalArgumentException if the symbol is not in the call phase of an auction.
+     */
+    public UncrossResult uncross(String symbol) {
+        ReentrantLock lock = lockFor(symbol);
+        lock.lock();
+        try {
+            OrderBook book = orderBooks.get(symbol);
+            if (book == null || book.getPhase() != TradingPhase.CALL
+                    || instruments.find(symbol).state() != InstrumentState.PRE_OPEN) {
+                throw new IllegalArgumentException("No auction in progress for " + symbol);
+            }
+            AuctionIndication auction = AuctionCalculator.indicate(book);
+            List<Trade> trades = new ArrayList<>();
+            List<FillReport> fills = new ArrayList<>();
+            if (auction.price() != null) {
+                executeAt(book, auction.price(), auction.matchedVolume(), trades, fills);
+                book.setLastTradePrice(auction.price());
+                setReferencePrice(book, instruments.find(symbol), auction.price());
+            }
+            instruments.updateState(symbol, InstrumentState.OPEN);
+            book.setPhase(TradingPhase.CONTINUOUS);
+            book.advanceSequence();
+            events.publish(symbol, trades, fills);
+            metrics.fills(symbol, trades.size());
+            return new UncrossResult(
+                    new AuctionIndication(symbol, TradingPhase.CONTINUOUS, book.getSequence(), auction.price(), auction.matchedVolume(),
+                            auction.imbalance(), auction.imbalanceSide()),
+                    new MatchResult(trades, fills));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executes the given volume at one price, pairing the best bid and best ask orders in time priority.
+     * The volume is what the equilibrium calculation found executable, so both sides hold enough crossing quantity.
+     */
+    private void executeAt(OrderBook book, BigDecimal price, BigDecimal volume, List<Trade> trades, List<FillReport> fills) {
+        var bidLevels = book.getBids().values().iterator();
+        var askLevels = book.getAsks().values().iterator();
+        PriceLevel bidLevel = bidLevels.next();
+        PriceLevel askLevel = askLevels.next();
+        BigDecimal left = volume;
+        while (left.signum() > 0) {
+            Order buy = bidLevel.getOrders().peekFirst();
+            Order sell = askLevel.getOrders().peekFirst();
+            BigDecimal quantity = left.min(buy.getRemainingQuantity()).min(sell.getRemainingQuantity());
+
+            Trade trade = new Trade(book.getSymbol(), buy.getId(), sell.getId(), price, quantity);
+            trades.add(trade);
+            journal.trade(trade);
+
+            buy.setRemainingQuantity(buy.getRemainingQuantity().subtract(quantity));
+            sell.setRemainingQuantity(sell.getRemainingQuantity().subtract(quantity));
+            bidLevel.reduce(quantity);
+            askLevel.reduce(quantity);
+            fills.add(fill(buy, quantity));
+            fills.add(fill(sell, quantity));
+            left = left.subtract(quantity);
+
+            if (buy.getRemainingQuantity().signum() == 0) {
+                bidLevel.getOrders().pollFirst();
+                liveOrders.remove(buy);
+                if (bidLevel.isEmpty()) {
+                    bidLevels.remove();
+                    bidLevel = bidLevels.hasNext() ? bidLevels.next() : null;
+                }
+            }
+            if (sell.getRemainingQuantity().signum() == 0) {
+                askLevel.getOrders().pollFirst();
+                liveOrders.remove(sell);
+                if (askLevel.isEmpty()) {
+                    askLevels.remove();
+                    askLevel = askLevels.hasNext() ? askLevels.next() : null;
                 }
             }
         }
     }
 
+    private static void setReferencePrice(OrderBook book, Instrument instrument, BigDecimal reference) {
+        if (instrument.hasPriceBand()) {
+            book.setPriceLimits(reference, instrument.lowerPriceLimit(reference), instrument.upperPriceLimit(reference));
+        } else {
+            book.setPriceLimits(reference, null, null);
+        }
+    }
+
+    /**
+     * Applies a fill to the order's status and captures the resulting state in a report.
+     */
+    private static FillReport fill(Order order, BigDecimal filledQuantity) {
+        BigDecimal remaining = order.getRemainingQuantity();
+        order.setStatus(remaining.signum() == 0 ? OrderStatus.FILLED : OrderStatus.PARTIALLY_FILLED);
+        return new FillReport(order, filledQuantity, remaining, order.getStatus());
+    }
+
+    /**
+     * Cancels an account's resting orders in one book as a single sequenced command: the orders are found through the
+     * per-account index and removed in one pass under the symbol's lock, so no order can trade in between and the book
+     * advances by a single sequence number.
+     *
+     * @param symbol  The symbol.
+     * @param account The account whose orders to cancel.
+     * @param side    Only cancel orders on this side, or null for both sides.
+     * @return One CANCELLED report with nothing filled per cancelled order, and no trades.
+     * @throws IllegalArgumentException if the symbol is not a registered instrument.
+     */
+    public MatchResult cancelOrders(String symbol, String account, Side side) {
+        ReentrantLock lock = lockFor(symbol);
+        lock.lock();
+        try {
+            OrderBook book = orderBooks.get(symbol);
+            if (book == null) {
+                return new MatchResult(List.of(), List.of());
+            }
+            List<Order> cancelled = new ArrayList<>();
+            for (Order order : liveOrders.ordersOf(account, symbol)) {
+                if (side == null || order.getSide() == side) {
+                    cancelled.add(order);
+                }
+            }
+            if (cancelled.isEmpty()) {
+                return new MatchResult(List.of(), List.of());
+            }
+            book.removeOrders(cancelled);
+            List<FillReport> cancellations = new ArrayList<>(cancelled.size());
+            for (Order order : cancelled) {
+                liveOrders.remove(order);
+                order.setStatus(OrderStatus.CANCELLED);
+                journal.orderCancelled(order);
+                cancellations.add(new FillReport(order, BigDecimal.ZERO, order.getRemainingQuantity(), OrderStatus.CANCELLED));
+            }
+            book.advanceSequence();
+            events.publish(symbol, List.of(), cancellations);
+            return new MatchResult(List.of(), cancellations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The symbols in which the account has resting orders right now.
+     */
+    public Set<String> symbolsWithLiveOrders(String account) {
+        return liveOrders.symbolsOf(account);
+    }
+
+    /**
+     * Looks up an order that is currently resting in a book.
+     *
+     * @param orderId The order id.
+     * @return A detached copy of the order's current state, or empty if the order is not resting (never placed on this
+     *         node, fully filled, or cancelled).
+     */
+    public Optional<Order> findLiveOrder(Long orderId) {
+        Order order = liveOrders.get(orderId);
+        if (order == null) {
+            return Optional.empty();
+        }
+        // Copy under the symbol lock so the caller never sees a half-applied fill. The book may have been dropped since
+        // the lookup, in which case the order is no longer live.
+        return Optional.ofNullable(readBook(order.getSymbol(), book -> order.copy()));
+    }
+
+    /**
+     * Copies an order the engine may still be matching against, under its symbol's lock, so the copy never shows a
+     * half-applied fill. Used to hand an order back to its caller after {@link #processOrder}, once it may be resting
+     * in the book where other orders' threads update it.
+     *
+     * @param order An order this engine has processed.
+     * @return A copy of the order's current state.
+     */
+    public Order copyOrder(Order order) {
+        Order copy = readBook(order.getSymbol(), book -> order.copy());
+        // Without a book nothing updates the order any more
+        return copy != null ? copy : order.copy();
+    }
+
+    /**
+     * Runs a read-only function against a symbol's book while holding the symbol's lock, so the function sees a
+     * consistent book that no order is concurrently matching against.
+     *
+     * @param symbol The symbol to read.
+     * @param reader The function to apply to the book. It must not modify the book or retain references into it.
+     * @return The function's result, or null if there is no book for the symbol.
+     */
+    public <T> T readBook(String symbol, Function<OrderBook, T> reader) {
+        OrderBook book = orderBooks.get(symbol);
+        if (book == null) {
+            return null;
+        }
+        ReentrantLock lock = symbolLocks.get(symbol);
+        lock.lock();
+        try {
+            return reader.apply(book);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a symbol's book, e.g. when this node stops owning the symbol in clustered mode. Its resting orders are
+     * cancelled as one sequenced command, like a mass cancel, and published, so their CANCELLED state is persisted
+     * rather than left open in the database for a book no node holds any more. The book is recreated empty on the next
+     * order.
+     *
+     * @param symbol The symbol whose book to drop.
+     * @return One CANCELLED report with nothing filled per resting order, and no trades.
+     */
+    public MatchResult removeOrderBook(String symbol) {
+        ReentrantLock lock = symbolLocks.get(symbol);
+        if (lock == null) {
+            return new MatchResult(List.of(), List.of());
+        }
+        lock.lock();
+        try {
+            OrderBook book = orderBooks.remove(symbol);
+            if (book == null) {
+                return new MatchResult(List.of(), List.of());
+            }
+            List<FillReport> cancellations = new ArrayList<>();
+            for (NavigableMap<BigDecimal, PriceLevel> side : List.of(book.getBids(), book.getAsks())) {
+                for (PriceLevel level : side.values()) {
+                    for (Order order : level.getOrders()) {
+                        liveOrders.remove(order);
+                        order.setStatus(OrderStatus.CANCELLED);
+                        journal.orderCancelled(order);
+                        cancellations.add(new FillReport(order, BigDecimal.ZERO, order.getRemainingQuantity(), OrderStatus.CANCELLED));
+                    }
+                }
+            }
+            nextBookSequences.put(symbol, book.getSequence() + 1);
+            if (!cancellations.isEmpty()) {
+                events.publish(symbol, List.of(), cancellations);
+            }
+            return new MatchResult(List.of(), cancellations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Installs the check that this node may match a symbol, evaluated under the symbol's lock before an order is
+     * matched or a book created. It must answer from local state, without blocking.
+     */
+    public void setOwnershipFence(Predicate<String> ownershipFence) {
+        this.ownershipFence = ownershipFence;
+    }
+
+    /**
+     * Creates the book of every registered instrument that has none yet, so the first order of a symbol does not pay for
+     * creating it. Only for a node that matches every symbol: in clustered mode a node holds books only for the symbols
+     * it owns.
+     */
+    public void preallocateOrderBooks() {
+        for (Instrument instrument : instruments.all()) {
+            ReentrantLock lock = lockFor(instrument.symbol());
+            lock.lock();
+            try {
+                orderBooks.computeIfAbsent(instrument.symbol(), this::createOrderBook);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the symbol is not a registered instrument.
+     */
+    private ReentrantLock lockFor(String symbol) {
+        ReentrantLock lock = symbolLocks.get(symbol);
+        if (lock == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        return lock;
+    }
+
+    /**
+     * Creates the book for a symbol on its first order and registers its depth and lock-queue gauges.
+     * Only called from computeIfAbsent under the symbol's lock, so it runs once per symbol (again if the book was
+     * removed). A book created while its instrument is PRE_OPEN starts in the auction call phase.
+     */
+    private OrderBook createOrderBook(String symbol) {
+        OrderBook book = new OrderBook(symbol, nextBookSequences.getOrDefault(symbol, 0L));
+        if (instruments.find(symbol).state() == InstrumentState.PRE_OPEN) {
+            book.setPhase(TradingPhase.CALL);
+        }
+        metrics.registerBook(symbol, () -> orderBooks.get(symbol), symbolLocks.get(symbol));
+        return book;
+    }
+
     private Trade createTrade(Order incomingOrder, Order restingOrder, BigDecimal price, BigDecimal quantity) {
         if (incomingOrder.getSide() == Side.BUY) {
             return new Trade(incomingOrder.getSymbol(), incomingOrder.getId(), restingOrder.getId(), price, quantity);
@@ -0,0 +1,12 @@
+package com.example.exchange.core.matching;
+
+/**
+ * Thrown by the engine when its ownership fence refuses a command for a symbol this node no longer matches (clustered
+ * mode). Mapped to HTTP 409 like a forwarded request that reached the wrong node, so the caller re-routes and retries.
+ */
+public class OwnershipFencedException extends RuntimeException {
+
+    public OwnershipFencedException(String symbol) {
+        super(symbol + " is no longer matched on this node; retry shortly");
+    }
+}
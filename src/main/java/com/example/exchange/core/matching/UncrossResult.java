@@ -0,0 +1,10 @@
+package com.example.exchange.core.matching;
+
+/**
+ * The outcome of uncrossing an auction.
+ *
+ * @param auction The equilibrium price, executed volume and remaining imbalance.
+ * @param result  The trades executed at that price and the resulting fill reports.
+ */
+public record UncrossResult(AuctionIndication auction, MatchResult result) {
+}
@@ -0,0 +1,79 @@
+package com.example.exchange.core.orderbook;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.exchange.domain.Order;
+
+/**
+ * Index of every order currently resting in any book, by id and by account.
+ * Design Principle (Serve State from Where It Lives): The engine already holds every open order in memory, so status
+ * lookups for live orders are a map hit instead of a database query, and a mass cancel finds an account's orders
+ * without scanning books. Orders enter the index when they rest and leave it when they are filled or removed.
+ *
+ * The maps by id, by account and by symbol within an account are thread-safe. The innermost map, one account's
+ * orders in one symbol, is only touched by the thread holding that symbol's lock, like the Order objects themselves,
+ * which are owned by the engine; readers must copy them under that lock (see MatchingEngine.findLiveOrder).
+ */
+public class LiveOrderIndex {
+
+    private final ConcurrentHashMap<Long, Order> orders = new ConcurrentHashMap<>();
+    // account -> symbol -> order id -> order, in time priority within the symbol
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Map<Long, Order>>> byAccount = new ConcurrentHashMap<>();
+
+    public void add(Order order) {
+        orders.put(order.getId(), order);
+        if (order.getAccount() != null) {
+            byAccount.computeIfAbsent(order.getAccount(), a -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(order.getSymbol(), s -> new LinkedHashMap<>())
+                    .put(order.getId(), order);
+        }
+    }
+
+    public void remove(Order order) {
+        orders.remove(order.getId());
+        if (order.getAccount() != null) {
+            Map<String, Map<Long, Order>> symbols = byAccount.get(order.getAccount());
+            Map<Long, Order> accountOrders = symbols != null ? symbols.get(order.getSymbol()) : null;
+            if (accountOrders != null) {
+                accountOrders.remove(order.getId());
+                // Safe without further coordination: only the holder of this symbol's lock adds to this entry.
+                // The (small) per-account map is kept for the account's next order.
+                if (accountOrders.isEmpty()) {
+                    symbols.remove(order.getSymbol());
+                }
+            }
+        }
+    }
+
+    public Order get(Long orderId) {
+        return orders.get(orderId);
+    }
+
+    /**
+     * @return The symbols in which the account has resting orders; a snapshot that may change as soon as it is taken.
+     */
+    public Set<String> symbolsOf(String account) {
+        Map<String, Map<Long, Order>> symbols = byAccount.get(account);
+        return symbols == null ? Set.of() : Set.copyOf(symbols.keySet());
+    }
+
+    /**
+     * Must only be called by the thread holding the symbol's lock.
+     *
+     * @return A copy of the account's resting orders in the symbol, in time priority.
+     */
+    public Collection<Order> ordersOf(String account, String symbol) {
+        Map<String, Map<Long, Order>> symbols = byAccount.get(account);
+        Map<Long, Order> accountOrders = symbols != null ? symbols.get(symbol) : null;
+        return accountOrders == null ? List.of() : List.copyOf(accountOrders.values());
+    }
+
+    public int size() {
+        return orders.size();
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.exchange.core.orderbook;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 
 import com.example.exchange.domain.Order;
@@ -16,29 +21,52 @@ import com.example.exchange.domain.Side;
  * Design Principle (High Cohesion): This class is entirely focused on managing the state of the order book.
  * It uses efficient data structures for its specific purpose:
  * - A TreeMap is used for price levels to keep them sorted by price (desc for bids, asc for asks). This is crucial for matching.
- * - A Deque (FIFO queue) is used for orders at the same price level to maintain time priority.
+ * - A {@link PriceLevel} holds the orders at one price in a FIFO queue to maintain time priority, together with their
+ *   aggregate quantity so depth views never have to walk individual orders.
  */
 public class OrderBook {
     
     private final String symbol;
 
     // Bids (Buy orders): Sorted from highest price to lowest
-    private final NavigableMap<BigDecimal, Deque<Order>> bids = new TreeMap<>(Collections.reverseOrder());
+    private final NavigableMap<BigDecimal, PriceLevel> bids = new TreeMap<>(Collections.reverseOrder());
 
     // Asks (Sell orders): Sorted from lowest price to highest
-    private final NavigableMap<BigDecimal, Deque<Order>> asks = new TreeMap<>();
+    private final NavigableMap<BigDecimal, PriceLevel> asks = new TreeMap<>();
+
+    // Bumped by the engine (under the symbol lock) after every change to the book.
+    // Readers compare it with the sequence of a cached snapshot to detect staleness with a single volatile read.
+    private volatile long sequence;
+
+    // Only changed under the symbol lock; volatile so services can tell whether the book is in an auction without it
+    private volatile TradingPhase phase = TradingPhase.CONTINUOUS;
+    // Only read and written under the symbol lock
+    private BigDecimal lastTradePrice;
+    // Circuit breaker band around the reference price; null while there is no reference or no band
+    private BigDecimal referencePrice;
+    private BigDecimal lowerPriceLimit;
+    private BigDecimal upperPriceLimit;
 
     public OrderBook(String symbol) {
+        this(symbol, 0);
+    }
+
+    /**
+     * @param initialSequence The first sequence number; a book that replaces an earlier one for the same symbol
+     *                        continues after it, so snapshots cached from the old book never look current.
+     */
+    public OrderBook(String symbol, long initialSequence) {
         this.symbol = symbol;
+        this.sequence = initialSequence;
     }
 
     /**
-     * Removes an order from the book. This would be used for cancellations.
-     * @param order The order to remove.
+     * Adds an order to the back of its price level, creating the level if needed.
+     * @param order The order to add.
      */
     public void addOrder(Order order) {
-        NavigableMap<BigDecimal, Deque<Order>> sideMap = getSideMap(order.getSide());
-        sideMap.computeIfAbsent(order.getPrice(), k -> new LinkedList<>()).add(order);
+        NavigableMap<BigDecimal, PriceLevel> sideMap = getSideMap(order.getSide());
+        sideMap.computeIfAbsent(order.getPrice(), PriceLevel::new).add(order);
     }
 
     /**
@@ -46,16 +74,38 @@ public class OrderBook {
      * @param order The order to remove.
      */
     public void removeOrder(Order order) {
-        NavigableMap<BigDecimal, Deque<Order>> sideMap = getSideMap(order.getSide());
-        Deque<Order> ordersAtPrice = sideMap.get(order.getPrice());
-        if (ordersAtPrice != null) {
-            ordersAtPrice.removeIf(o -> o.getId().equals(order.getId()));
-            if (ordersAtPrice.isEmpty()) {
+        NavigableMap<BigDecimal, PriceLevel> sideMap = getSideMap(order.getSide());
+        PriceLevel level = sideMap.get(order.getPrice());
+        if (level != null) {
+            level.remove(order);
+            if (level.isEmpty()) {
                 sideMap.remove(order.getPrice());
             }
         }
     }
 
+    /**
+     * Removes several orders, visiting each affected price level once (e.g. a mass cancel).
+     * @param toRemove Orders resting in this book.
+     */
+    public void removeOrders(Collection<Order> toRemove) {
+        Map<PriceLevel, Set<Long>> idsByLevel = new IdentityHashMap<>();
+        Map<PriceLevel, Side> sides = new IdentityHashMap<>();
+        for (Order order : toRemove) {
+            PriceLevel level = getSideMap(order.getSide()).get(order.getPrice());
+            if (level != null) {
+                idsByLevel.computeIfAbsent(level, l -> new HashSet<>()).add(order.getId());
+                sides.put(level, order.getSide());
+            }
+        }
+        idsByLevel.forEach((level, ids) -> {
+            level.removeAll(ids);
+            if (level.isEmpty()) {
+                getSideMap(sides.get(level)).remove(level.getPrice());
+            }
+        });
+    }
+
     /**
      * Returns the best bid (highest price).
      * @return An Optional containing the best bid price, or empty if no bids.
@@ -77,7 +127,7 @@ public class OrderBook {
      */
     public Deque<Order> getBestBidOrders() {
         if (bids.isEmpty()) return new LinkedList<>();
-        return bids.firstEntry().getValue();
+        return bids.firstEntry().getValue().getOrders();
     }
 
     /**
@@ -85,25 +135,80 @@ public class OrderBook {
      */
     public Deque<Order> getBestAskOrders() {
         if (asks.isEmpty()) return new LinkedList<>();
-        return asks.firstEntry().getValue();
+        return asks.firstEntry().getValue().getOrders();
     }
 
     /**
      * A helper method to get the correct map (bids or asks) based on the order side.
      */
-    public NavigableMap<BigDecimal, Deque<Order>> getSideMap(Side side) {
+    public NavigableMap<BigDecimal, PriceLevel> getSideMap(Side side) {
         return side == Side.BUY ? bids : asks;
     }
 
+    /**
+     * Marks the book as changed. Must only be called by the thread holding the symbol's lock.
+     */
+    public void advanceSequence() {
+        sequence++;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public TradingPhase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(TradingPhase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * @return The price of the most recent trade in this book, or null if it has not traded yet.
+     *         Used as the reference price of auctions.
+     */
+    public BigDecimal getLastTradePrice() {
+        return lastTradePrice;
+    }
+
+    public void setLastTradePrice(BigDecimal lastTradePrice) {
+        this.lastTradePrice = lastTradePrice;
+    }
+
+    /**
+     * @return The price the circuit breaker band is centered on (the price of the last auction, or of the last trade of
+     *         the last order that traded), or null if there is none yet.
+     */
+    public BigDecimal getReferencePrice() {
+        return referencePrice;
+    }
+
+    /**
+     * Sets the reference price and the execution price limits around it; the limits are null for no band.
+     */
+    public void setPriceLimits(BigDecimal referencePrice, BigDecimal lowerPriceLimit, BigDecimal upperPriceLimit) {
+        this.referencePrice = referencePrice;
+        this.lowerPriceLimit = lowerPriceLimit;
+        this.upperPriceLimit = upperPriceLimit;
+    }
+
+    /**
+     * @return Whether a trade at this price stays inside the circuit breaker band (always true without a band).
+     */
+    public boolean isWithinPriceLimits(BigDecimal price) {
+        return lowerPriceLimit == null || (price.compareTo(lowerPriceLimit) >= 0 && price.compareTo(upperPriceLimit) <= 0);
+    }
+
     public String getSymbol() {
         return symbol;
     }
 
-    public NavigableMap<BigDecimal, Deque<Order>> getBids() {
+    public NavigableMap<BigDecimal, PriceLevel> getBids() {
         return bids;
     }
 
-    public NavigableMap<BigDecimal, Deque<Order>> getAsks() {
+    public NavigableMap<BigDecimal, PriceLevel> getAsks() {
         return asks;
     }
 }
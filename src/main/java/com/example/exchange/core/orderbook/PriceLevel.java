@@ -0,0 +1,83 @@
+package com.example.exchange.core.orderbook;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+import com.example.exchange.domain.Order;
+
+/**
+ * All resting orders at one price on one side of the book, in time priority, plus their aggregate open quantity.
+ * Design Principle (Maintain Aggregates Incrementally): The total is adjusted on every add, fill and removal, so
+ * depth views of the book read one value per level instead of summing every order.
+ *
+ * Like OrderBook, this class is not thread-safe; it is only touched under the symbol's lock.
+ */
+public class PriceLevel {
+
+    private final BigDecimal price;
+    private final Deque<Order> orders = new ArrayDeque<>();
+    private BigDecimal totalQuantity = BigDecimal.ZERO;
+
+    public PriceLevel(BigDecimal price) {
+        this.price = price;
+    }
+
+    /**
+     * Appends an order at the back of the queue (lowest time priority).
+     */
+    public void add(Order order) {
+        orders.addLast(order);
+        totalQuantity = totalQuantity.add(order.getRemainingQuantity());
+    }
+
+    /**
+     * Records that an order in this level was (partially) filled. The caller reduces the order's own remaining quantity.
+     */
+    public void reduce(BigDecimal filledQuantity) {
+        totalQuantity = totalQuantity.subtract(filledQuantity);
+    }
+
+    /**
+     * Removes an order from the level, e.g. on cancellation, releasing its remaining quantity from the total.
+     *
+     * @return True if the order was resting in this level.
+     */
+    public boolean remove(Order order) {
+        boolean removed = orders.removeIf(o -> o.getId().equals(order.getId()));
+        if (removed) {
+            totalQuantity = totalQuantity.subtract(order.getRemainingQuantity());
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every order with one of the given ids in a single pass over the queue, e.g. on a mass cancel.
+     */
+    public void removeAll(Set<Long> orderIds) {
+        orders.removeIf(order -> {
+            if (!orderIds.contains(order.getId())) {
+                return false;
+            }
+            totalQuantity = totalQuantity.subtract(order.getRemainingQuantity());
+            return true;
+        });
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Deque<Order> getOrders() {
+        return orders;
+    }
+
+    public BigDecimal getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public boolean isEmpty() {
+        return orders.isEmpty();
+    }
+}
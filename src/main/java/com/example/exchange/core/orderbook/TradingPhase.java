@@ -0,0 +1,11 @@
+package com.example.exchange.core.orderbook;
+
+/**
+ * How a book treats incoming orders.
+ */
+public enum TradingPhase {
+    /** Every incoming order is matched immediately against the opposite side. */
+    CONTINUOUS,
+    /** Auction call phase: orders only accumulate (the book may cross) until the auction is uncrossed. */
+    CALL
+}
@@ -0,0 +1,96 @@
+package com.example.exchange.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DDD Entity: An OHLCV bar summarizing all trades of one symbol within one time interval.
+ * Bars are built in memory from the engine's trade output and persisted in batches once they close.
+ * Ids come from a pooled sequence (not IDENTITY) so Hibernate can batch the inserts.
+ */
+@Entity
+@Table(name = "candles")
+@Data
+@NoArgsConstructor
+public class Candle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candles_seq")
+    @SequenceGenerator(name = "candles_seq", sequenceName = "candles_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    // "interval" is a reserved word in PostgreSQL
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bar_interval", nullable = false)
+    private CandleInterval interval;
+
+    @Column(nullable = false)
+    private Instant openTime;
+
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal open;
+
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal high;
+
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal low;
+
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal close;
+
+    @Column(nullable = false, precision = 28, scale = 8)
+    private BigDecimal volume;
+
+    @Column(nullable = false)
+    private long tradeCount;
+
+    /**
+     * Opens a bar with its first trade.
+     */
+    public Candle(String symbol, CandleInterval interval, Instant openTime, BigDecimal price, BigDecimal quantity) {
+        this.symbol = symbol;
+        this.interval = interval;
+        this.openTime = openTime;
+        this.open = price;
+        this.high = price;
+        this.low = price;
+        this.close = price;
+        this.volume = quantity;
+        this.tradeCount = 1;
+    }
+
+    /**
+     * Folds another trade of the same interval into the bar.
+     */
+    public void addTrade(BigDecimal price, BigDecimal quantity) {
+        if (price.compareTo(high) > 0) {
+            high = price;
+        }
+        if (price.compareTo(low) < 0) {
+            low = price;
+        }
+        close = price;
+        volume = volume.add(quantity);
+        tradeCount++;
+    }
+
+    /**
+     * Returns a detached copy, for handing a still-open bar to other threads.
+     */
+    public Candle copy() {
+        Candle copy = new Candle(symbol, interval, openTime, open, volume);
+        copy.high = high;
+        copy.low = low;
+        copy.close = close;
+        copy.tradeCount = tradeCount;
+        return copy;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.exchange.domain;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * The bar sizes for which OHLCV candles are aggregated, identified on the API by their short code (e.g. "1m").
+ */
+public enum CandleInterval {
+    ONE_SECOND("1s", Duration.ofSeconds(1)),
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1));
+
+    private final String code;
+    private final long millis;
+
+    CandleInterval(String code, Duration duration) {
+        this.code = code;
+        this.millis = duration.toMillis();
+    }
+
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return The start of the bar of this interval that contains the given time.
+     */
+    public long barStart(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, millis);
+    }
+
+    public static CandleInterval fromCode(String code) {
+        for (CandleInterval interval : values()) {
+            if (interval.code.equals(code)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown candle interval: " + code);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.exchange.domain;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.*;
 import lombok.Data;
@@ -49,6 +50,10 @@ public class Order {
     @Column(nullable = false, updatable = false)
     private Instant timestamp;
 
+    // The trading account that owns the order, used for mass cancels; null for orders placed without one
+    @Column(length = 64, updatable = false)
+    private String account;
+
     public Order(String symbol, Side side, OrderType orderType, BigDecimal price, BigDecimal quantity) {
         this.symbol = symbol;
         this.side = side;
@@ -57,6 +62,27 @@ public class Order {
         this.quantity = quantity;
         this.remainingQuantity = quantity;
         this.status = OrderStatus.OPEN;
-        this.timestamp = Instant.now();
+        // The column stores microseconds; truncating here keeps the in-memory value equal to the stored one, which
+        // state updates match on as part of the partition key
+        this.timestamp = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Returns a detached copy of this order's current state.
+     * Used to hand engine-owned orders, which keep changing as they trade, to other threads.
+     */
+    public Order copy() {
+        Order copy = new Order();
+        copy.id = id;
+        copy.symbol = symbol;
+        copy.side = side;
+        copy.orderType = orderType;
+        copy.status = status;
+        copy.price = price;
+        copy.quantity = quantity;
+        copy.remainingQuantity = remainingQuantity;
+        copy.timestamp = timestamp;
+        copy.account = account;
+        return copy;
     }
 }
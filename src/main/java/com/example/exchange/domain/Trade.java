@@ -47,4 +47,20 @@ public class Trade {
         this.quantity = quantity;
         this.timestamp = Instant.now();
     }
+
+    /**
+     * Returns a copy for the persistence pipeline to save.
+     * A trade is published once and read by several consumers at the same time; saving assigns the generated id, so
+     * the pipeline must never save the published instance itself.
+     */
+    public Trade copy() {
+        Trade copy = new Trade();
+        copy.symbol = symbol;
+        copy.buyOrderId = buyOrderId;
+        copy.sellOrderId = sellOrderId;
+        copy.price = price;
+        copy.quantity = quantity;
+        copy.timestamp = timestamp;
+        return copy;
+    }
 }
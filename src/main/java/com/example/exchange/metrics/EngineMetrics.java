@@ -0,0 +1,130 @@
+package com.example.exchange.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.core.orderbook.OrderBook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Central registry of the exchange's custom meters, exported through the actuator Prometheus endpoint.
+ * Design Principle (Low-Overhead Instrumentation): Stage latencies are recorded into per-thread HdrHistograms
+ * (see {@link StageLatencyHistogram}) and only merged when Prometheus scrapes, so timing the hot path costs two
+ * {@code System.nanoTime()} calls and a thread-local write. Per-symbol counters are created once and cached.
+ */
+@Component
+public class EngineMetrics {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final MeterRegistry registry;
+    private final Map<LatencyStage, StageLatencyHistogram> stageHistograms = new EnumMap<>(LatencyStage.class);
+    private final ConcurrentHashMap<String, Counter> orderCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> fillCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> circuitBreakerCounters = new ConcurrentHashMap<>();
+
+    public EngineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (LatencyStage stage : LatencyStage.values()) {
+            StageLatencyHistogram histogram = new StageLatencyHistogram();
+            stageHistograms.put(stage, histogram);
+            registerLatencyMeters(stage, histogram);
+        }
+    }
+
+    /**
+     * Records the duration of a single stage of the order path.
+     *
+     * @param stage The stage that was timed.
+     * @param nanos The elapsed time in nanoseconds, as measured with {@link System#nanoTime()}.
+     */
+    public void recordLatency(LatencyStage stage, long nanos) {
+        stageHistograms.get(stage).record(nanos);
+    }
+
+    /**
+     * Counts an order processed by the matching engine for the given symbol.
+     */
+    public void orderProcessed(String symbol) {
+        counter(orderCounters, "exchange.orders", symbol).increment();
+    }
+
+    /**
+     * Counts the fills (trades) generated for the given symbol.
+     */
+    public void fills(String symbol, int count) {
+        if (count > 0) {
+            counter(fillCounters, "exchange.fills", symbol).increment(count);
+        }
+    }
+
+    /**
+     * Counts a halt of the given symbol by the price-band circuit breaker.
+     */
+    public void circuitBreakerTripped(String symbol) {
+        counter(circuitBreakerCounters, "exchange.circuit.breaker.trips", symbol).increment();
+    }
+
+    /**
+     * Exposes book depth (price levels per side) and the number of threads queued on the symbol's lock.
+     * Called when the engine creates the book for a symbol. The gauges read the book through the supplier, so a book
+     * that is dropped and later recreated keeps reporting through the same gauges (0 while there is no book).
+     */
+    public void registerBook(String symbol, Supplier<OrderBook> book, ReentrantLock lock) {
+        Gauge.builder("exchange.book.depth", () -> levels(book.get(), true))
+                .tag("symbol", symbol).tag("side", "bid")
+                .description("Number of price levels on the bid side")
+                .register(registry);
+        Gauge.builder("exchange.book.depth", () -> levels(book.get(), false))
+                .tag("symbol", symbol).tag("side", "ask")
+                .description("Number of price levels on the ask side")
+                .register(registry);
+        Gauge.builder("exchange.book.queue.depth", lock, ReentrantLock::getQueueLength)
+                .tag("symbol", symbol)
+                .description("Threads waiting to acquire the symbol's matching lock")
+                .register(registry);
+    }
+
+    private static int levels(OrderBook book, boolean bids) {
+        if (book == null) {
+            return 0;
+        }
+        return bids ? book.getBids().size() : book.getAsks().size();
+    }
+
+    private Counter counter(ConcurrentHashMap<String, Counter> counters, String name, String symbol) {
+        // Plain get first: the common case must not allocate a mapping function
+        Counter counter = counters.get(symbol);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(symbol, s -> Counter.builder(name).tag("symbol", s).register(registry));
+        }
+        return counter;
+    }
+
+    private void registerLatencyMeters(LatencyStage stage, StageLatencyHistogram histogram) {
+        for (double percentile : PERCENTILES) {
+            Gauge.builder("exchange.stage.latency", histogram, h -> h.percentileSeconds(percentile))
+                    .tag("stage", stage.getTag())
+                    .tag("quantile", Double.toString(percentile / 100.0))
+                    .baseUnit("seconds")
+                    .description("Latency percentile of an order path stage over the last minute")
+                    .register(registry);
+        }
+        Gauge.builder("exchange.stage.latency.max", histogram, StageLatencyHistogram::maxSeconds)
+                .tag("stage", stage.getTag())
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("exchange.stage.latency.count", histogram, StageLatencyHistogram::totalCount)
+                .tag("stage", stage.getTag())
+                .register(registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.exchange.metrics;
+
+/**
+ * The individually timed stages of the order path.
+ * Each stage gets its own latency histogram so a slow request can be attributed to the step that caused it.
+ */
+public enum LatencyStage {
+    LOCK_WAIT("lock_wait"),
+    MATCH("match"),
+    PERSISTENCE_ENQUEUE("persistence_enqueue"),
+    CACHE_PUBLISH("cache_publish"),
+    BROADCAST("broadcast");
+
+    private final String tag;
+
+    LatencyStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.exchange.metrics;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+/**
+ * Latency histogram for a single {@link LatencyStage}.
+ * Design Principle (No Shared Writes on the Hot Path): every recording thread owns a {@link SingleWriterRecorder},
+ * so recording is a wait-free, allocation-free write to thread-private memory. The (rare) metrics scrape is the only
+ * place that touches all recorders: it swaps out their interval histograms and merges them into a one-minute window.
+ *
+ * The window is made of ten-second slices on a fixed clock grid. A scrape adds what it collected to the slice of the
+ * current time, and only slices that started less than a minute ago are reported, so the percentiles cover the last
+ * 50 to 60 seconds however often (or rarely) Prometheus scrapes. Observations count towards the slice of the scrape
+ * that collected them, which shifts them by at most one scrape interval.
+ */
+final class StageLatencyHistogram {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    // Two significant digits keeps each per-thread recorder small; 1% value resolution is plenty for percentiles.
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SLICES = 6;
+    private static final long SLICE_NANOS = WINDOW_NANOS / SLICES;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<ThreadRecorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<SingleWriterRecorder> localRecorder = ThreadLocal.withInitial(this::registerCurrentThread);
+    private final LongSupplier nanoClock;
+
+    // Guarded by "this"; only touched by the scrape path
+    private final Histogram[] slices = new Histogram[SLICES];
+    private final long[] sliceStarts = new long[SLICES];
+    private final Histogram snapshot = newHistogram();
+    private final long origin;
+    private long lastRefresh;
+    private long totalCount;
+
+    StageLatencyHistogram() {
+        this(System::nanoTime);
+    }
+
+    StageLatencyHistogram(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        this.lastRefresh = origin - REFRESH_NANOS;
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = newHistogram();
+            sliceStarts[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Records one observation for the calling thread. Never blocks and never allocates after the first call per thread.
+     */
+    void record(long nanos) {
+        localRecorder.get().recordValue(Math.min(Math.max(nanos, 0L), HIGHEST_TRACKABLE_NANOS));
+    }
+
+    double percentileSeconds(double percentile) {
+        return toSeconds(snapshot().getValueAtPercentile(percentile));
+    }
+
+    double maxSeconds() {
+        return toSeconds(snapshot().getMaxValue());
+    }
+
+    synchronized long totalCount() {
+        snapshot();
+        return totalCount;
+    }
+
+    /**
+     * @return The number of threads whose recorder is still merged on every scrape.
+     */
+    int recordingThreads() {
+        return recorders.size();
+    }
+
+    /**
+     * Folds every thread's interval histogram into the current slice and returns the merged view of the slices still
+     * inside the window. Refreshes at most once per second so a scrape reading many gauges only merges once.
+     */
+    private synchronized Histogram snapshot() {
+        long now = nanoClock.getAsLong();
+        if (now - lastRefresh < REFRESH_NANOS) {
+            return snapshot;
+        }
+        lastRefresh = now;
+
+        long sliceNumber = Math.floorDiv(now - origin, SLICE_NANOS);
+        int current = (int) Math.floorMod(sliceNumber, (long) SLICES);
+        long currentStart = origin + sliceNumber * SLICE_NANOS;
+        if (sliceStarts[current] != currentStart) {
+            slices[current].reset();
+            sliceStarts[current] = currentStart;
+        }
+
+        for (ThreadRecorder threadRecorder : recorders) {
+            Histogram interval = threadRecorder.recorder.getIntervalHistogram(threadRecorder.recycled);
+            slices[current].add(interval);
+            totalCount += interval.getTotalCount();
+            threadRecorder.recycled = interval;
+
+            // The owning thread is gone, so nothing can be recorded after the interval we just took
+            Thread owner = threadRecorder.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                recorders.remove(threadRecorder);
+            }
+        }
+
+        snapshot.reset();
+        for (int i = 0; i < SLICES; i++) {
+            if (sliceStarts[i] == Long.MIN_VALUE) {
+                continue;
+            }
+            if (sliceStarts[i] <= now - WINDOW_NANOS) {
+                // Fell out of the window
+                slices[i].reset();
+                sliceStarts[i] = Long.MIN_VALUE;
+            } else {
+                snapshot.add(slices[i]);
+            }
+        }
+        return snapshot;
+    }
+
+    private SingleWriterRecorder registerCurrentThread() {
+        SingleWriterRecorder recorder = new SingleWriterRecorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        recorders.add(new ThreadRecorder(Thread.currentThread(), recorder));
+        return recorder;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static final class ThreadRecorder {
+        private final WeakReference<Thread> owner;
+        private final SingleWriterRecorder recorder;
+        private Histogram recycled;
+
+        private ThreadRecorder(Thread owner, SingleWriterRecorder recorder) {
+            this.owner = new WeakReference<>(owner);
+            this.recorder = recorder;
+        }
+    }
+}
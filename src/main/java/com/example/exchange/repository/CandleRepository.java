@@ -0,0 +1,14 @@
+package com.example.exchange.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.exchange.domain.Candle;
+
+/**
+ * Spring Data JPA repository for closed OHLCV bars.
+ * Bars are written in batches by the market data flush; recent bars are served from memory, not from here.
+ */
+@Repository
+public interface CandleRepository extends JpaRepository<Candle, Long> {
+}
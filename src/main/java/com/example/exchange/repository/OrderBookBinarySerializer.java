@@ -0,0 +1,227 @@
+package com.example.exchange.repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.core.codec.ScaledDecimals;
+
+/**
+ * Compact binary Redis codec for order book snapshots.
+ * Design Principle (Purpose-Built Encoding): A book snapshot is two sorted lists of (price, quantity) pairs, so
+ * instead of type-annotated JSON each value is written as a fixed-point long:
+ * - Every value is first scaled to 8 decimals, then divided by the largest power of ten shared by all prices
+ *   (and, separately, all quantities) in the snapshot, so "50000.12" costs 3 bytes rather than 13 characters.
+ * - Prices are delta-encoded against the previous level; adjacent levels are usually one tick apart, which makes most
+ *   deltas fit in a single byte.
+ * - All integers are ZigZag varints.
+ *
+ * <pre>
+ * byte magic | byte version | varint symbolLength | UTF-8 symbol | byte priceExponent | byte quantityExponent
+ * | varint bidCount | (varint priceDelta, varint quantity)* | varint askCount | (varint priceDelta, varint quantity)*
+ * </pre>
+ * Payloads that do not start with the magic byte (e.g. JSON written by an older release) decode to null, which the
+ * cache treats as a miss.
+ */
+public class OrderBookBinarySerializer implements RedisSerializer<OrderBookDto> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L};
+
+    @Override
+    public byte[] serialize(OrderBookDto orderBook) throws SerializationException {
+        if (orderBook == null) {
+            return null;
+        }
+        try {
+            return encode(orderBook);
+        } catch (ArithmeticException e) {
+            throw new SerializationException("Order book value out of range for symbol " + orderBook.getSymbol(), e);
+        }
+    }
+
+    @Override
+    public OrderBookDto deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2 || bytes[0] != MAGIC) {
+            return null;
+        }
+        if (bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported order book encoding version " + bytes[1]);
+        }
+        try {
+            return decode(bytes);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated order book payload", e);
+        }
+    }
+
+    private static byte[] encode(OrderBookDto orderBook) {
+        List<OrderBookDto.PriceLevel> bids = orderBook.getBids() == null ? List.of() : orderBook.getBids();
+        List<OrderBookDto.PriceLevel> asks = orderBook.getAsks() == null ? List.of() : orderBook.getAsks();
+
+        long[] bidPrices = new long[bids.size()];
+        long[] bidQuantities = new long[bids.size()];
+        long[] askPrices = new long[asks.size()];
+        long[] askQuantities = new long[asks.size()];
+        scale(bids, bidPrices, bidQuantities);
+        scale(asks, askPrices, askQuantities);
+
+        int priceExponent = Math.min(sharedPowerOfTen(bidPrices), sharedPowerOfTen(askPrices));
+        int quantityExponent = Math.min(sharedPowerOfTen(bidQuantities), sharedPowerOfTen(askQuantities));
+
+        byte[] symbol = orderBook.getSymbol().getBytes(StandardCharsets.UTF_8);
+        Writer writer = new Writer(16 + symbol.length + (bids.size() + asks.size()) * 8);
+        writer.put(MAGIC);
+        writer.put(VERSION);
+        writer.putVarint(symbol.length);
+        writer.put(symbol);
+        writer.put((byte) priceExponent);
+        writer.put((byte) quantityExponent);
+        writeSide(writer, bidPrices, bidQuantities, POWERS_OF_TEN[priceExponent], POWERS_OF_TEN[quantityExponent]);
+        writeSide(writer, askPrices, askQuantities, POWERS_OF_TEN[priceExponent], POWERS_OF_TEN[quantityExponent]);
+        return writer.toByteArray();
+    }
+
+    private static OrderBookDto decode(byte[] bytes) {
+        Reader reader = new Reader(bytes, 2);
+        byte[] symbol = reader.getBytes((int) reader.getVarint());
+        int priceExponent = reader.get();
+        int quantityExponent = reader.get();
+        if (priceExponent < 0 || priceExponent > ScaledDecimals.SCALE || quantityExponent < 0 || quantityExponent > ScaledDecimals.SCALE) {
+            throw new SerializationException("Corrupt order book payload: bad exponent");
+        }
+        List<OrderBookDto.PriceLevel> bids = readSide(reader, ScaledDecimals.SCALE - priceExponent, ScaledDecimals.SCALE - quantityExponent);
+        List<OrderBookDto.PriceLevel> asks = readSide(reader, ScaledDecimals.SCALE - priceExponent, ScaledDecimals.SCALE - quantityExponent);
+        return new OrderBookDto(new String(symbol, StandardCharsets.UTF_8), bids, asks);
+    }
+
+    private static void scale(List<OrderBookDto.PriceLevel> levels, long[] prices, long[] quantities) {
+        for (int i = 0; i < levels.size(); i++) {
+            OrderBookDto.PriceLevel level = levels.get(i);
+            prices[i] = ScaledDecimals.toScaledLong(level.getPrice());
+            quantities[i] = ScaledDecimals.toScaledLong(level.getTotalQuantity());
+        }
+    }
+
+    private static void writeSide(Writer writer, long[] prices, long[] quantities, long priceDivisor, long quantityDivisor) {
+        writer.putVarint(prices.length);
+        long previous = 0;
+        for (int i = 0; i < prices.length; i++) {
+            long price = prices[i] / priceDivisor;
+            writer.putVarint(price - previous);
+            writer.putVarint(quantities[i] / quantityDivisor);
+            previous = price;
+        }
+    }
+
+    private static List<OrderBookDto.PriceLevel> readSide(Reader reader, int priceScale, int quantityScale) {
+        int count = (int) reader.getVarint();
+        List<OrderBookDto.PriceLevel> levels = new ArrayList<>(count);
+        long price = 0;
+        for (int i = 0; i < count; i++) {
+            price += reader.getVarint();
+            long quantity = reader.getVarint();
+            levels.add(new OrderBookDto.PriceLevel(BigDecimal.valueOf(price, priceScale), BigDecimal.valueOf(quantity, quantityScale)));
+        }
+        return levels;
+    }
+
+    /**
+     * @return The largest exponent e (at most 8) such that every value is divisible by 10^e.
+     */
+    private static int sharedPowerOfTen(long[] values) {
+        int exponent = ScaledDecimals.SCALE;
+        for (long value : values) {
+            while (exponent > 0 && value % POWERS_OF_TEN[exponent] != 0) {
+                exponent--;
+            }
+            if (exponent == 0) {
+                break;
+            }
+        }
+        return exponent;
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void put(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        private void put(byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, buffer, position, values.length);
+            position += values.length;
+        }
+
+        private void putVarint(long value) {
+            ensureCapacity(10);
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[position++] = (byte) zigZag;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private byte get() {
+            return buffer[position++];
+        }
+
+        private byte[] getBytes(int length) {
+            if (length < 0 || position + length > buffer.length) {
+                throw new ArrayIndexOutOfBoundsException(position + length);
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private long getVarint() {
+            long zigZag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.example.exchange.api.dto.OrderBookDto;
  * Manages the caching of order books in Redis.
  * Design Principle (High Cohesion): This class is solely responsible for Redis interactions
  * related to order books. It encapsulates key generation, serialization, and TTL management.
+ * Snapshots are stored with the compact {@link OrderBookBinarySerializer} (configured in RedisConfig).
  * This decouples the core application logic from the caching mechanism.
  */
 @Repository
@@ -0,0 +1,54 @@
+package com.example.exchange.repository;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process near cache of pre-encoded order book responses, in front of the Redis {@link OrderBookCache}.
+ * Design Principle (Versioned, Not Expiring): Each entry is tagged with the book sequence number it was built from.
+ * A reader passes the live book's current sequence; a matching entry is returned as-is (the JSON bytes are written
+ * straight to the response), anything else is a miss. Writers never need to invalidate entries explicitly: bumping
+ * the book's sequence makes every older entry stale.
+ *
+ * A symbol can have several cached views (e.g. the full book and a few common top-N depths); callers identify them
+ * with a small view index below {@link #MAX_VIEWS}.
+ */
+@Component
+public class OrderBookNearCache {
+
+    public static final int MAX_VIEWS = 8;
+
+    private final ConcurrentHashMap<String, AtomicReferenceArray<Entry>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param symbol          The trading symbol.
+     * @param view            The view index.
+     * @param currentSequence The live book's current sequence number.
+     * @return The encoded response for exactly that version of the book, or null if it is not cached.
+     */
+    public byte[] get(String symbol, int view, long currentSequence) {
+        AtomicReferenceArray<Entry> views = entries.get(symbol);
+        if (views == null) {
+            return null;
+        }
+        Entry entry = views.get(view);
+        return entry != null && entry.sequence == currentSequence ? entry.body : null;
+    }
+
+    /**
+     * Caches an encoded response. An entry built from an older book version never replaces a newer one.
+     */
+    public void put(String symbol, int view, long sequence, byte[] body) {
+        AtomicReferenceArray<Entry> views = entries.computeIfAbsent(symbol, s -> new AtomicReferenceArray<>(MAX_VIEWS));
+        Entry candidate = new Entry(sequence, body);
+        Entry current = views.get(view);
+        while ((current == null || current.sequence <= sequence) && !views.compareAndSet(view, current, candidate)) {
+            current = views.get(view);
+        }
+    }
+
+    private record Entry(long sequence, byte[] body) {
+    }
+}
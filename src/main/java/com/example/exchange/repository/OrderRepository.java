@@ -1,9 +1,16 @@
 package com.example.exchange.repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderStatus;
 
 /**
  * Spring Data JPA repository for the Order entity.
@@ -14,4 +21,21 @@ import com.example.exchange.domain.Order;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     // Spring Data JPA automatically provides implementations for common methods like save(), findById(), findAll(), etc.
+
+    /**
+     * Moves an order forward to a new state, without loading it.
+     * The update only applies if it is not older than the stored state (open quantity never grows, and a filled or
+     * cancelled order is final), so stale, reordered or repeated updates are no-ops. This is what lets the
+     * persistence pipeline retry and replay batches safely.
+     * The orders table is partitioned by timestamp and symbol, so both are matched too: that prunes the update to the
+     * one partition holding the order instead of probing the primary key index of every partition.
+     *
+     * @return The number of rows updated: 1, or 0 if the stored state is already as new or newer.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.remainingQuantity = :remaining, o.status = :status "
+            + "WHERE o.id = :id AND o.timestamp = :timestamp AND o.symbol = :symbol AND o.remainingQuantity >= :remaining "
+            + "AND o.status NOT IN (com.example.exchange.domain.OrderStatus.FILLED, com.example.exchange.domain.OrderStatus.CANCELLED)")
+    int applyState(@Param("id") Long id, @Param("symbol") String symbol, @Param("timestamp") Instant timestamp,
+                   @Param("remaining") BigDecimal remaining, @Param("status") OrderStatus status);
 }
@@ -0,0 +1,88 @@
+package com.example.exchange.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the monthly partitions of the "orders" and "trades" tables rolling.
+ * Design Principle (Schema Owns the Layout): The partition DDL lives in SQL functions created by the Flyway migration;
+ * this job only decides which months should exist. It runs once at startup and then daily, and:
+ * - creates the partitions of the current month and the next few months, so inserts never land in the default
+ *   partition (a row there would block creating its month's partition later);
+ * - detaches months older than the retention period and moves them to the "archive" schema, which is a catalog-only
+ *   operation, instead of deleting millions of rows.
+ */
+@Component
+public class PartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    static final List<String> PARTITIONED_TABLES = List.of("orders", "trades");
+    // Must match the bucket count used by the migration; every month of a table is split the same way
+    static final int HASH_BUCKETS = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                @Value("${exchange.partitions.maintenance-enabled:true}") boolean enabled,
+                                @Value("${exchange.partitions.months-ahead:3}") int monthsAhead,
+                                @Value("${exchange.partitions.retention-months:12}") int retentionMonths) {
+        if (monthsAhead < 1 || retentionMonths < 1) {
+            throw new IllegalArgumentException("exchange.partitions.months-ahead and retention-months must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${exchange.partitions.maintenance-cron:0 15 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        LocalDate cutoff = archiveCutoff(currentMonth, retentionMonths);
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                jdbcTemplate.queryForList("SELECT ensure_monthly_partitions(?, ?, ?, ?)",
+                        table, Date.valueOf(currentMonth), monthsAhead, HASH_BUCKETS);
+                Integer archived = jdbcTemplate.queryForObject("SELECT archive_partitions_before(?, ?)",
+                        Integer.class, table, Date.valueOf(cutoff));
+                if (archived != null && archived > 0) {
+                    log.info("Archived {} monthly partition(s) of {} older than {}", archived, table, cutoff);
+                }
+            } catch (RuntimeException e) {
+                // Retried on the next run; months ahead give several days of slack before inserts would be affected
+                log.error("Partition maintenance failed for table {}", table, e);
+            }
+        }
+    }
+
+    /**
+     * @return The first day of the oldest month that is kept; every month ending on or before it is archived.
+     *         The current month counts towards the retention period.
+     */
+    static LocalDate archiveCutoff(LocalDate currentMonth, int retentionMonths) {
+        return currentMonth.withDayOfMonth(1).minusMonths(retentionMonths - 1L);
+    }
+}
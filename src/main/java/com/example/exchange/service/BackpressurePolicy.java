@@ -0,0 +1,16 @@
+package com.example.exchange.service;
+
+/**
+ * What the persistence pipeline does with a batch when the queue it routes to is full.
+ */
+public enum BackpressurePolicy {
+    /**
+     * Wait for room. The persistence consumer stops reading the engine event ring; once the ring is full the engine
+     * waits for it, so order processing slows down to the database's pace. Nothing is lost.
+     */
+    BLOCK,
+    /** Drop the batch and count it. Keeps order latency flat at the cost of database completeness. */
+    SHED,
+    /** Write the batch to the local spill directory; it is replayed once the queue drains. Nothing is lost. */
+    SPILL
+}
@@ -0,0 +1,168 @@
+package com.example.exchange.service;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.events.EngineEventRing;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.journal.EventJournal;
+import com.example.exchange.core.marketdata.TradeAggregator;
+import com.example.exchange.core.matching.MatchResult;
+import com.example.exchange.core.matching.MatchingEngine;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.repository.OrderBookBinarySerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Primes the order path before the node reports ready, so the first real orders after a deploy do not run in the
+ * interpreter or in C1-compiled code.
+ * Design Principle (Warm Up in Isolation): The synthetic flow runs against a throwaway MatchingEngine with its own
+ * instrument registry, metrics, event ring and (if the journal is enabled) a journal in a scratch directory. The JIT
+ * compiles per method, not per instance, so the code it produces serves the real engine, but no synthetic order,
+ * trade, metric or journal record ever reaches it. The throwaway engine is configured like the real one so the
+ * branch profiles the JIT compiles against are the ones production takes.
+ *
+ * For each order the flow also runs the Jackson paths of the API (request in, order and trade out), and regularly
+ * builds and encodes book views (JSON and the binary Redis codec), mass-cancels and aggregates trades.
+ * Outside clustered mode it then creates the real books of every registered instrument, so their first orders do not
+ * pay for book creation either.
+ *
+ * Spring Boot only marks the application ready (readiness probe, /actuator/health/readiness) after every
+ * ApplicationRunner has returned, so the node takes no traffic until this is done.
+ */
+@Component
+@ConditionalOnProperty(name = "exchange.warmup.enabled", havingValue = "true")
+public class EngineWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EngineWarmup.class);
+
+    private static final String[] ACCOUNTS = {"warmup-0", "warmup-1", "warmup-2", "warmup-3"};
+    // Orders are priced within a few ticks of a fixed mid, well inside any price band, so about half of them trade
+    private static final int MID_TICKS = 100_000;
+    private static final int SPREAD_TICKS = 20;
+    private static final int MAX_LOTS = 1000;
+    private static final int VIEW_INTERVAL = 100;
+    private static final int CANCEL_INTERVAL = 1000;
+    private static final int JOURNAL_SEGMENT_BYTES = 4 * 1024 * 1024;
+
+    private final MatchingEngine matchingEngine;
+    private final ObjectMapper objectMapper;
+    private final String instrumentDefinitions;
+    private final boolean journalEnabled;
+    private final boolean clustered;
+    private final int orders;
+
+    public EngineWarmup(MatchingEngine matchingEngine,
+                        ObjectMapper objectMapper,
+                        @Value("${exchange.instruments.definitions:BTC/USD:0.01:0.00000001:10}") String instrumentDefinitions,
+                        @Value("${exchange.journal.enabled:true}") boolean journalEnabled,
+                        @Value("${exchange.cluster.enabled:false}") boolean clustered,
+                        @Value("${exchange.warmup.orders:50000}") int orders) {
+        this.matchingEngine = matchingEngine;
+        this.objectMapper = objectMapper;
+        this.instrumentDefinitions = instrumentDefinitions;
+        this.journalEnabled = journalEnabled;
+        this.clustered = clustered;
+        this.orders = orders;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        warmUp();
+    }
+
+    public void warmUp() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path scratch = Files.createTempDirectory("exchange-warmup-");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EventJournal journal = new EventJournal(journalEnabled, scratch.toString(), JOURNAL_SEGMENT_BYTES, 65_536, meterRegistry);
+        journal.start();
+        try {
+            InstrumentRegistry instruments = new InstrumentRegistry(instrumentDefinitions, InstrumentState.OPEN);
+            MatchingEngine engine = new MatchingEngine(new EngineMetrics(meterRegistry), journal, instruments, new EngineEventRing(1024));
+            runFlow(engine, List.copyOf(instruments.all()));
+        } finally {
+            journal.stop();
+            delete(scratch);
+        }
+
+        if (!clustered) {
+            matchingEngine.preallocateOrderBooks();
+        }
+        log.info("Warm-up ran {} synthetic orders through throwaway books in {} ms", orders, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void runFlow(MatchingEngine engine, List<Instrument> instruments) throws IOException {
+        Random random = new Random(42);
+        OrderBookBinarySerializer serializer = new OrderBookBinarySerializer();
+        TradeAggregator aggregator = new TradeAggregator(1000, 500);
+        for (int i = 0; i < orders; i++) {
+            Instrument instrument = instruments.get(i % instruments.size());
+            String symbol = instrument.symbol();
+
+            OrderRequest request = new OrderRequest();
+            request.setSymbol(symbol);
+            request.setSide(random.nextBoolean() ? Side.BUY : Side.SELL);
+            request.setOrderType(OrderType.LIMIT);
+            request.setPrice(instrument.tickSize().multiply(BigDecimal.valueOf(MID_TICKS + random.nextInt(2 * SPREAD_TICKS + 1) - SPREAD_TICKS)));
+            request.setQuantity(instrument.lotSize().multiply(BigDecimal.valueOf(1 + random.nextInt(MAX_LOTS))));
+            request.setAccount(ACCOUNTS[i % ACCOUNTS.length]);
+            request = objectMapper.readValue(objectMapper.writeValueAsBytes(request), OrderRequest.class);
+            instrument.checkOrder(request.getPrice(), request.getQuantity());
+
+            Order order = new Order(request.getSymbol(), request.getSide(), request.getOrderType(), request.getPrice(), request.getQuantity());
+            order.setId((long) i + 1);
+            order.setAccount(request.getAccount());
+            MatchResult result = engine.processOrder(order);
+            objectMapper.writeValueAsBytes(order);
+            for (Trade trade : result.trades()) {
+                objectMapper.writeValueAsBytes(trade);
+                aggregator.onTrade(trade);
+            }
+
+            if (i % VIEW_INTERVAL == VIEW_INTERVAL - 1) {
+                OrderBookDto book = engine.readBook(symbol, b -> OrderBookViews.fromBook(b, OrderBookViews.FULL_DEPTH, null));
+                objectMapper.writeValueAsBytes(book);
+                serializer.deserialize(serializer.serialize(book));
+                objectMapper.writeValueAsBytes(engine.readBook(symbol, b -> OrderBookViews.fromBook(b, 10, instrument.tickSize().movePointRight(1))));
+            }
+            if (i % CANCEL_INTERVAL == CANCEL_INTERVAL - 1) {
+                for (Instrument book : instruments) {
+                    for (String account : ACCOUNTS) {
+                        engine.cancelOrders(book.symbol(), account, null);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
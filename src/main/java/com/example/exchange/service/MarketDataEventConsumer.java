@@ -0,0 +1,45 @@
+package com.example.exchange.service;
+
+import com.example.exchange.core.events.EngineEvent;
+import com.example.exchange.core.events.EngineEventConsumer;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.metrics.LatencyStage;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts trades over WebSocket.
+ * The broadcast is best effort: when this consumer falls a full ring behind it skips events rather than hold the
+ * engine back. Trade history and candles are built by {@link TradeHistoryEventConsumer}, which sees every trade.
+ */
+@Component
+public class MarketDataEventConsumer implements EngineEventConsumer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final EngineMetrics metrics;
+
+    public MarketDataEventConsumer(SimpMessagingTemplate messagingTemplate, EngineMetrics metrics) {
+        this.messagingTemplate = messagingTemplate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return "market-data";
+    }
+
+    @Override
+    public boolean mayLoseEvents() {
+        return true;
+    }
+
+    @Override
+    public void onEvent(EngineEvent event) {
+        if (event.trades().isEmpty()) {
+            return;
+        }
+        long broadcastStart = System.nanoTime();
+        event.trades().forEach(trade -> messagingTemplate.convertAndSend("/topic/trades", trade));
+        metrics.recordLatency(LatencyStage.BROADCAST, System.nanoTime() - broadcastStart);
+    }
+}
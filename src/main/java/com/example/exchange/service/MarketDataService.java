@@ -0,0 +1,35 @@
+package com.example.exchange.service;
+
+import java.util.List;
+
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Trade;
+
+/**
+ * Public market data derived from the engine's trades: recent trade history and OHLCV candles.
+ */
+public interface MarketDataService {
+
+    /**
+     * Feeds trades produced by the matching engine into the market data aggregates.
+     *
+     * @param trades The trades of one matched order, in execution order.
+     */
+    void onTrades(List<Trade> trades);
+
+    /**
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @param limit  Maximum number of trades to return.
+     * @return The most recent trades, newest first.
+     */
+    List<Trade> getRecentTrades(String symbol, int limit);
+
+    /**
+     * @param symbol   The trading symbol (e.g., "BTC/USD").
+     * @param interval The bar size.
+     * @param limit    Maximum number of bars to return.
+     * @return The most recent bars, newest first. The first bar may still be open.
+     */
+    List<Candle> getCandles(String symbol, CandleInterval interval, int limit);
+}
@@ -0,0 +1,97 @@
+package com.example.exchange.service;
+
+import com.example.exchange.core.marketdata.TradeAggregator;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.repository.CandleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Serves trade history and candles from the in-memory {@link TradeAggregator}; the database is only written to.
+ * Closed bars are collected on a fixed schedule, published on the "/topic/candles" WebSocket topic and saved in one
+ * batch per run, so bar persistence costs one batched INSERT per second rather than a write per trade.
+ * Bars whose INSERT fails stay queued and are retried on the following runs, oldest first, so a database outage leaves
+ * no gaps in the candle history unless it outlasts the backlog limit.
+ */
+@Service
+public class MarketDataServiceImpl implements MarketDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketDataServiceImpl.class);
+
+    private static final int MAX_BARS_PER_FLUSH = 5_000;
+    // About an hour of bars for a hundred actively traded symbols; beyond that the oldest unsaved bars are dropped
+    private static final int MAX_UNSAVED_BARS = 500_000;
+
+    private final TradeAggregator tradeAggregator;
+    private final CandleRepository candleRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    // Closed bars not yet saved, oldest first; only touched by the flush schedule
+    private final Deque<Candle> unsaved = new ArrayDeque<>();
+
+    public MarketDataServiceImpl(TradeAggregator tradeAggregator,
+                                 CandleRepository candleRepository,
+                                 SimpMessagingTemplate messagingTemplate) {
+        this.tradeAggregator = tradeAggregator;
+        this.candleRepository = candleRepository;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void onTrades(List<Trade> trades) {
+        for (Trade trade : trades) {
+            tradeAggregator.onTrade(trade);
+        }
+    }
+
+    @Override
+    public List<Trade> getRecentTrades(String symbol, int limit) {
+        return tradeAggregator.getRecentTrades(symbol, limit);
+    }
+
+    @Override
+    public List<Candle> getCandles(String symbol, CandleInterval interval, int limit) {
+        return tradeAggregator.getCandles(symbol, interval, limit);
+    }
+
+    /**
+     * Closes bars whose interval has ended, publishes them, then persists the oldest unsaved bars in one batch.
+     */
+    @Scheduled(fixedDelayString = "${exchange.marketdata.flush-interval-ms:1000}")
+    public void flushClosedBars() {
+        tradeAggregator.closeExpiredBars(System.currentTimeMillis());
+        List<Candle> closed = tradeAggregator.drainClosedBars(MAX_BARS_PER_FLUSH);
+        closed.forEach(bar -> messagingTemplate.convertAndSend("/topic/candles", bar));
+        unsaved.addAll(closed);
+        if (unsaved.isEmpty()) {
+            return;
+        }
+
+        // Copies, so a failed attempt leaves no generated ids behind on the bars that are retried
+        List<Candle> batch = unsaved.stream().limit(MAX_BARS_PER_FLUSH).map(Candle::copy).toList();
+        try {
+            candleRepository.saveAll(batch);
+        } catch (RuntimeException e) {
+            int dropped = 0;
+            while (unsaved.size() > MAX_UNSAVED_BARS) {
+                unsaved.poll();
+                dropped++;
+            }
+            // Bars remain available in memory either way; only dropped bars lose their history row
+            log.error("Failed to persist {} closed candles; {} awaiting retry, {} dropped",
+                    batch.size(), unsaved.size(), dropped, e);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            unsaved.poll();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.exchange.service;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.core.events.EngineEvent;
+import com.example.exchange.core.events.EngineEventConsumer;
+import com.example.exchange.core.matching.MatchingEngine;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.metrics.LatencyStage;
+import com.example.exchange.repository.OrderBookCache;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Publishes changed books to Redis for other nodes. Local reads are served by the near cache.
+ * Design Principle (Coalesce at the Consumer): A snapshot is always of the live book, so one per symbol per batch
+ * is enough however many events changed it; under load this publishes far fewer snapshots than there are orders.
+ * For the same reason a skipped event costs nothing the next snapshot does not repair, so the consumer opts into loss;
+ * it must in any case, since it takes the symbol lock the engine publishes under.
+ */
+@Component
+public class OrderBookCacheEventConsumer implements EngineEventConsumer {
+
+    private final MatchingEngine matchingEngine;
+    private final OrderBookCache orderBookCache;
+    private final EngineMetrics metrics;
+    // Symbols changed since the last batch; only touched by the consumer thread
+    private final Set<String> changedSymbols = new LinkedHashSet<>();
+
+    public OrderBookCacheEventConsumer(MatchingEngine matchingEngine, OrderBookCache orderBookCache, EngineMetrics metrics) {
+        this.matchingEngine = matchingEngine;
+        this.orderBookCache = orderBookCache;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return "order-book-cache";
+    }
+
+    @Override
+    public boolean mayLoseEvents() {
+        return true;
+    }
+
+    @Override
+    public void onEvent(EngineEvent event) {
+        changedSymbols.add(event.symbol());
+    }
+
+    @Override
+    public void onBatchEnd() {
+        for (String symbol : changedSymbols) {
+            long cacheStart = System.nanoTime();
+            OrderBookDto dto = matchingEngine.readBook(symbol, b -> OrderBookViews.fromBook(b, OrderBookViews.FULL_DEPTH, null));
+            // A book dropped in the meantime (its symbol moved to another node) is no longer this node's to publish
+            if (dto != null) {
+                orderBookCache.updateOrderBook(symbol, dto);
+            }
+            metrics.recordLatency(LatencyStage.CACHE_PUBLISH, System.nanoTime() - cacheStart);
+        }
+        changedSymbols.clear();
+    }
+}
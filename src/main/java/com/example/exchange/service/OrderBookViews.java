@@ -0,0 +1,80 @@
+package com.example.exchange.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.core.orderbook.PriceLevel;
+
+/**
+ * Builds client-facing views of an order book: the top N price levels per side, optionally grouped into coarser
+ * price buckets.
+ * Design Principle (Pay for What You Read): Levels are visited best-first and the walk stops as soon as N levels (or
+ * N buckets) are filled, reading each level's precomputed total. A top-20 view of a deep book therefore costs the same
+ * as a top-20 view of a shallow one.
+ */
+final class OrderBookViews {
+
+    static final int FULL_DEPTH = Integer.MAX_VALUE;
+
+    private OrderBookViews() {
+    }
+
+    /**
+     * Builds a view from the live book. Must be called under the symbol's lock (see MatchingEngine.readBook).
+     *
+     * @param depth    Maximum number of levels per side, or {@link #FULL_DEPTH}.
+     * @param grouping Bucket size to aggregate prices into, or null for the book's own price levels.
+     */
+    static OrderBookDto fromBook(OrderBook book, int depth, BigDecimal grouping) {
+        return new OrderBookDto(book.getSymbol(),
+                collect(book.getBids().values(), PriceLevel::getPrice, PriceLevel::getTotalQuantity, depth, grouping, RoundingMode.FLOOR),
+                collect(book.getAsks().values(), PriceLevel::getPrice, PriceLevel::getTotalQuantity, depth, grouping, RoundingMode.CEILING));
+    }
+
+    /**
+     * Builds a view from a full snapshot, e.g. one read from Redis.
+     */
+    static OrderBookDto fromSnapshot(OrderBookDto snapshot, int depth, BigDecimal grouping) {
+        if (depth == FULL_DEPTH && grouping == null) {
+            return snapshot;
+        }
+        return new OrderBookDto(snapshot.getSymbol(),
+                collect(snapshot.getBids(), OrderBookDto.PriceLevel::getPrice, OrderBookDto.PriceLevel::getTotalQuantity, depth, grouping, RoundingMode.FLOOR),
+                collect(snapshot.getAsks(), OrderBookDto.PriceLevel::getPrice, OrderBookDto.PriceLevel::getTotalQuantity, depth, grouping, RoundingMode.CEILING));
+    }
+
+    /**
+     * Walks levels best-first, merging consecutive levels that fall into the same bucket.
+     * Bids are bucketed down and asks up, so a grouped level never shows a better price than is actually available.
+     */
+    private static <T> List<OrderBookDto.PriceLevel> collect(Collection<T> levels,
+                                                            Function<T, BigDecimal> price,
+                                                            Function<T, BigDecimal> quantity,
+                                                            int depth,
+                                                            BigDecimal grouping,
+                                                            RoundingMode bucketRounding) {
+        List<OrderBookDto.PriceLevel> result = new ArrayList<>(Math.min(depth, levels.size()));
+        OrderBookDto.PriceLevel last = null;
+        for (T level : levels) {
+            BigDecimal levelPrice = grouping == null
+                    ? price.apply(level)
+                    : price.apply(level).divide(grouping, 0, bucketRounding).multiply(grouping);
+            if (last != null && last.getPrice().compareTo(levelPrice) == 0) {
+                last.setTotalQuantity(last.getTotalQuantity().add(quantity.apply(level)));
+                continue;
+            }
+            if (result.size() == depth) {
+                break;
+            }
+            last = new OrderBookDto.PriceLevel(levelPrice, quantity.apply(level));
+            result.add(last);
+        }
+        return result;
+    }
+}
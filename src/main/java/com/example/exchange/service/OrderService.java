@@ -1,8 +1,16 @@
 package com.example.exchange.service;
 
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import com.example.exchange.api.dto.MassCancelResult;
 import com.example.exchange.api.dto.OrderBookDto;
 import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.matching.AuctionIndication;
 import com.example.exchange.domain.Order;
+import com.example.exchange.domain.Side;
 
 /**
  * The abstraction for the business logic layer.
@@ -15,9 +23,32 @@ public interface OrderService {
      *
      * @param orderRequest DTO containing the new order details.
      * @return The persisted Order entity.
+     * @throws IllegalArgumentException if the symbol is unknown or does not accept orders, or the price or quantity is
+     *                                  off its tick or lot grid.
      */
     Order placeNewOrder(OrderRequest orderRequest);
 
+    /**
+     * Retrieves the current state of an order.
+     *
+     * @param orderId The order id.
+     * @return The order, with its latest known status and remaining quantity.
+     * @throws jakarta.persistence.EntityNotFoundException if no such order exists.
+     */
+    Order getOrder(Long orderId);
+
+    /**
+     * Cancels all resting orders of an account, optionally only in one symbol and/or on one side.
+     * Each affected book is handled as one command, and its cancellations are persisted as one batch.
+     *
+     * @param account The account whose orders to cancel.
+     * @param symbol  The trading symbol (e.g., "BTC/USD"), or null for every symbol.
+     * @param side    The side, or null for both sides.
+     * @return The ids of the cancelled orders.
+     * @throws IllegalArgumentException if the symbol is unknown.
+     */
+    MassCancelResult cancelOrders(String account, String symbol, Side side);
+
     /**
      * Retrieves the current state of the order book for a given symbol.
      *
@@ -25,4 +56,75 @@ public interface OrderService {
      * @return A DTO representing the order book.
      */
     OrderBookDto getOrderBook(String symbol);
+
+    /**
+     * Retrieves a view of the order book for a symbol as an encoded JSON response body.
+     * Preferred for serving reads: unchanged books are returned from a pre-encoded near cache.
+     *
+     * @param symbol   The trading symbol (e.g., "BTC/USD").
+     * @param depth    Maximum number of price levels per side, or null for all levels.
+     * @param grouping Price bucket size to aggregate levels into (e.g. 0.5 or 10), or null for no aggregation.
+     * @return The JSON representation of the symbol's OrderBookDto.
+     * @throws IllegalArgumentException if depth is less than 1 or grouping is not positive.
+     */
+    byte[] getOrderBookJson(String symbol, Integer depth, BigDecimal grouping);
+
+    /**
+     * The order book as this node sees it without asking another node: from its own book, else from the snapshot
+     * cached in Redis.
+     *
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @return The book, or empty if this node holds no book for the symbol and no snapshot is cached.
+     */
+    Optional<OrderBookDto> findOrderBook(String symbol);
+
+    /**
+     * Like {@link #getOrderBookJson}, but only from this node's own book or the snapshot cached in Redis.
+     *
+     * @return The encoded view, or empty if this node holds no book for the symbol and no snapshot is cached.
+     * @throws IllegalArgumentException if depth is less than 1 or grouping is not positive.
+     */
+    Optional<byte[]> findOrderBookJson(String symbol, Integer depth, BigDecimal grouping);
+
+    /**
+     * Puts a symbol into the auction call phase (e.g. before the open, or to reopen after a halt). Orders then rest
+     * without matching until the auction is uncrossed.
+     *
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @return The indicative auction state.
+     */
+    AuctionIndication startAuction(String symbol);
+
+    /**
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @return The indicative equilibrium price, executable volume and imbalance if the symbol were uncrossed now.
+     * @throws jakarta.persistence.EntityNotFoundException if there is no book for the symbol.
+     */
+    AuctionIndication getAuctionIndication(String symbol);
+
+    /**
+     * Executes all crossing orders of a symbol in the call phase at a single price and resumes continuous matching.
+     *
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @return The executed auction.
+     * @throws IllegalArgumentException if the symbol is not in the call phase.
+     */
+    AuctionIndication uncrossAuction(String symbol);
+
+    /**
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @return The instrument with its current lifecycle state.
+     * @throws IllegalArgumentException if the symbol is unknown.
+     */
+    Instrument getInstrument(String symbol);
+
+    /**
+     * Halts, closes or opens a symbol, or moves it to PRE_OPEN to start an auction.
+     *
+     * @param symbol The trading symbol (e.g., "BTC/USD").
+     * @param state  The new lifecycle state.
+     * @return The instrument in its new state.
+     * @throws IllegalArgumentException if the symbol is unknown, or it is in an auction and must be uncrossed to open.
+     */
+    Instrument changeInstrumentState(String symbol, InstrumentState state);
 }
@@ -1,61 +1,86 @@
 package com.example.exchange.service;
 
+import com.example.exchange.api.dto.MassCancelResult;
 import com.example.exchange.api.dto.OrderBookDto;
 import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.core.matching.MatchResult;
 import com.example.exchange.core.matching.MatchingEngine;
+import com.example.exchange.core.matching.UncrossResult;
 import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.core.orderbook.TradingPhase;
 import com.example.exchange.domain.Order;
-import com.example.exchange.domain.OrderStatus;
-import com.example.exchange.domain.Trade;
+import com.example.exchange.domain.Side;
 import com.example.exchange.repository.OrderBookCache;
+import com.example.exchange.repository.OrderBookNearCache;
 import com.example.exchange.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Optional;
 
 /**
  * High-performance implementation of OrderService.
  * Design Philosophy: This implementation is designed for speed and responsiveness.
- * The placeNewOrder method does the bare minimum of synchronous work (a single INSERT)
- * and then delegates all heavy I/O operations (saving trades, updating matched orders)
- * to a background thread via the PersistenceService. This ensures the API endpoint
- * returns to the client almost instantly, even under heavy load.
+ * The placeNewOrder method does the bare minimum of synchronous work (a single INSERT and the match itself).
+ * Everything downstream of the engine (saving trades, updating matched orders, trade broadcasts, market data and the
+ * Redis snapshot) consumes the engine's event stream on its own thread, see
+ * {@link com.example.exchange.core.events.EngineEventConsumer}. This ensures the API endpoint returns to the client
+ * almost instantly, even under heavy load.
  */
 @Service
 public class OrderServiceImpl implements OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    // Views kept pre-encoded in the near cache: the full book and the depths clients ask for most
+    private static final int[] CACHED_DEPTHS = {OrderBookViews.FULL_DEPTH, 10, 20, 50, 100};
+
     private final OrderRepository orderRepository;
     private final MatchingEngine matchingEngine;
+    private final InstrumentRegistry instrumentRegistry;
     private final OrderBookCache orderBookCache;
+    private final OrderBookNearCache orderBookNearCache;
     private final SimpMessagingTemplate messagingTemplate;
-    private final PersistenceService persistenceService; // The async service
+    private final ObjectMapper objectMapper;
 
     public OrderServiceImpl(OrderRepository orderRepository,
                             MatchingEngine matchingEngine,
+                            InstrumentRegistry instrumentRegistry,
                             OrderBookCache orderBookCache,
+                            OrderBookNearCache orderBookNearCache,
                             SimpMessagingTemplate messagingTemplate,
-                            PersistenceService persistenceService) {
+                            ObjectMapper objectMapper) {
         this.orderRepository = orderRepository;
         this.matchingEngine = matchingEngine;
+        this.instrumentRegistry = instrumentRegistry;
         this.orderBookCache = orderBookCache;
+        this.orderBookNearCache = orderBookNearCache;
         this.messagingTemplate = messagingTemplate;
-        this.persistenceService = persistenceService;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Not transactional on purpose: the INSERT commits on its own before the order reaches the engine, so the
+     * background updates for its fills always find the row.
+     */
     @Override
-    @Transactional
     public Order placeNewOrder(OrderRequest orderRequest) {
+        // 0. Reject orders the instrument cannot take before anything is saved or allocated
+        instrumentRegistry.require(orderRequest.getSymbol()).checkOrder(orderRequest.getPrice(), orderRequest.getQuantity());
+
         // 1. Create and save the initial order
         Order order = new Order(
                 orderRequest.getSymbol(),
@@ -64,97 +89,225 @@ public class OrderServiceImpl implements OrderService {
                 orderRequest.getPrice(),
                 orderRequest.getQuantity()
         );
+        order.setAccount(orderRequest.getAccount());
         orderRepository.save(order);
-        log.info("Persisted initial state of new order: {}", order.getId());
-
-        // 2. Process the order in the IN-MEMORY matching engine
-        List<Trade> trades = matchingEngine.processOrder(order);
-
-        // 3. Update the state of the incoming order in memory
-        if (order.getRemainingQuantity().compareTo(BigDecimal.ZERO) == 0) {
-            order.setStatus(OrderStatus.FILLED);
-        } else if (order.getRemainingQuantity().compareTo(order.getQuantity()) < 0) {
-            order.setStatus(OrderStatus.PARTIALLY_FILLED);
-        }
-
-        // 4. Gather all entities that need to be persisted in the background
-        List<Order> ordersToUpdate = new ArrayList<>();
-        ordersToUpdate.add(order); // Always update the incoming order's final status
-
-        if (!trades.isEmpty()) {
-            // Get the unique IDs of all resting orders that were matched
-            Set<Long> restingOrderIds = trades.stream()
-                    .flatMap(trade -> Stream.of(trade.getBuyOrderId(), trade.getSellOrderId()))
-                    .filter(orderId -> !orderId.equals(order.getId()))
-                    .collect(Collectors.toSet());
-            
-            // Retrieve the full Order objects for the matched resting orders
-            List<Order> restingOrders = orderRepository.findAllById(restingOrderIds);
-
-            // Update their status based on their remaining quantity
-            restingOrders.forEach(ro -> {
-                if (ro.getRemainingQuantity().compareTo(BigDecimal.ZERO) == 0) {
-                    ro.setStatus(OrderStatus.FILLED);
-                } else {
-                    ro.setStatus(OrderStatus.PARTIALLY_FILLED);
-                }
-            });
-            ordersToUpdate.addAll(restingOrders);
-
-            // Broadcast trades over WebSocket
-            trades.forEach(trade -> {
-                log.info("Broadcasting trade: {}", trade.getId());
-                messagingTemplate.convertAndSend("/topic/trades", trade);
-            });
-        }
-        
-        // 5. FIRE AND FORGET: Delegate the slow I/O to the background persistence service.
-        // This call returns immediately, it does not wait for the saves to complete.
-        persistenceService.persistTradesAndOrders(trades, ordersToUpdate);
-        log.info("Delegated persistence of {} trades and {} updated orders to background service.", trades.size(), ordersToUpdate.size());
-        
-        // 6. Update the cached order book. This is a fast in-memory operation.
-        updateCachedOrderBook(order.getSymbol());
-        
-        // 7. Return the initial state of the order to the client immediately.
-        return order;
-    }
-
-    // No changes needed below this line
+
+        // 2. Process the order in the IN-MEMORY matching engine.
+        // The engine updates the status and remaining quantity of every order it touches and publishes the trades and
+        // fills to its event stream, from which they are broadcast, persisted and cached off this thread.
+        MatchResult result = matchingEngine.processOrder(order);
+
+        if (result.halted()) {
+            log.warn("Circuit breaker halted {}: order {} hit the price band", order.getSymbol(), order.getId());
+            publishInstrument(instrumentRegistry.find(order.getSymbol()));
+        }
+
+        // During an auction every order moves the indicative price, volume and imbalance. Concurrent orders publish in
+        // any order; the book sequence in each indication lets subscribers drop the stale ones.
+        OrderBook book = matchingEngine.getOrderBook(order.getSymbol());
+        if (book != null && book.getPhase() == TradingPhase.CALL) {
+            publishAuction(matchingEngine.indicateAuction(order.getSymbol()));
+        }
+
+        // 3. Return the initial state of the order to the client immediately. A resting order belongs to the engine
+        // from here on, so the client gets a copy taken under the symbol lock.
+        return matchingEngine.copyOrder(order);
+    }
+
+    @Override
+    public AuctionIndication startAuction(String symbol) {
+        AuctionIndication auction = matchingEngine.startAuction(symbol);
+        publishInstrument(instrumentRegistry.find(symbol));
+        publishAuction(auction);
+        return auction;
+    }
+
+    @Override
+    public AuctionIndication getAuctionIndication(String symbol) {
+        instrumentRegistry.require(symbol);
+        AuctionIndication auction = matchingEngine.indicateAuction(symbol);
+        if (auction == null) {
+            throw new EntityNotFoundException("No order book for symbol: " + symbol);
+        }
+        return auction;
+    }
+
+    /**
+     * The auction's trades and fills reach the event stream like those of a single order; they are simply one larger
+     * event.
+     */
+    @Override
+    public AuctionIndication uncrossAuction(String symbol) {
+        UncrossResult uncross = matchingEngine.uncross(symbol);
+        publishInstrument(instrumentRegistry.find(symbol));
+        publishAuction(uncross.auction());
+        return uncross.auction();
+    }
+
+    @Override
+    public Instrument getInstrument(String symbol) {
+        return instrumentRegistry.require(symbol);
+    }
+
+    @Override
+    public Instrument changeInstrumentState(String symbol, InstrumentState state) {
+        Instrument instrument = matchingEngine.changeState(symbol, state);
+        publishInstrument(instrument);
+        if (state == InstrumentState.PRE_OPEN) {
+            publishAuction(matchingEngine.indicateAuction(symbol));
+        }
+        return instrument;
+    }
+
+    private void publishInstrument(Instrument instrument) {
+        messagingTemplate.convertAndSend("/topic/instruments", instrument);
+    }
+
+    private void publishAuction(AuctionIndication auction) {
+        if (auction != null) {
+            messagingTemplate.convertAndSend("/topic/auction", auction);
+        }
+    }
+
+    /**
+     * Live orders are answered from the engine's in-memory index; only orders that are no longer resting (filled,
+     * cancelled, or placed before this node started) are read from the database.
+     */
+    @Override
+    public Order getOrder(Long orderId) {
+        return matchingEngine.findLiveOrder(orderId)
+                .or(() -> orderRepository.findById(orderId))
+                .orElseThrow(() -> new EntityNotFoundException("Order not found: " + orderId));
+    }
+
+    /**
+     * The cancellations of each book reach the event stream as one event of CANCELLED states, like the fills of an
+     * order: one persistence batch and one cache update per book.
+     */
+    @Override
+    public MassCancelResult cancelOrders(String account, String symbol, Side side) {
+        Collection<String> symbols = symbol != null
+                ? List.of(instrumentRegistry.require(symbol).symbol())
+                : matchingEngine.symbolsWithLiveOrders(account);
+        List<Long> cancelledOrderIds = new ArrayList<>();
+        for (String bookSymbol : symbols) {
+            MatchResult result = matchingEngine.cancelOrders(bookSymbol, account, side);
+            result.fills().forEach(cancellation -> cancelledOrderIds.add(cancellation.order().getId()));
+        }
+        return new MassCancelResult(account, cancelledOrderIds);
+    }
+
+    /**
+     * Without a book here or a snapshot in Redis, no order rests for the symbol on this node: the book is empty.
+     */
     @Override
     public OrderBookDto getOrderBook(String symbol) {
-        return orderBookCache.getOrderBook(symbol).orElseGet(() -> {
-            log.warn("Cache miss for order book: {}. Rebuilding from engine state.", symbol);
-            OrderBookDto dto = buildOrderBookDto(symbol);
-            orderBookCache.updateOrderBook(symbol, dto);
-            return dto;
-        });
+        return findOrderBook(symbol).orElseGet(() -> emptyBook(symbol));
     }
 
-    private void updateCachedOrderBook(String symbol) {
-        OrderBookDto dto = buildOrderBookDto(symbol);
+    /**
+     * A snapshot is only written back to Redis when it was rebuilt from this node's own book; a node without the book
+     * never caches an empty one over the owner's.
+     */
+    @Override
+    public Optional<OrderBookDto> findOrderBook(String symbol) {
+        instrumentRegistry.require(symbol);
+        Optional<OrderBookDto> cached = orderBookCache.getOrderBook(symbol);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        OrderBookDto dto = matchingEngine.readBook(symbol, b -> OrderBookViews.fromBook(b, OrderBookViews.FULL_DEPTH, null));
+        if (dto == null) {
+            return Optional.empty();
+        }
+        log.warn("Cache miss for order book: {}. Rebuilt from engine state.", symbol);
         orderBookCache.updateOrderBook(symbol, dto);
-        log.info("Updated order book cache for symbol: {}", symbol);
+        return Optional.of(dto);
+    }
+
+    /**
+     * Serves the book from the near cache when this node holds it: a hit is a sequence comparison and returns bytes
+     * encoded earlier, so repeated reads of an unchanged book do no Jackson work and no Redis round trip.
+     * The full book and the common depths are cached; other depths and grouped views are built on demand from the
+     * per-level totals, touching only the levels they return.
+     * Only a book this node has never traded (cold start, or a symbol matched elsewhere), or one dropped while it was
+     * being read, falls back to Redis.
+     */
+    @Override
+    public byte[] getOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+        return findOrderBookJson(symbol, depth, grouping).orElseGet(() ->
+                encode(OrderBookViews.fromSnapshot(emptyBook(symbol), depth == null ? OrderBookViews.FULL_DEPTH : depth, grouping)));
     }
 
-    private OrderBookDto buildOrderBookDto(String symbol) {
+    @Override
+    public Optional<byte[]> findOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+        instrumentRegistry.require(symbol);
+        if (depth != null && depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1");
+        }
+        if (grouping != null && grouping.signum() <= 0) {
+            throw new IllegalArgumentException("grouping must be positive");
+        }
+        int levels = depth == null ? OrderBookViews.FULL_DEPTH : depth;
+
         OrderBook book = matchingEngine.getOrderBook(symbol);
         if (book == null) {
-            return new OrderBookDto(symbol, List.of(), List.of());
+            return encodeFromCache(symbol, levels, grouping);
         }
 
-        List<OrderBookDto.PriceLevel> bids = book.getBids().entrySet().stream()
-                .map(entry -> new OrderBookDto.PriceLevel(
-                        entry.getKey(),
-                        entry.getValue().stream().map(Order::getRemainingQuantity).reduce(BigDecimal.ZERO, BigDecimal::add)
-                )).collect(Collectors.toList());
-        
-        List<OrderBookDto.PriceLevel> asks = book.getAsks().entrySet().stream()
-                .map(entry -> new OrderBookDto.PriceLevel(
-                        entry.getKey(),
-                        entry.getValue().stream().map(Order::getRemainingQuantity).reduce(BigDecimal.ZERO, BigDecimal::add)
-                )).collect(Collectors.toList());
+        int view = cachedView(levels, grouping);
+        if (view >= 0) {
+            byte[] cached = orderBookNearCache.get(symbol, view, book.getSequence());
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        // Build the view and capture its sequence under the same lock, so the two always agree
+        VersionedOrderBook snapshot = matchingEngine.readBook(symbol,
+                b -> new VersionedOrderBook(b.getSequence(), OrderBookViews.fromBook(b, levels, grouping)));
+        if (snapshot == null) {
+            // The book was dropped (e.g. its lease was lost) after the lookup above
+            return encodeFromCache(symbol, levels, grouping);
+        }
+        byte[] body = encode(snapshot.orderBook());
+        if (view >= 0) {
+            orderBookNearCache.put(symbol, view, snapshot.sequence(), body);
+        }
+        return Optional.of(body);
+    }
+
+    private Optional<byte[]> encodeFromCache(String symbol, int levels, BigDecimal grouping) {
+        return findOrderBook(symbol).map(snapshot -> encode(OrderBookViews.fromSnapshot(snapshot, levels, grouping)));
+    }
+
+    /**
+     * @return The near cache view index for an ungrouped view of a commonly requested depth, or -1 if not cached.
+     */
+    private static int cachedView(int depth, BigDecimal grouping) {
+        if (grouping != null) {
+            return -1;
+        }
+        for (int i = 0; i < CACHED_DEPTHS.length; i++) {
+            if (CACHED_DEPTHS[i] == depth) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] encode(OrderBookDto orderBook) {
+        try {
+            return objectMapper.writeValueAsBytes(orderBook);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode order book for " + orderBook.getSymbol(), e);
+        }
+    }
+
+    private static OrderBookDto emptyBook(String symbol) {
+        return new OrderBookDto(symbol, List.of(), List.of());
+    }
 
-        return new OrderBookDto(symbol, bids, asks);
+    private record VersionedOrderBook(long sequence, OrderBookDto orderBook) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.example.exchange.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import com.example.exchange.core.matching.FillReport;
+import com.example.exchange.domain.OrderStatus;
+
+/**
+ * The state of one order to be written to the database: only the fields that change after the order is inserted,
+ * plus the partition key of its row.
+ *
+ * @param orderId           The order id.
+ * @param symbol            The order's symbol, part of its partition key.
+ * @param timestamp         The order's creation time, part of its partition key.
+ * @param remainingQuantity The order's open quantity.
+ * @param status            The order's status.
+ */
+public record OrderStateUpdate(Long orderId, String symbol, Instant timestamp, BigDecimal remainingQuantity, OrderStatus status) {
+
+    public static OrderStateUpdate from(FillReport fill) {
+        return new OrderStateUpdate(fill.order().getId(), fill.order().getSymbol(), fill.order().getTimestamp(),
+                fill.remainingQuantity(), fill.status());
+    }
+
+    /**
+     * An order's open quantity only ever shrinks, and a filled or cancelled order never changes again, so of two
+     * updates to the same order the one with less open quantity (or, at equal quantity, the terminal one) is newer,
+     * whatever order they arrived in.
+     *
+     * @return True if this update describes a later state of the order than the other one.
+     */
+    public boolean supersedes(OrderStateUpdate other) {
+        int byQuantity = remainingQuantity.compareTo(other.remainingQuantity);
+        if (byQuantity != 0) {
+            return byQuantity < 0;
+        }
+        return isTerminal(status) && !isTerminal(other.status);
+    }
+
+    private static boolean isTerminal(OrderStatus status) {
+        return status == OrderStatus.FILLED || status == OrderStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.exchange.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.exchange.core.matching.FillReport;
+import com.example.exchange.domain.Trade;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * One unit of work for the persistence pipeline: trades to insert and order states to update, all for one symbol.
+ * Order updates are coalesced, so a batch holds at most one (the newest) update per order. This is also the format
+ * of the files written to the spill directory.
+ *
+ * @param symbol       The symbol every trade and order belongs to; batches are routed by it.
+ * @param trades       Trades to insert.
+ * @param orderUpdates Order states to apply, at most one per order.
+ */
+public record PersistenceBatch(String symbol, List<Trade> trades, List<OrderStateUpdate> orderUpdates) {
+
+    /**
+     * Builds the batch for one matched order. Every order that traded has at least one fill report; its last state
+     * becomes the update. An order without fills is still in the state it was inserted with and needs no update.
+     * The trades are copied: the originals belong to the engine event, which other consumers read concurrently, and
+     * saving a trade writes its generated id.
+     */
+    public static PersistenceBatch of(String symbol, List<Trade> trades, List<FillReport> fills) {
+        Map<Long, OrderStateUpdate> updates = new LinkedHashMap<>();
+        for (FillReport fill : fills) {
+            coalesce(updates, OrderStateUpdate.from(fill));
+        }
+        return new PersistenceBatch(symbol, trades.stream().map(Trade::copy).toList(), List.copyOf(updates.values()));
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return trades.isEmpty() && orderUpdates.isEmpty();
+    }
+
+    /**
+     * Adds an update to a map of updates by order id, keeping whichever update of the order is newer.
+     */
+    static void coalesce(Map<Long, OrderStateUpdate> updates, OrderStateUpdate update) {
+        updates.merge(update.orderId(), update, (current, candidate) -> candidate.supersedes(current) ? candidate : current);
+    }
+}
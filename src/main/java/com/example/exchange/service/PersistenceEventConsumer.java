@@ -0,0 +1,38 @@
+package com.example.exchange.service;
+
+import com.example.exchange.core.events.EngineEvent;
+import com.example.exchange.core.events.EngineEventConsumer;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.metrics.LatencyStage;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands the trades and the final state of every order that changed to the persistence pipeline.
+ * The fill reports were captured under the symbol lock, so nothing is reloaded from the database. Only the enqueue
+ * happens on this thread; the writes run on the PersistenceService workers, whose backpressure policy applies here.
+ * This consumer does not opt into loss, so it gates the engine event ring: if it stops reading (BLOCK policy with a
+ * full queue), the ring fills and the engine waits for it rather than overwrite events it has not persisted.
+ */
+@Component
+public class PersistenceEventConsumer implements EngineEventConsumer {
+
+    private final PersistenceService persistenceService;
+    private final EngineMetrics metrics;
+
+    public PersistenceEventConsumer(PersistenceService persistenceService, EngineMetrics metrics) {
+        this.persistenceService = persistenceService;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return "persistence";
+    }
+
+    @Override
+    public void onEvent(EngineEvent event) {
+        long enqueueStart = System.nanoTime();
+        persistenceService.persistTradesAndFills(event.symbol(), event.trades(), event.fills());
+        metrics.recordLatency(LatencyStage.PERSISTENCE_ENQUEUE, System.nanoTime() - enqueueStart);
+    }
+}
@@ -1,34 +1,431 @@
 package com.example.exchange.service;
 
-import com.example.exchange.domain.Order;
+import com.example.exchange.core.matching.FillReport;
 import com.example.exchange.domain.Trade;
 import com.example.exchange.repository.OrderRepository;
 import com.example.exchange.repository.TradeRepository;
-import org.springframework.scheduling.annotation.Async;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Dedicated persistence pipeline for trades and order state changes.
+ * Design Principle (Bounded, Observable Background Work): Instead of the shared @Async pool, batches go to a fixed set
+ * of worker threads through bounded queues, so the number of database connections in use never exceeds the number of
+ * workers and a burst cannot grow an unbounded backlog. When a queue is full the configured
+ * {@link BackpressurePolicy} decides whether the caller waits, the batch is dropped, or it is spilled to local disk.
+ *
+ * - Batches are routed by symbol, so every update to a given order goes through the same worker, in order.
+ * - A worker drains everything waiting in its queue and writes it in one transaction; several updates to the same
+ *   order collapse into one.
+ * - Order updates are conditional (see {@link OrderRepository#applyState}), so applying a stale or repeated update is
+ *   harmless. That makes retries safe: a failed write is retried with exponential backoff and, once attempts run out,
+ *   spilled to disk and replayed later. Delivery is at-least-once; a trade can be inserted twice only if a commit
+ *   succeeds but is reported as failed.
+ * - One bad batch must not hold back the others it was drained with. When the database rejects the data of a group
+ *   (or retries run out), the batches are written one by one; only those that still fail are spilled. A batch counts
+ *   as rejected when its own write fails with a data error, or while other batches are written fine; after
+ *   max-rejections it is moved to the dead-letter directory instead of being replayed again. A database outage
+ *   rejects nothing, so no batch is dead-lettered for it.
+ */
 @Service
 public class PersistenceService {
 
+    private static final Logger log = LoggerFactory.getLogger(PersistenceService.class);
+
+    private static final int MAX_BATCHES_PER_WRITE = 256;
+    private static final int REPLAY_FILES_PER_RUN = 64;
+    private static final long IDLE_POLL_MILLIS = 200;
+
     private final TradeRepository tradeRepository;
     private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PersistenceSpillStore spillStore;
+    private final BackpressurePolicy policy;
+    private final int maxAttempts;
+    private final int maxRejections;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final List<ArrayBlockingQueue<Pending>> shards = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ReentrantLock replayLock = new ReentrantLock();
+    private volatile boolean running;
+
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final Timer lag;
 
-    public PersistenceService(TradeRepository tradeRepository, OrderRepository orderRepository) {
+    public PersistenceService(TradeRepository tradeRepository,
+                              OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${exchange.persistence.workers:4}") int workerCount,
+                              @Value("${exchange.persistence.queue-capacity:8192}") int queueCapacity,
+                              @Value("${exchange.persistence.backpressure-policy:SPILL}") BackpressurePolicy policy,
+                              @Value("${exchange.persistence.spill-directory:persistence-spill}") String spillDirectory,
+                              @Value("${exchange.persistence.max-attempts:5}") int maxAttempts,
+                              @Value("${exchange.persistence.initial-backoff-ms:50}") long initialBackoffMillis,
+                              @Value("${exchange.persistence.max-backoff-ms:5000}") long maxBackoffMillis,
+                              @Value("${exchange.persistence.max-rejections:3}") int maxRejections) {
+        if (workerCount < 1 || queueCapacity < workerCount || maxAttempts < 1 || maxRejections < 1) {
+            throw new IllegalArgumentException("exchange.persistence needs at least one worker, a queue slot per worker, one attempt and one rejection");
+        }
         this.tradeRepository = tradeRepository;
         this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spillStore = new PersistenceSpillStore(Path.of(spillDirectory), objectMapper);
+        this.policy = policy;
+        this.maxAttempts = maxAttempts;
+        this.maxRejections = maxRejections;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        for (int i = 0; i < workerCount; i++) {
+            shards.add(new ArrayBlockingQueue<>(queueCapacity / workerCount));
+        }
+
+        Gauge.builder("exchange.persistence.queue.depth", shards, PersistenceService::queuedBatches)
+                .description("Batches waiting for a persistence worker")
+                .register(meterRegistry);
+        Gauge.builder("exchange.persistence.oldest.age", this, PersistenceService::oldestQueuedAgeSeconds)
+                .description("Age of the oldest batch waiting for a persistence worker")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("exchange.persistence.spill.pending", spillStore, PersistenceSpillStore::pendingCount)
+                .description("Batches in the spill directory waiting to be replayed")
+                .register(meterRegistry);
+        this.lag = Timer.builder("exchange.persistence.lag")
+                .description("Time from a batch being submitted to its transaction committing")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.persistence.shed", shed, AtomicLong::get)
+                .description("Batches dropped because their queue was full (SHED policy)")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.persistence.spilled", spilled, AtomicLong::get)
+                .description("Batches written to the spill directory")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.persistence.retries", retries, AtomicLong::get)
+                .description("Failed write attempts that were retried")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.persistence.lost", lost, AtomicLong::get)
+                .description("Batches that could be neither written nor spilled")
+                .register(meterRegistry);
+        FunctionCounter.builder("exchange.persistence.dead.lettered", deadLettered, AtomicLong::get)
+                .description("Batches the database kept rejecting, moved to the dead-letter directory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        spillStore.open();
+        running = true;
+        for (int i = 0; i < shards.size(); i++) {
+            ArrayBlockingQueue<Pending> shard = shards.get(i);
+            Thread worker = new Thread(() -> runWorker(shard), "persistence-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Stops accepting work into the queues, lets the workers write out what is already queued, and spills anything
+     * still left when they do not finish in time.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        List<Pending> leftover = new ArrayList<>();
+        shards.forEach(shard -> shard.drainTo(leftover));
+        leftover.forEach(this::spill);
+    }
+
+    /**
+     * Submits the outcome of matching one order. Returns as soon as the batch is queued (or, when the queue is full,
+     * handled according to the backpressure policy; under BLOCK the caller, the persistence event consumer, waits).
+     *
+     * @param symbol The symbol of the matched order.
+     * @param trades The trades generated.
+     * @param fills  The engine's fill reports; the last state of each order that traded is written.
+     */
+    public void persistTradesAndFills(String symbol, List<Trade> trades, List<FillReport> fills) {
+        PersistenceBatch batch = PersistenceBatch.of(symbol, trades, fills);
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    private void submit(PersistenceBatch batch) {
+        Pending pending = new Pending(batch, System.nanoTime(), 0);
+        ArrayBlockingQueue<Pending> shard = shardFor(batch.symbol());
+        if (!running) {
+            // Shutting down: the workers may already be gone
+            spill(pending);
+            return;
+        }
+        if (shard.offer(pending)) {
+            return;
+        }
+        switch (policy) {
+            case BLOCK -> {
+                try {
+                    shard.put(pending);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    spill(pending);
+                }
+            }
+            case SHED -> shed.incrementAndGet();
+            case SPILL -> spill(pending);
+        }
+    }
+
+    private void runWorker(ArrayBlockingQueue<Pending> shard) {
+        List<Pending> drained = new ArrayList<>(MAX_BATCHES_PER_WRITE);
+        while ((running || !shard.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            try {
+                Pending first = shard.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpilled();
+                    continue;
+                }
+                drained.add(first);
+                shard.drainTo(drained, MAX_BATCHES_PER_WRITE - 1);
+                writeWithRetry(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Never let the worker die; anything it held has already been written or spilled
+                log.error("Unexpected error in persistence worker", e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the drained batches as one transaction, retrying with backoff while the failure looks transient. If the
+     * database rejects the data, or the attempts run out, the batches are written one by one instead.
+     */
+    private void writeWithRetry(List<Pending> drained) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(drained);
+                recordLag(drained);
+                return;
+            } catch (RuntimeException e) {
+                if (rejectsData(e) || attempt >= maxAttempts) {
+                    log.warn("Persisting {} batches failed after {} attempts: {}", drained.size(), attempt, e.toString());
+                    writeEach(drained, e);
+                    return;
+                }
+                retries.incrementAndGet();
+                log.warn("Persisting {} batches failed (attempt {} of {}), retrying in {} ms: {}",
+                        drained.size(), attempt, maxAttempts, backoff, e.toString());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drained.forEach(this::spill);
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxBackoffMillis);
+        }
+    }
+
+    /**
+     * Writes each batch in its own transaction, so the healthy ones commit and only the failing ones are spilled.
+     * A failure counts as a rejection of the batch if it is a data error or if another batch was written meanwhile
+     * (the database is evidently up); otherwise the whole database is failing and the batch is spilled as it was.
+     *
+     * @param groupFailure Why the group write failed; stands for the batch's own failure when there is only one.
+     */
+    private void writeEach(List<Pending> drained, RuntimeException groupFailure) {
+        if (drained.size() == 1) {
+            failed(drained.get(0), groupFailure, false);
+            return;
+        }
+        Map<Pending, RuntimeException> failures = new LinkedHashMap<>();
+        for (Pending pending : drained) {
+            try {
+                write(List.of(pending));
+                recordLag(List.of(pending));
+            } catch (RuntimeException e) {
+                failures.put(pending, e);
+            }
+        }
+        boolean databaseUp = failures.size() < drained.size();
+        failures.forEach((pending, e) -> failed(pending, e, databaseUp));
     }
 
-    @Async
-    @Transactional
-    public void persistTradesAndOrders(List<Trade> trades, List<Order> updatedOrders) {
-        if (trades != null && !trades.isEmpty()) {
-            tradeRepository.saveAll(trades);
+    private void failed(Pending pending, RuntimeException failure, boolean databaseUp) {
+        PersistenceBatch batch = pending.batch();
+        int rejections = pending.rejections() + (databaseUp || rejectsData(failure) ? 1 : 0);
+        if (rejections < maxRejections) {
+            log.warn("Spilling a persistence batch for {} (rejected {} of {} times): {}",
+                    batch.symbol(), rejections, maxRejections, failure.toString());
+            spill(new Pending(batch, pending.submittedNanos(), rejections));
+            return;
         }
-        if (updatedOrders != null && !updatedOrders.isEmpty()) {
-            orderRepository.saveAll(updatedOrders);
+        log.error("Dead-lettering a persistence batch for {} ({} trades, {} order updates) rejected {} times",
+                batch.symbol(), batch.trades().size(), batch.orderUpdates().size(), rejections, failure);
+        try {
+            spillStore.deadLetter(batch, rejections);
+            deadLettered.incrementAndGet();
+        } catch (IOException e) {
+            lost.incrementAndGet();
+            log.error("Failed to dead-letter a persistence batch for {}; it is lost", batch.symbol(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @return True if the database refused the data itself (e.g. a constraint violation), so writing the same batch
+     *         again cannot succeed. Connection and resource failures are not rejections.
+     */
+    private static boolean rejectsData(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private void recordLag(List<Pending> written) {
+        long committed = System.nanoTime();
+        written.forEach(pending -> lag.record(committed - pending.submittedNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Writes the drained batches in one transaction, coalescing all updates to the same order.
+     */
+    private void write(List<Pending> drained) {
+        List<Trade> trades = new ArrayList<>();
+        Map<Long, OrderStateUpdate> updates = new LinkedHashMap<>();
+        for (Pending pending : drained) {
+            trades.addAll(pending.batch().trades());
+            pending.batch().orderUpdates().forEach(update -> PersistenceBatch.coalesce(updates, update));
+        }
+        // A rolled-back attempt leaves generated ids on the trades (the batch's own copies); clear them so the retry
+        // inserts them again
+        trades.forEach(trade -> trade.setId(null));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!trades.isEmpty()) {
+                tradeRepository.saveAll(trades);
+            }
+            for (OrderStateUpdate update : updates.values()) {
+                orderRepository.applyState(update.orderId(), update.symbol(), update.timestamp(),
+                        update.remainingQuantity(), update.status());
+            }
+        });
+    }
+
+    /**
+     * Moves spilled batches back into the queues while there is room. Called by idle workers; one at a time.
+     * A file is deleted only after its batch is queued, so a crash in between replays it twice, never zero times.
+     */
+    private void replaySpilled() {
+        if (!running || spillStore.pendingCount() == 0 || !replayLock.tryLock()) {
+            return;
+        }
+        try {
+            for (Path file : spillStore.list(REPLAY_FILES_PER_RUN)) {
+                PersistenceSpillStore.SpilledBatch spilled = spillStore.read(file);
+                if (spilled == null) {
+                    continue;
+                }
+                PersistenceBatch batch = spilled.batch();
+                if (!shardFor(batch.symbol()).offer(new Pending(batch, System.nanoTime(), spilled.rejections()))) {
+                    return;
+                }
+                spillStore.delete(file);
+            }
+        } catch (IOException e) {
+            log.error("Failed to replay spilled persistence batches", e);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private void spill(Pending pending) {
+        PersistenceBatch batch = pending.batch();
+        try {
+            spillStore.spill(batch, pending.rejections());
+            spilled.incrementAndGet();
+        } catch (IOException e) {
+            lost.incrementAndGet();
+            log.error("Failed to spill a persistence batch for {} ({} trades, {} order updates); it is lost",
+                    batch.symbol(), batch.trades().size(), batch.orderUpdates().size(), e);
+        }
+    }
+
+    private ArrayBlockingQueue<Pending> shardFor(String symbol) {
+        return shards.get(Math.floorMod(symbol.hashCode(), shards.size()));
+    }
+
+    private static double queuedBatches(List<ArrayBlockingQueue<Pending>> shards) {
+        return shards.stream().mapToInt(ArrayBlockingQueue::size).sum();
+    }
+
+    private double oldestQueuedAgeSeconds() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (ArrayBlockingQueue<Pending> shard : shards) {
+            Pending head = shard.peek();
+            if (head != null) {
+                oldest = Math.max(oldest, now - head.submittedNanos());
+            }
+        }
+        return oldest / 1e9;
+    }
+
+    // Visible for tests
+    long getShedCount() {
+        return shed.get();
+    }
+
+    long getSpilledCount() {
+        return spilled.get();
+    }
+
+    int getSpillPendingCount() {
+        return spillStore.pendingCount();
+    }
+
+    long getDeadLetteredCount() {
+        return deadLettered.get();
+    }
+
+    /**
+     * @param rejections How many times the database has rejected the batch (see {@link #failed}).
+     */
+    private record Pending(PersistenceBatch batch, long submittedNanos, int rejections) {
+    }
+}
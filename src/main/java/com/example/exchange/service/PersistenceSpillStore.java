@@ -0,0 +1,123 @@
+package com.example.exchange.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Local-disk overflow for the persistence pipeline: one JSON file per {@link PersistenceBatch}, together with the
+ * number of times the database has rejected it.
+ * Files are written to a temporary name and atomically renamed, so a crash never leaves a half-written batch behind,
+ * and their names sort in spill order. A file that cannot be decoded is renamed with a ".corrupt" suffix and skipped.
+ * Batches the pipeline gives up on are moved to the "dead-letter" subdirectory, which is never replayed.
+ */
+class PersistenceSpillStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceSpillStore.class);
+
+    private static final String PREFIX = "batch-";
+    private static final String SUFFIX = ".json";
+    private static final String DEAD_LETTER_DIRECTORY = "dead-letter";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong nextFileNumber = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    PersistenceSpillStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates the directory and picks up files spilled before a restart.
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory.resolve(DEAD_LETTER_DIRECTORY));
+        List<Path> existing = list(Integer.MAX_VALUE);
+        pending.set(existing.size());
+        // Millisecond prefix keeps names ordered across restarts; the counter orders files within one run
+        nextFileNumber.set(System.currentTimeMillis() * 1000);
+        if (!existing.isEmpty()) {
+            log.warn("Found {} spilled persistence batches in {}; they will be replayed", existing.size(), directory);
+        }
+    }
+
+    /**
+     * @param rejections How many times the database has rejected the batch so far.
+     */
+    void spill(PersistenceBatch batch, int rejections) throws IOException {
+        write(directory, new SpilledBatch(batch, rejections));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Sets a batch aside for good, for an operator to inspect and repair.
+     */
+    void deadLetter(PersistenceBatch batch, int rejections) throws IOException {
+        write(directory.resolve(DEAD_LETTER_DIRECTORY), new SpilledBatch(batch, rejections));
+    }
+
+    private void write(Path target, SpilledBatch spilled) throws IOException {
+        String name = PREFIX + String.format("%020d", nextFileNumber.getAndIncrement()) + SUFFIX;
+        Path temporary = target.resolve(name + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), spilled);
+        Files.move(temporary, target.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return Up to {@code max} spilled files, oldest first.
+     */
+    List<Path> list(int max) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .limit(max)
+                    .toList();
+        }
+    }
+
+    /**
+     * @return The batch in the file, or null if the file is corrupt (it is then set aside).
+     */
+    SpilledBatch read(Path file) throws IOException {
+        try {
+            return objectMapper.readValue(file.toFile(), SpilledBatch.class);
+        } catch (JacksonException e) {
+            log.error("Setting aside unreadable spill file {}", file, e);
+            Files.move(file, file.resolveSibling(file.getFileName() + ".corrupt"));
+            pending.decrementAndGet();
+            return null;
+        }
+    }
+
+    void delete(Path file) throws IOException {
+        Files.delete(file);
+        pending.decrementAndGet();
+    }
+
+    int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @param batch      The spilled batch.
+     * @param rejections How many times the database has rejected it.
+     */
+    record SpilledBatch(PersistenceBatch batch, int rejections) {
+    }
+}
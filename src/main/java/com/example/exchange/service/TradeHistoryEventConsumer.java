@@ -0,0 +1,33 @@
+package com.example.exchange.service;
+
+import com.example.exchange.core.events.EngineEvent;
+import com.example.exchange.core.events.EngineEventConsumer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds every trade into trade history and candles.
+ * Candles are saved, so a skipped trade would leave a wrong bar in the database for good. This consumer does not opt
+ * into loss: it gates the engine event ring like persistence does. It only updates the in-memory aggregator (no
+ * symbol lock, no I/O), so it keeps up with the engine; the bars are published and saved by the scheduled flush.
+ */
+@Component
+public class TradeHistoryEventConsumer implements EngineEventConsumer {
+
+    private final MarketDataService marketDataService;
+
+    public TradeHistoryEventConsumer(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @Override
+    public String name() {
+        return "trade-history";
+    }
+
+    @Override
+    public void onEvent(EngineEvent event) {
+        if (!event.trades().isEmpty()) {
+            marketDataService.onTrades(event.trades());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+-- =====================================================================================================================
+-- Managed schema for orders, trades and candles.
+--
+-- orders and trades are partitioned by month on "timestamp" (RANGE) and each month by symbol (HASH, 4 buckets), so
+-- inserts only touch the small, current-month indexes, time-bounded queries prune to the partitions they need, and
+-- old months can be detached and archived without deleting rows one by one.
+--
+-- A unique key on a partitioned table must contain every partition key column, so the primary keys are
+-- (id, "timestamp", symbol). Ids still come from a single sequence per table and are unique on their own.
+--
+-- Databases previously created by Hibernate's ddl-auto=update are converted in place: the old tables are renamed,
+-- their rows are copied into the partitioned tables and the sequences continue after the highest existing id.
+-- =====================================================================================================================
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Partition management
+-- ---------------------------------------------------------------------------------------------------------------------
+
+-- Creates the partition of one month (UTC boundaries), sub-partitioned by symbol hash. Idempotent.
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, month_start DATE, hash_buckets INT) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := format('%s_%s', parent, to_char(month_start, 'YYYY_MM'));
+    range_start TIMESTAMPTZ := date_trunc('month', month_start)::timestamp AT TIME ZONE 'UTC';
+    range_end TIMESTAMPTZ := (date_trunc('month', month_start) + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L) PARTITION BY HASH (symbol)',
+                   partition_name, parent, range_start, range_end);
+    FOR bucket IN 0 .. hash_buckets - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       partition_name || '_h' || bucket, partition_name, hash_buckets, bucket);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates the monthly partitions from the month of from_date through months_ahead months after the current month.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent TEXT, from_date DATE, months_ahead INT, hash_buckets INT) RETURNS VOID AS $$
+DECLARE
+    partition_month DATE := date_trunc('month', from_date)::date;
+    last_month DATE := (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => months_ahead))::date;
+BEGIN
+    WHILE partition_month <= last_month LOOP
+        PERFORM create_monthly_partition(parent, partition_month, hash_buckets);
+        partition_month := (partition_month + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches every monthly partition that ends on or before the cutoff and moves it (with its hash sub-partitions) to
+-- the "archive" schema, where it can be dumped and dropped. Returns the number of months archived.
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE OR REPLACE FUNCTION archive_partitions_before(parent TEXT, cutoff DATE) RETURNS INT AS $$
+DECLARE
+    month_partition RECORD;
+    sub_partition RECORD;
+    archived INT := 0;
+BEGIN
+    FOR month_partition IN
+        SELECT child.relname AS name
+        FROM pg_inherits inh
+        JOIN pg_class child ON child.oid = inh.inhrelid
+        JOIN pg_class parent_table ON parent_table.oid = inh.inhparent
+        JOIN pg_namespace ns ON ns.oid = parent_table.relnamespace
+        WHERE parent_table.relname = parent
+          AND ns.nspname = current_schema()
+          AND child.relname ~ ('^' || parent || '_[0-9]{4}_[0-9]{2}$')
+          AND to_date(right(child.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY child.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, month_partition.name);
+        FOR sub_partition IN
+            SELECT child.relname AS name
+            FROM pg_inherits inh
+            JOIN pg_class child ON child.oid = inh.inhrelid
+            WHERE inh.inhparent = to_regclass(month_partition.name)
+        LOOP
+            EXECUTE format('ALTER TABLE %I SET SCHEMA archive', sub_partition.name);
+        END LOOP;
+        EXECUTE format('ALTER TABLE %I SET SCHEMA archive', month_partition.name);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Move tables created by ddl-auto out of the way (their primary key indexes would clash with the new ones; their
+-- identity sequences keep the old names, which is why the new sequences are named differently)
+-- ---------------------------------------------------------------------------------------------------------------------
+DO $$
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        ALTER TABLE orders RENAME TO orders_unpartitioned;
+        ALTER INDEX IF EXISTS orders_pkey RENAME TO orders_unpartitioned_pkey;
+    END IF;
+    IF to_regclass('trades') IS NOT NULL THEN
+        ALTER TABLE trades RENAME TO trades_unpartitioned;
+        ALTER INDEX IF EXISTS trades_pkey RENAME TO trades_unpartitioned_pkey;
+    END IF;
+END $$;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- orders
+-- ---------------------------------------------------------------------------------------------------------------------
+CREATE SEQUENCE order_id_seq;
+
+CREATE TABLE orders (
+    id                 BIGINT                   NOT NULL DEFAULT nextval('order_id_seq'),
+    symbol             VARCHAR(255)             NOT NULL,
+    side               VARCHAR(255)             NOT NULL,
+    order_type         VARCHAR(255)             NOT NULL,
+    status             VARCHAR(255)             NOT NULL,
+    price              NUMERIC(18, 8)           NOT NULL,
+    quantity           NUMERIC(18, 8)           NOT NULL,
+    remaining_quantity NUMERIC(18, 8)           NOT NULL,
+    "timestamp"        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id, "timestamp", symbol)
+) PARTITION BY RANGE ("timestamp");
+
+ALTER SEQUENCE order_id_seq OWNED BY orders.id;
+
+-- Open orders by symbol (e.g. rebuilding books): a partial index stays small because most orders end up filled
+CREATE INDEX orders_open_by_symbol_idx ON orders (symbol, "timestamp") WHERE status IN ('OPEN', 'PARTIALLY_FILLED');
+
+-- Safety net for rows outside every monthly range; the maintenance job keeps months ahead, so it should stay empty
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- trades
+-- ---------------------------------------------------------------------------------------------------------------------
+CREATE SEQUENCE trade_id_seq;
+
+CREATE TABLE trades (
+    id             BIGINT                   NOT NULL DEFAULT nextval('trade_id_seq'),
+    symbol         VARCHAR(255)             NOT NULL,
+    buy_order_id   BIGINT                   NOT NULL,
+    sell_order_id  BIGINT                   NOT NULL,
+    price          NUMERIC(18, 8)           NOT NULL,
+    quantity       NUMERIC(18, 8)           NOT NULL,
+    "timestamp"    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id, "timestamp", symbol)
+) PARTITION BY RANGE ("timestamp");
+
+ALTER SEQUENCE trade_id_seq OWNED BY trades.id;
+
+-- Trade history by symbol and time
+CREATE INDEX trades_symbol_time_idx ON trades (symbol, "timestamp");
+
+CREATE TABLE trades_default PARTITION OF trades DEFAULT;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Monthly partitions, then copy legacy rows
+-- ---------------------------------------------------------------------------------------------------------------------
+DO $$
+DECLARE
+    oldest DATE := (now() AT TIME ZONE 'UTC')::date;
+    legacy_oldest DATE;
+BEGIN
+    IF to_regclass('orders_unpartitioned') IS NOT NULL THEN
+        EXECUTE 'SELECT min("timestamp" AT TIME ZONE ''UTC'')::date FROM orders_unpartitioned' INTO legacy_oldest;
+        oldest := least(oldest, coalesce(legacy_oldest, oldest));
+    END IF;
+    IF to_regclass('trades_unpartitioned') IS NOT NULL THEN
+        EXECUTE 'SELECT min("timestamp" AT TIME ZONE ''UTC'')::date FROM trades_unpartitioned' INTO legacy_oldest;
+        oldest := least(oldest, coalesce(legacy_oldest, oldest));
+    END IF;
+
+    PERFORM ensure_monthly_partitions('orders', oldest, 3, 4);
+    PERFORM ensure_monthly_partitions('trades', oldest, 3, 4);
+
+    IF to_regclass('orders_unpartitioned') IS NOT NULL THEN
+        INSERT INTO orders (id, symbol, side, order_type, status, price, quantity, remaining_quantity, "timestamp")
+        SELECT id, symbol, side, order_type, status, price, quantity, remaining_quantity, "timestamp" FROM orders_unpartitioned;
+        PERFORM setval('order_id_seq', coalesce((SELECT max(id) FROM orders), 0) + 1, false);
+        DROP TABLE orders_unpartitioned;
+    END IF;
+    IF to_regclass('trades_unpartitioned') IS NOT NULL THEN
+        INSERT INTO trades (id, symbol, buy_order_id, sell_order_id, price, quantity, "timestamp")
+        SELECT id, symbol, buy_order_id, sell_order_id, price, quantity, "timestamp" FROM trades_unpartitioned;
+        PERFORM setval('trade_id_seq', coalesce((SELECT max(id) FROM trades), 0) + 1, false);
+        DROP TABLE trades_unpartitioned;
+    END IF;
+END $$;
+
+-- ---------------------------------------------------------------------------------------------------------------------
+-- candles (one row per closed bar; small enough not to need partitioning)
+-- ---------------------------------------------------------------------------------------------------------------------
+-- Increment matches the entity's allocationSize so Hibernate can hand out ids in blocks
+CREATE SEQUENCE IF NOT EXISTS candles_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS candles (
+    id           BIGINT                      NOT NULL PRIMARY KEY,
+    symbol       VARCHAR(255)                NOT NULL,
+    bar_interval VARCHAR(255)                NOT NULL,
+    open_time    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    open         NUMERIC(18, 8)              NOT NULL,
+    high         NUMERIC(18, 8)              NOT NULL,
+    low          NUMERIC(18, 8)              NOT NULL,
+    close        NUMERIC(18, 8)              NOT NULL,
+    volume       NUMERIC(28, 8)              NOT NULL,
+    trade_count  BIGINT                      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS candles_symbol_interval_time_idx ON candles (symbol, bar_interval, open_time);
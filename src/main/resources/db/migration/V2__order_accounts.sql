@@ -0,0 +1,12 @@
+-- =====================================================================================================================
+-- Orders optionally belong to a trading account, so an account's open orders can be cancelled in bulk.
+--
+-- Adding a nullable column without a default only changes the catalog, so no partition is rewritten.
+-- =====================================================================================================================
+
+ALTER TABLE orders ADD COLUMN account VARCHAR(64);
+
+-- Open orders of an account, e.g. to reconcile a mass cancel. Created on the partitioned parent, so every existing
+-- and future partition gets its own copy.
+CREATE INDEX orders_open_by_account_idx ON orders (account, symbol)
+    WHERE account IS NOT NULL AND status IN ('OPEN', 'PARTIALLY_FILLED');
@@ -0,0 +1,69 @@
+package com.example.exchange.api;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CancelOnDisconnectListenerTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final CancelOnDisconnectListener listener = new CancelOnDisconnectListener(orderService);
+
+    @Test
+    void whenLastGuardedSessionOfAnAccountEnds_thenItsOrdersAreCancelled() {
+        when(orderService.cancelOrders("mm-1", null, null)).thenReturn(new MassCancelResult("mm-1", List.of(1L, 2L)));
+        listener.onConnect(connect("s1", "mm-1", "true"));
+        listener.onConnect(connect("s2", "mm-1", "true"));
+
+        listener.onDisconnect(disconnect("s1"));
+        verify(orderService, never()).cancelOrders(any(), any(), any());
+
+        listener.onDisconnect(disconnect("s2"));
+        verify(orderService).cancelOrders("mm-1", null, null);
+    }
+
+    @Test
+    void whenSessionDidNotOptIn_thenDisconnectCancelsNothing() {
+        listener.onConnect(connect("s1", "mm-1", null));
+        listener.onConnect(connect("s2", null, "true"));
+
+        listener.onDisconnect(disconnect("s1"));
+        listener.onDisconnect(disconnect("s2"));
+
+        verify(orderService, never()).cancelOrders(any(), any(), any());
+    }
+
+    private SessionConnectEvent connect(String sessionId, String account, String cancelOnDisconnect) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.CONNECT);
+        headers.setSessionId(sessionId);
+        if (account != null) {
+            headers.addNativeHeader(CancelOnDisconnectListener.ACCOUNT_HEADER, account);
+        }
+        if (cancelOnDisconnect != null) {
+            headers.addNativeHeader(CancelOnDisconnectListener.CANCEL_ON_DISCONNECT_HEADER, cancelOnDisconnect);
+        }
+        return new SessionConnectEvent(this, MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+    }
+
+    private SessionDisconnectEvent disconnect(String sessionId) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        headers.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+        return new SessionDisconnectEvent(this, message, sessionId, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+}
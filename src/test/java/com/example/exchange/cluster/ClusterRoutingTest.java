@@ -0,0 +1,459 @@
+package com.example.exchange.cluster;
+
+import com.example.exchange.api.dto.MassCancelResult;
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.core.events.EngineEvent;
+import com.example.exchange.core.events.EngineEventRing;
+import com.example.exchange.core.instrument.Instrument;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.journal.EventJournal;
+import com.example.exchange.core.matching.AuctionIndication;
+import com.example.exchange.core.matching.FillReport;
+import com.example.exchange.core.matching.MatchingEngine;
+import com.example.exchange.core.orderbook.TradingPhase;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderStatus;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs several cluster nodes in one process: each has its own matching engine and routing layer, and they forward to
+ * each other through an in-process channel instead of HTTP.
+ */
+class ClusterRoutingTest {
+
+    private static final String SYMBOL = "BTC/USD";
+    private static final String OTHER_SYMBOL = "ETH/USD";
+
+    // Stands in for the shared database sequence
+    private final AtomicLong orderIds = new AtomicLong();
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    // Nodes the in-process forwarder fails to reach
+    private final Set<String> unreachable = new HashSet<>();
+
+    @Test
+    void whenOwnershipIsStatic_thenOrdersFromEveryNodeMatchInTheOwnersBook() {
+        ClusterNodes membership = membership("node-1", "node-2", "node-3");
+        for (String id : membership.nodeIds()) {
+            addNode(id, engine -> new StaticSymbolOwnership(new ClusterNodes(id, membership.baseUrls()), Map.of()));
+        }
+        String owner = StaticSymbolOwnership.rendezvous(SYMBOL, membership.nodeIds());
+        List<String> others = membership.nodeIds().stream().filter(id -> !id.equals(owner)).toList();
+
+        nodes.get(others.get(0)).routing.placeNewOrder(request(Side.SELL, "100", "2"));
+        Order buy = nodes.get(others.get(1)).routing.placeNewOrder(request(Side.BUY, "100", "1"));
+
+        // The buy was forwarded to the owner and traded against the sell resting there
+        assertThat(buy.getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(nodes.get(owner).engine.getOrderBook(SYMBOL).getAsks().firstEntry().getValue().getTotalQuantity())
+                .isEqualByComparingTo("1");
+        others.forEach(id -> assertThat(nodes.get(id).engine.getOrderBook(SYMBOL)).isNull());
+        nodes.values().forEach(node -> assertThat(node.ownership.ownerOf(SYMBOL)).isEqualTo(owner));
+    }
+
+    @Test
+    void whenTheLeaseHolderStopsRenewing_thenAnotherNodeTakesTheSymbolOver() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryLeaseCoordinator coordinator = new InMemoryLeaseCoordinator(clock::get);
+        Duration ttl = Duration.ofSeconds(5);
+        for (String id : List.of("node-1", "node-2")) {
+            addNode(id, engine -> new LeaseSymbolOwnership(coordinator, id, ttl, clock::get, engine::removeOrderBook));
+        }
+        Node first = nodes.get("node-1");
+        Node second = nodes.get("node-2");
+
+        // node-1 sees the symbol first and leases it; node-2 forwards to it
+        Order firstSell = first.routing.placeNewOrder(request(Side.SELL, "100", "1"));
+        Order secondSell = second.routing.placeNewOrder(request(Side.SELL, "101", "1"));
+        assertThat(first.engine.getOrderBook(SYMBOL).getAsks()).hasSize(2);
+        assertThat(second.engine.getOrderBook(SYMBOL)).isNull();
+
+        // node-1 stalls past the lease expiry without renewing; node-2 takes over on its next order
+        clock.addAndGet(ttl.toMillis() + 1);
+        Order buy = second.routing.placeNewOrder(request(Side.BUY, "99", "1"));
+        assertThat(coordinator.current(SYMBOL)).map(SymbolLease::nodeId).contains("node-2");
+        assertThat(second.engine.findLiveOrder(buy.getId())).isPresent();
+
+        // When node-1 resumes, its renewal fails and it drops its book, cancelling the orders resting there so that
+        // their CANCELLED state is persisted instead of them staying open for a book no node holds
+        first.renewLeases();
+        assertThat(first.engine.getOrderBook(SYMBOL)).isNull();
+        EngineEvent dropped = first.events.get(first.events.getNextSequence() - 1);
+        assertThat(dropped.fills()).extracting(fill -> fill.order().getId(), FillReport::status)
+                .containsExactlyInAnyOrder(tuple(firstSell.getId(), OrderStatus.CANCELLED), tuple(secondSell.getId(), OrderStatus.CANCELLED));
+        assertThat(first.engine.findLiveOrder(firstSell.getId())).isEmpty();
+
+        // and it forwards new orders to the new owner
+        first.routing.placeNewOrder(request(Side.BUY, "98", "1"));
+        assertThat(second.engine.getOrderBook(SYMBOL).getBids()).hasSize(2);
+        assertThat(first.engine.getOrderBook(SYMBOL)).isNull();
+    }
+
+    @Test
+    void whenOwnershipLapsesBetweenRoutingAndMatching_thenTheEngineRejectsTheOrder() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryLeaseCoordinator coordinator = new InMemoryLeaseCoordinator(clock::get);
+        Duration ttl = Duration.ofSeconds(5);
+        for (String id : List.of("node-1", "node-2")) {
+            addNode(id, engine -> new LeaseSymbolOwnership(coordinator, id, ttl, clock::get, engine::removeOrderBook));
+        }
+        Node first = nodes.get("node-1");
+        first.routing.placeNewOrder(request(Side.SELL, "100", "1"));
+
+        // node-1 routed the next buy to itself, then stalled past its lease; node-2 took the symbol over meanwhile
+        clock.addAndGet(ttl.toMillis() + 1);
+        nodes.get("node-2").routing.placeNewOrder(request(Side.SELL, "101", "1"));
+        Order late = order(Side.BUY, "100", "1");
+        first.engine.processOrder(late);
+
+        // The stalled node did not trade against its stale book
+        assertThat(late.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(first.engine.getOrderBook(SYMBOL).getAsks()).hasSize(1);
+
+        // Nor does it recreate the book once it has been dropped
+        first.renewLeases();
+        Order later = order(Side.BUY, "100", "1");
+        first.engine.processOrder(later);
+        assertThat(later.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(first.engine.getOrderBook(SYMBOL)).isNull();
+    }
+
+    @Test
+    void whenTheEngineFencesARoutedCommand_thenRoutingFindsTheNewOwnerAndRetries() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryLeaseCoordinator coordinator = new InMemoryLeaseCoordinator(clock::get);
+        Duration ttl = Duration.ofSeconds(5);
+        addNode("node-2", engine -> new LeaseSymbolOwnership(coordinator, "node-2", ttl, clock::get, engine::removeOrderBook));
+        addNode("node-1", engine -> new StaleUntilInvalidated(
+                new LeaseSymbolOwnership(coordinator, "node-1", ttl, clock::get, engine::removeOrderBook), "node-1"));
+        nodes.get("node-2").routing.placeNewOrder(request(Side.SELL, "100", "1"));
+
+        // node-1 still routes the symbol to itself, but its engine is fenced off it
+        nodes.get("node-1").routing.startAuction(SYMBOL);
+
+        assertThat(nodes.get("node-2").engine.getOrderBook(SYMBOL).getPhase()).isEqualTo(TradingPhase.CALL);
+        assertThat(nodes.get("node-1").engine.getOrderBook(SYMBOL)).isNull();
+    }
+
+    @Test
+    void whenAnAccountIsCancelledEverywhere_thenOnlyOwnersAreAskedAndUnreachableOnesAreReported() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryLeaseCoordinator coordinator = new InMemoryLeaseCoordinator(clock::get);
+        Duration ttl = Duration.ofSeconds(5);
+        for (String id : List.of("node-1", "node-2", "node-3")) {
+            addNode(id, engine -> new LeaseSymbolOwnership(coordinator, id, ttl, clock::get, engine::removeOrderBook));
+        }
+        Order btc = nodes.get("node-1").routing.placeNewOrder(request(SYMBOL, Side.SELL, "100", "1", "mm-1"));
+
+        MassCancelResult result = nodes.get("node-3").routing.cancelOrders("mm-1", null, null);
+
+        assertThat(result.getCancelledOrderIds()).containsExactly(btc.getId());
+        assertThat(result.getFailedSymbols()).isEmpty();
+        // Looking up owners claimed nothing: the idle symbol is still unowned
+        assertThat(coordinator.current(OTHER_SYMBOL)).isEmpty();
+
+        // With the owner of one symbol unreachable, the other symbol is still cancelled and the failure reported
+        Order eth = nodes.get("node-2").routing.placeNewOrder(request(OTHER_SYMBOL, Side.BUY, "10", "1", "mm-1"));
+        Order btcAgain = nodes.get("node-1").routing.placeNewOrder(request(SYMBOL, Side.SELL, "100", "1", "mm-1"));
+        unreachable.add("node-2");
+
+        result = nodes.get("node-1").routing.cancelOrders("mm-1", null, null);
+
+        assertThat(result.getCancelledOrderIds()).containsExactly(btcAgain.getId());
+        assertThat(result.getFailedSymbols()).containsExactly(OTHER_SYMBOL);
+        assertThat(nodes.get("node-2").engine.findLiveOrder(eth.getId())).isPresent();
+    }
+
+    @Test
+    void whenANodeWithoutTheBookFindsNoSnapshot_thenItReadsTheBookFromTheOwnerWithoutClaimingSymbols() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryLeaseCoordinator coordinator = new InMemoryLeaseCoordinator(clock::get);
+        Duration ttl = Duration.ofSeconds(5);
+        for (String id : List.of("node-1", "node-2")) {
+            addNode(id, engine -> new LeaseSymbolOwnership(coordinator, id, ttl, clock::get, engine::removeOrderBook));
+        }
+        nodes.get("node-1").routing.placeNewOrder(request(Side.SELL, "100", "2"));
+
+        OrderBookDto book = nodes.get("node-2").routing.getOrderBook(SYMBOL);
+
+        assertThat(book.getAsks()).extracting(OrderBookDto.PriceLevel::getTotalQuantity)
+                .usingElementComparator(BigDecimal::compareTo).containsExactly(new BigDecimal("2"));
+        assertThat(nodes.get("node-2").engine.getOrderBook(SYMBOL)).isNull();
+
+        // Nobody owns the other symbol: it is empty everywhere, and reading it claims nothing
+        assertThat(nodes.get("node-2").routing.getOrderBook(OTHER_SYMBOL).getBids()).isEmpty();
+        assertThat(coordinator.current(OTHER_SYMBOL)).isEmpty();
+    }
+
+    @Test
+    void whenTheHolderRenewsInTime_thenItKeepsTheSymbol() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        InMemoryLeaseCoordinator coordinator = new InMemoryLeaseCoordinator(clock::get);
+        Duration ttl = Duration.ofSeconds(5);
+        for (String id : List.of("node-1", "node-2")) {
+            addNode(id, engine -> new LeaseSymbolOwnership(coordinator, id, ttl, clock::get, engine::removeOrderBook));
+        }
+
+        nodes.get("node-1").routing.placeNewOrder(request(Side.SELL, "100", "1"));
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(ttl.toMillis() / 3);
+            nodes.get("node-1").renewLeases();
+        }
+        nodes.get("node-2").routing.placeNewOrder(request(Side.BUY, "100", "1"));
+
+        assertThat(nodes.get("node-2").ownership.ownerOf(SYMBOL)).isEqualTo("node-1");
+        assertThat(nodes.get("node-1").engine.getOrderBook(SYMBOL).getAsks()).isEmpty();
+    }
+
+    private void addNode(String id, Function<MatchingEngine, ? extends SymbolOwnership> ownershipFactory) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InstrumentRegistry instruments = new InstrumentRegistry(SYMBOL + ":0.01:0.001," + OTHER_SYMBOL + ":0.01:0.001", InstrumentState.OPEN);
+        EngineEventRing events = new EngineEventRing(64);
+        MatchingEngine engine = new MatchingEngine(new EngineMetrics(meterRegistry), new EventJournal(false, "unused", 0, 1, meterRegistry),
+                instruments, events);
+        SymbolOwnership ownership = ownershipFactory.apply(engine);
+        engine.setOwnershipFence(ownership::holdsLocally);
+        RoutingOrderService routing = new RoutingOrderService(new EngineOnlyOrderService(engine), ownership,
+                new InProcessForwarder(), instruments, new ClusterNodes(id, Map.of(id, "in-process:" + id)));
+        nodes.put(id, new Node(engine, events, routing, ownership));
+    }
+
+    private static ClusterNodes membership(String... ids) {
+        Map<String, String> urls = new HashMap<>();
+        for (String id : ids) {
+            urls.put(id, "in-process:" + id);
+        }
+        return new ClusterNodes(ids[0], urls);
+    }
+
+    private static OrderRequest request(Side side, String price, String quantity) {
+        return request(SYMBOL, side, price, quantity, null);
+    }
+
+    private static OrderRequest request(String symbol, Side side, String price, String quantity, String account) {
+        OrderRequest request = new OrderRequest();
+        request.setSymbol(symbol);
+        request.setAccount(account);
+        request.setSide(side);
+        request.setOrderType(OrderType.LIMIT);
+        request.setPrice(new BigDecimal(price));
+        request.setQuantity(new BigDecimal(quantity));
+        return request;
+    }
+
+    private Order order(Side side, String price, String quantity) {
+        Order order = new Order(SYMBOL, side, OrderType.LIMIT, new BigDecimal(price), new BigDecimal(quantity));
+        order.setId(orderIds.incrementAndGet());
+        return order;
+    }
+
+    private record Node(MatchingEngine engine, EngineEventRing events, RoutingOrderService routing, SymbolOwnership ownership) {
+
+        void renewLeases() {
+            ((LeaseSymbolOwnership) ownership).renewLeases();
+        }
+    }
+
+    /**
+     * The local OrderService reduced to what routing needs: id assignment and matching.
+     */
+    private final class EngineOnlyOrderService implements OrderService {
+
+        private final MatchingEngine engine;
+
+        private EngineOnlyOrderService(MatchingEngine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public Order placeNewOrder(OrderRequest request) {
+            Order order = new Order(request.getSymbol(), request.getSide(), request.getOrderType(), request.getPrice(), request.getQuantity());
+            order.setId(orderIds.incrementAndGet());
+            order.setAccount(request.getAccount());
+            engine.processOrder(order);
+            return order.copy();
+        }
+
+        @Override
+        public Order getOrder(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderBookDto getOrderBook(String symbol) {
+            return findOrderBook(symbol).orElseGet(() -> new OrderBookDto(symbol, List.of(), List.of()));
+        }
+
+        @Override
+        public byte[] getOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * There is no Redis here: only a node holding the book finds it.
+         */
+        @Override
+        public Optional<OrderBookDto> findOrderBook(String symbol) {
+            return Optional.ofNullable(engine.readBook(symbol, book -> new OrderBookDto(symbol,
+                    book.getBids().values().stream().map(l -> new OrderBookDto.PriceLevel(l.getPrice(), l.getTotalQuantity())).toList(),
+                    book.getAsks().values().stream().map(l -> new OrderBookDto.PriceLevel(l.getPrice(), l.getTotalQuantity())).toList())));
+        }
+
+        @Override
+        public Optional<byte[]> findOrderBookJson(String symbol, Integer depth, BigDecimal grouping) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AuctionIndication startAuction(String symbol) {
+            return engine.startAuction(symbol);
+        }
+
+        @Override
+        public AuctionIndication getAuctionIndication(String symbol) {
+            return engine.indicateAuction(symbol);
+        }
+
+        @Override
+        public AuctionIndication uncrossAuction(String symbol) {
+            return engine.uncross(symbol).auction();
+        }
+
+        @Override
+        public MassCancelResult cancelOrders(String account, String symbol, Side side) {
+            List<Long> cancelled = new ArrayList<>();
+            for (String bookSymbol : symbol != null ? Set.of(symbol) : engine.symbolsWithLiveOrders(account)) {
+                engine.cancelOrders(bookSymbol, account, side).fills().forEach(fill -> cancelled.add(fill.order().getId()));
+            }
+            return new MassCancelResult(account, cancelled);
+        }
+
+        @Override
+        public Instrument getInstrument(String symbol) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instrument changeInstrumentState(String symbol, InstrumentState state) {
+            return engine.changeState(symbol, state);
+        }
+    }
+
+    /**
+     * Answers every ownership lookup with this node until the symbol is invalidated, like a node that routed a request
+     * to itself just before its lease lapsed.
+     */
+    private static final class StaleUntilInvalidated implements SymbolOwnership {
+
+        private final SymbolOwnership delegate;
+        private final String localNodeId;
+        private final Set<String> invalidated = new HashSet<>();
+
+        StaleUntilInvalidated(SymbolOwnership delegate, String localNodeId) {
+            this.delegate = delegate;
+            this.localNodeId = localNodeId;
+        }
+
+        @Override
+        public String ownerOf(String symbol) {
+            return invalidated.contains(symbol) ? delegate.ownerOf(symbol) : localNodeId;
+        }
+
+        @Override
+        public Optional<String> currentOwner(String symbol) {
+            return invalidated.contains(symbol) ? delegate.currentOwner(symbol) : Optional.of(localNodeId);
+        }
+
+        @Override
+        public boolean isLocal(String symbol) {
+            return localNodeId.equals(ownerOf(symbol));
+        }
+
+        @Override
+        public boolean holdsLocally(String symbol) {
+            return delegate.holdsLocally(symbol);
+        }
+
+        @Override
+        public void invalidate(String symbol) {
+            invalidated.add(symbol);
+            delegate.invalidate(symbol);
+        }
+    }
+
+    private final class InProcessForwarder implements OrderForwarder {
+
+        @Override
+        public Order placeOrder(String nodeId, OrderRequest request) {
+            return nodes.get(nodeId).routing.placeForwardedOrder(request);
+        }
+
+        @Override
+        public AuctionIndication runAuction(String nodeId, String symbol, AuctionCommand command) {
+            return nodes.get(nodeId).routing.runForwardedAuction(symbol, command);
+        }
+
+        @Override
+        public MassCancelResult cancelOrders(String nodeId, String account, String symbol, Side side) {
+            if (unreachable.contains(nodeId)) {
+                throw new ClusterUnavailableException(nodeId + " is unreachable");
+            }
+            return nodes.get(nodeId).routing.cancelForwardedOrders(account, symbol, side);
+        }
+
+        @Override
+        public Instrument getInstrument(String nodeId, String symbol) {
+            return nodes.get(nodeId).routing.forwardedInstrument(symbol, null);
+        }
+
+        @Override
+        public Instrument changeInstrumentState(String nodeId, String symbol, InstrumentState state) {
+            return nodes.get(nodeId).routing.forwardedInstrument(symbol, state);
+        }
+
+        @Override
+        public OrderBookDto getOrderBook(String nodeId, String symbol) {
+            return nodes.get(nodeId).routing.forwardedOrderBook(symbol);
+        }
+
+        @Override
+        public byte[] getOrderBookJson(String nodeId, String symbol, Integer depth, BigDecimal grouping) {
+            return nodes.get(nodeId).routing.forwardedOrderBookJson(symbol, depth, grouping);
+        }
+
+        @Override
+        public List<Trade> getRecentTrades(String nodeId, String symbol, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Candle> getCandles(String nodeId, String symbol, CandleInterval interval, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.exchange.core.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EngineEventDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EngineEventDispatcher dispatcher;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void whenEventsArePublished_thenEveryConsumerSeesAllOfThemInSequence() throws InterruptedException {
+        EngineEventRing ring = new EngineEventRing(1024);
+        RecordingConsumer persistence = new RecordingConsumer("persistence");
+        RecordingConsumer marketData = new RecordingConsumer("market-data");
+        dispatcher = start(ring, persistence, marketData);
+
+        for (int i = 0; i < 500; i++) {
+            ring.publish("BTC/USD", List.of(), List.of());
+        }
+        dispatcher.stop();
+
+        List<Long> expected = LongStream.range(0, 500).boxed().toList();
+        assertThat(persistence.sequences).isEqualTo(expected);
+        assertThat(marketData.sequences).isEqualTo(expected);
+        assertThat(persistence.batches).isPositive();
+    }
+
+    @Test
+    void whenALossyConsumerStalls_thenPublishingGoesOnAndTheConsumerSkipsWhatWasOverwritten() throws InterruptedException {
+        EngineEventRing ring = new EngineEventRing(8);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer slow = new RecordingConsumer("slow") {
+            @Override
+            public boolean mayLoseEvents() {
+                return true;
+            }
+
+            @Override
+            public void onEvent(EngineEvent event) {
+                super.onEvent(event);
+                if (event.sequence() == 0) {
+                    stalled.countDown();
+                    awaitQuietly(release);
+                }
+            }
+        };
+        dispatcher = start(ring, slow);
+
+        ring.publish("BTC/USD", List.of(), List.of());
+        stalled.await();
+        // 99 more events on a ring of 8 while the consumer is stuck: none of these calls waits
+        for (int i = 1; i < 100; i++) {
+            ring.publish("BTC/USD", List.of(), List.of());
+        }
+        release.countDown();
+        dispatcher.stop();
+
+        // Its next event (1) was overwritten, so it resumed half a ring behind the head
+        assertThat(slow.sequences).containsExactly(0L, 96L, 97L, 98L, 99L);
+        assertThat(meterRegistry.get("exchange.events.consumer.skipped").tag("consumer", "slow").counter().count())
+                .isEqualTo(95);
+    }
+
+    @Test
+    void whenADurableConsumerStalls_thenPublishingWaitsForItAndNothingIsLost() throws Exception {
+        EngineEventRing ring = new EngineEventRing(8);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer persistence = new RecordingConsumer("persistence") {
+            @Override
+            public void onEvent(EngineEvent event) {
+                super.onEvent(event);
+                if (event.sequence() == 0) {
+                    stalled.countDown();
+                    awaitQuietly(release);
+                }
+            }
+        };
+        RecordingConsumer marketData = new RecordingConsumer("market-data") {
+            @Override
+            public boolean mayLoseEvents() {
+                return true;
+            }
+        };
+        dispatcher = start(ring, persistence, marketData);
+
+        ring.publish("BTC/USD", List.of(), List.of());
+        stalled.await();
+        Thread publisher = new Thread(() -> {
+            for (int i = 1; i < 100; i++) {
+                ring.publish("BTC/USD", List.of(), List.of());
+            }
+        });
+        publisher.start();
+        // Sequences 1 to 7 fill the ring; 8 would overwrite event 0, which persistence is still handling
+        publisher.join(200);
+        assertThat(publisher.isAlive()).isTrue();
+        assertThat(ring.getGatedPublishes()).isEqualTo(1);
+
+        release.countDown();
+        publisher.join();
+        dispatcher.stop();
+
+        assertThat(persistence.sequences).isEqualTo(LongStream.range(0, 100).boxed().toList());
+        assertThat(meterRegistry.get("exchange.events.consumer.skipped").tag("consumer", "persistence").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void whenADurableConsumerFails_thenTheEventIsRetriedAndOnlyCountedAsLostWhenItKeepsFailing() throws InterruptedException {
+        EngineEventRing ring = new EngineEventRing(8);
+        Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+        RecordingConsumer persistence = new RecordingConsumer("persistence") {
+            @Override
+            public void onEvent(EngineEvent event) {
+                int attempt = attempts.merge(event.sequence(), 1, Integer::sum);
+                // Event 1 fails once, event 2 on every attempt
+                if ((event.sequence() == 1 && attempt == 1) || event.sequence() == 2) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                super.onEvent(event);
+            }
+        };
+        dispatcher = start(ring, persistence);
+
+        for (int i = 0; i < 4; i++) {
+            ring.publish("BTC/USD", List.of(), List.of());
+        }
+        dispatcher.stop();
+
+        assertThat(persistence.sequences).containsExactly(0L, 1L, 3L);
+        assertThat(attempts).containsEntry(1L, 2).containsEntry(2L, 3);
+        assertThat(meterRegistry.get("exchange.events.consumer.skipped").tag("consumer", "persistence").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenTheDispatcherStops_thenPublishingNoLongerWaitsForItsConsumers() throws InterruptedException {
+        EngineEventRing ring = new EngineEventRing(8);
+        dispatcher = start(ring, new RecordingConsumer("persistence"));
+        dispatcher.stop();
+
+        for (int i = 0; i < 100; i++) {
+            ring.publish("BTC/USD", List.of(), List.of());
+        }
+
+        assertThat(ring.getNextSequence()).isEqualTo(100);
+    }
+
+    private EngineEventDispatcher start(EngineEventRing ring, EngineEventConsumer... consumers) {
+        EngineEventDispatcher started = new EngineEventDispatcher(ring, List.of(consumers), meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingConsumer implements EngineEventConsumer {
+
+        private final String name;
+        final List<Long> sequences = new CopyOnWriteArrayList<>();
+        volatile int batches;
+
+        RecordingConsumer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void onEvent(EngineEvent event) {
+            sequences.add(event.sequence());
+        }
+
+        @Override
+        public void onBatchEnd() {
+            batches++;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.exchange.core.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstrumentRegistryTest {
+
+    private final InstrumentRegistry registry =
+            new InstrumentRegistry("BTC/USD:0.01:0.0001:10, ETH/USD:0.05:0.01", InstrumentState.OPEN);
+
+    @Test
+    void whenDefinitionsAreLoaded_thenEachSymbolHasItsGridAndBand() {
+        Instrument btc = registry.require("BTC/USD");
+        assertThat(btc.tickSize()).isEqualByComparingTo("0.01");
+        assertThat(btc.lowerPriceLimit(new BigDecimal("50000"))).isEqualByComparingTo("45000");
+        assertThat(btc.upperPriceLimit(new BigDecimal("50000"))).isEqualByComparingTo("55000");
+        assertThat(registry.require("ETH/USD").hasPriceBand()).isFalse();
+        assertThat(registry.find("BTC/USDT")).isNull();
+        assertThatThrownBy(() -> registry.require("BTC/USDT")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenOrderIsOffTheGridOrSymbolIsHalted_thenItIsRejected() {
+        Instrument eth = registry.require("ETH/USD");
+        eth.checkOrder(new BigDecimal("2000.05"), new BigDecimal("1.50"));
+
+        assertThatThrownBy(() -> eth.checkOrder(new BigDecimal("2000.01"), BigDecimal.ONE))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("tick size");
+        assertThatThrownBy(() -> eth.checkOrder(new BigDecimal("2000"), new BigDecimal("1.005")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("lot size");
+
+        registry.updateState("ETH/USD", InstrumentState.HALTED);
+        assertThatThrownBy(() -> registry.require("ETH/USD").checkOrder(new BigDecimal("2000"), BigDecimal.ONE))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("HALTED");
+    }
+}
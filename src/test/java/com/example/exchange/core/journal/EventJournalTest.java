@@ -0,0 +1,104 @@
+package com.example.exchange.core.journal;
+
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenEventsAreJournaled_thenReaderDecodesThemInOrder() throws Exception {
+        EventJournal journal = newJournal(4096);
+        journal.start();
+
+        Order order = new Order("BTC/USD", Side.BUY, OrderType.LIMIT, new BigDecimal("50000.5"), new BigDecimal("0.25"));
+        order.setId(7L);
+        journal.orderAccepted(order);
+        journal.trade(new Trade("BTC/USD", 7L, 3L, new BigDecimal("49999.12345678"), new BigDecimal("0.1")));
+        order.setRemainingQuantity(new BigDecimal("0.15"));
+        journal.orderRested(order);
+        journal.stop();
+
+        List<JournalRecord> records = new ArrayList<>();
+        JournalReader.read(directory, records::add);
+
+        assertThat(records).extracting(JournalRecord::type).containsExactly(
+                JournalRecordType.ORDER_ACCEPTED, JournalRecordType.TRADE, JournalRecordType.ORDER_RESTED);
+        assertThat(records).extracting(JournalRecord::sequence).containsExactly(0L, 1L, 2L);
+        assertThat(records.get(0).price()).isEqualByComparingTo("50000.5");
+        assertThat(records.get(0).quantity()).isEqualByComparingTo("0.25");
+        assertThat(records.get(1).buyOrderId()).isEqualTo(7L);
+        assertThat(records.get(1).sellOrderId()).isEqualTo(3L);
+        assertThat(records.get(1).price()).isEqualByComparingTo("49999.12345678");
+        assertThat(records.get(2).quantity()).isEqualByComparingTo("0.15");
+        assertThat(records.get(2).symbol()).isEqualTo("BTC/USD");
+    }
+
+    @Test
+    void whenSegmentFillsOrJournalRestarts_thenSequencesContinueAcrossSegments() throws Exception {
+        EventJournal journal = newJournal(256);
+        journal.start();
+        for (int i = 0; i < 20; i++) {
+            journal.trade(new Trade("ETH/USD", 1L, 2L, BigDecimal.ONE, BigDecimal.ONE));
+        }
+        journal.stop();
+
+        EventJournal restarted = newJournal(256);
+        restarted.start();
+        restarted.trade(new Trade("ETH/USD", 1L, 2L, BigDecimal.ONE, BigDecimal.ONE));
+        restarted.stop();
+
+        List<JournalRecord> records = new ArrayList<>();
+        JournalReader.read(directory, records::add);
+
+        assertThat(EventJournal.listSegments(directory)).hasSizeGreaterThan(2);
+        assertThat(records).hasSize(21);
+        assertThat(records.getLast().sequence()).isEqualTo(20L);
+    }
+
+    @Test
+    void whenASymbolIsTooLongToEncode_thenItsEventIsSkippedAndCountedAndJournalingContinues() throws Exception {
+        EventJournal journal = newJournal(256);
+        journal.start();
+        journal.trade(new Trade("X".repeat(JournalFormat.MAX_SYMBOL_BYTES + 1), 1L, 2L, BigDecimal.ONE, BigDecimal.ONE));
+        journal.trade(new Trade("ETH/USD", 1L, 2L, BigDecimal.ONE, BigDecimal.ONE));
+        journal.stop();
+
+        List<JournalRecord> records = new ArrayList<>();
+        JournalReader.read(directory, records::add);
+
+        assertThat(journal.getRejectedCount()).isEqualTo(1);
+        assertThat(records).singleElement().satisfies(record -> {
+            assertThat(record.symbol()).isEqualTo("ETH/USD");
+            assertThat(record.sequence()).isZero();
+        });
+    }
+
+    @Test
+    void whenASegmentCannotHoldTheLargestRecord_thenTheJournalIsRejectedAtStartup() {
+        assertThatThrownBy(() -> newJournal(JournalFormat.SEGMENT_HEADER_BYTES + JournalFormat.MAX_RECORD_BYTES))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exchange.journal.segment-size-bytes");
+        // A disabled journal never opens a segment
+        new EventJournal(false, directory.toString(), 0, 1, new SimpleMeterRegistry());
+    }
+
+    private EventJournal newJournal(int segmentSizeBytes) {
+        return new EventJournal(true, directory.toString(), segmentSizeBytes, 1024, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.exchange.core.marketdata;
+
+import com.example.exchange.domain.Trade;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures TradeAggregator throughput with one feeding thread per symbol, as at peak matching rates.
+ * Trades are pre-generated (one simulated millisecond apart per symbol) so only aggregation is timed.
+ * Not part of the test suite; run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.example.exchange.core.marketdata.TradeAggregatorBenchmark
+ * </pre>
+ */
+public class TradeAggregatorBenchmark {
+
+    private static final int TRADES_PER_SYMBOL = 2_000_000;
+    private static final int[] SYMBOL_COUNTS = {1, 4};
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int symbols : SYMBOL_COUNTS) {
+            List<Trade[]> feeds = new ArrayList<>();
+            for (int s = 0; s < symbols; s++) {
+                feeds.add(trades("SYM" + s + "/USD", new Random(s)));
+            }
+            // Warm-up pass on a throwaway aggregator, then the measured pass
+            run(feeds);
+            long elapsed = run(feeds);
+            long total = (long) symbols * TRADES_PER_SYMBOL;
+            System.out.printf("symbols=%d trades=%d elapsed=%dms throughput=%,.0f trades/s%n",
+                    symbols, total, elapsed / 1_000_000, total * 1e9 / elapsed);
+        }
+    }
+
+    private static long run(List<Trade[]> feeds) throws InterruptedException {
+        TradeAggregator aggregator = new TradeAggregator(1000, 500);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(feeds.size());
+        for (Trade[] feed : feeds) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (Trade trade : feed) {
+                        aggregator.onTrade(trade);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        // Keep the closed-bar queue from growing across runs
+        aggregator.drainClosedBars(Integer.MAX_VALUE);
+        return elapsed;
+    }
+
+    private static Trade[] trades(String symbol, Random random) {
+        Trade[] trades = new Trade[TRADES_PER_SYMBOL];
+        long time = 1_700_000_000_000L;
+        long price = 5_000_000;
+        for (int i = 0; i < trades.length; i++) {
+            price += random.nextInt(5) - 2;
+            Trade trade = new Trade(symbol, 1L, 2L, BigDecimal.valueOf(price, 2), BigDecimal.valueOf(1 + random.nextInt(1000), 3));
+            trade.setTimestamp(Instant.ofEpochMilli(time++));
+            trades[i] = trade;
+        }
+        return trades;
+    }
+}
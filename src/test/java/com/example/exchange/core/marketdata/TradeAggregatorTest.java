@@ -0,0 +1,94 @@
+package com.example.exchange.core.marketdata;
+
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.CandleInterval;
+import com.example.exchange.domain.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradeAggregatorTest {
+
+    private static final String SYMBOL = "BTC/USD";
+    private static final long MINUTE = 60_000L;
+
+    private final TradeAggregator aggregator = new TradeAggregator(3, 10);
+
+    @Test
+    void whenTradesSpanTwoMinutes_thenFirstMinuteBarIsClosedWithOhlcv() {
+        aggregator.onTrade(trade(0, "100", "1"));
+        aggregator.onTrade(trade(10_000, "105", "2"));
+        aggregator.onTrade(trade(20_000, "95", "1"));
+        aggregator.onTrade(trade(30_000, "101", "3"));
+        aggregator.onTrade(trade(MINUTE + 5_000, "102", "1"));
+
+        List<Candle> candles = aggregator.getCandles(SYMBOL, CandleInterval.ONE_MINUTE, 10);
+
+        assertThat(candles).hasSize(2);
+        Candle closed = candles.get(1);
+        assertThat(closed.getOpenTime()).isEqualTo(Instant.ofEpochMilli(0));
+        assertThat(closed.getOpen()).isEqualByComparingTo("100");
+        assertThat(closed.getHigh()).isEqualByComparingTo("105");
+        assertThat(closed.getLow()).isEqualByComparingTo("95");
+        assertThat(closed.getClose()).isEqualByComparingTo("101");
+        assertThat(closed.getVolume()).isEqualByComparingTo("7");
+        assertThat(closed.getTradeCount()).isEqualTo(4);
+        assertThat(candles.get(0).getOpen()).isEqualByComparingTo("102");
+
+        assertThat(aggregator.drainClosedBars(100))
+                .filteredOn(bar -> bar.getInterval() == CandleInterval.ONE_MINUTE)
+                .hasSize(1);
+    }
+
+    @Test
+    void whenIntervalEndsWithoutNewTrades_thenExpiredBarsAreClosed() {
+        aggregator.onTrade(trade(0, "100", "1"));
+
+        aggregator.closeExpiredBars(MINUTE);
+
+        assertThat(aggregator.drainClosedBars(100)).extracting(Candle::getInterval)
+                .containsExactlyInAnyOrder(CandleInterval.ONE_SECOND, CandleInterval.ONE_MINUTE);
+    }
+
+    @Test
+    void whenATradeArrivesForABarTheTimerClosed_thenItIsFoldedIntoTheNextBar() {
+        aggregator.onTrade(trade(0, "100", "1"));
+        aggregator.closeExpiredBars(MINUTE);
+        aggregator.drainClosedBars(100);
+
+        aggregator.onTrade(trade(MINUTE - 1, "99", "2"));
+
+        List<Candle> candles = aggregator.getCandles(SYMBOL, CandleInterval.ONE_MINUTE, 10);
+        assertThat(candles).extracting(Candle::getOpenTime)
+                .containsExactly(Instant.ofEpochMilli(MINUTE), Instant.ofEpochMilli(0));
+        assertThat(candles.get(0).getVolume()).isEqualByComparingTo("2");
+        assertThat(candles.get(1).getVolume()).isEqualByComparingTo("1");
+
+        aggregator.closeExpiredBars(2 * MINUTE);
+        assertThat(aggregator.drainClosedBars(100))
+                .filteredOn(bar -> bar.getInterval() == CandleInterval.ONE_MINUTE)
+                .extracting(Candle::getOpenTime)
+                .containsExactly(Instant.ofEpochMilli(MINUTE));
+    }
+
+    @Test
+    void whenMoreTradesThanCapacity_thenOnlyNewestAreKeptNewestFirst() {
+        for (int i = 1; i <= 5; i++) {
+            aggregator.onTrade(trade(i, Integer.toString(100 + i), "1"));
+        }
+
+        assertThat(aggregator.getRecentTrades(SYMBOL, 10)).extracting(Trade::getPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("105"), new BigDecimal("104"), new BigDecimal("103"));
+    }
+
+    private static Trade trade(long epochMillis, String price, String quantity) {
+        Trade trade = new Trade(SYMBOL, 1L, 2L, new BigDecimal(price), new BigDecimal(quantity));
+        trade.setTimestamp(Instant.ofEpochMilli(epochMillis));
+        return trade;
+    }
+}
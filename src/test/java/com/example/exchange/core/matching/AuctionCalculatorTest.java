@@ -0,0 +1,94 @@
+package com.example.exchange.core.matching;
+
+import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionCalculatorTest {
+
+    private static final String SYMBOL = "BTC/USD";
+
+    private final OrderBook book = new OrderBook(SYMBOL);
+
+    @Test
+    void whenVolumesTie_thenTheSmallerImbalanceWins() {
+        // 100 and 101 both execute 3: 100 leaves 2 unfilled bids, 101 leaves 1 unfilled ask
+        rest(Side.BUY, "101", "3");
+        rest(Side.BUY, "100", "2");
+        rest(Side.SELL, "100", "3");
+        rest(Side.SELL, "101", "1");
+
+        AuctionIndication indication = AuctionCalculator.indicate(book);
+
+        assertThat(indication.price()).isEqualByComparingTo("101");
+        assertThat(indication.matchedVolume()).isEqualByComparingTo("3");
+        assertThat(indication.imbalance()).isEqualByComparingTo("1");
+        assertThat(indication.imbalanceSide()).isEqualTo(Side.SELL);
+    }
+
+    @Test
+    void whenVolumeAndImbalanceTie_thenThePriceClosestToTheReferenceWins() {
+        // 100 and 101 both execute 2 with nothing left over
+        rest(Side.BUY, "101", "2");
+        rest(Side.SELL, "100", "2");
+
+        book.setLastTradePrice(new BigDecimal("101"));
+        assertThat(AuctionCalculator.indicate(book).price()).isEqualByComparingTo("101");
+
+        book.setLastTradePrice(new BigDecimal("99"));
+        assertThat(AuctionCalculator.indicate(book).price()).isEqualByComparingTo("100");
+
+        // Equidistant from the reference, the balanced tie falls back to the lower price
+        book.setLastTradePrice(new BigDecimal("100.5"));
+        assertThat(AuctionCalculator.indicate(book).price()).isEqualByComparingTo("100");
+        assertThat(AuctionCalculator.indicate(book).imbalanceSide()).isNull();
+    }
+
+    @Test
+    void whenTiedWithoutAReference_thenABuySurplusTakesTheHighestPrice() {
+        rest(Side.BUY, "101", "3");
+        rest(Side.SELL, "100", "2");
+
+        AuctionIndication indication = AuctionCalculator.indicate(book);
+
+        assertThat(indication.price()).isEqualByComparingTo("101");
+        assertThat(indication.imbalance()).isEqualByComparingTo("1");
+        assertThat(indication.imbalanceSide()).isEqualTo(Side.BUY);
+    }
+
+    @Test
+    void whenTiedWithoutAReference_thenASellSurplusTakesTheLowestPrice() {
+        rest(Side.BUY, "101", "2");
+        rest(Side.SELL, "100", "3");
+
+        AuctionIndication indication = AuctionCalculator.indicate(book);
+
+        assertThat(indication.price()).isEqualByComparingTo("100");
+        assertThat(indication.imbalanceSide()).isEqualTo(Side.SELL);
+    }
+
+    @Test
+    void whenTiedWithoutAReferenceBetweenOppositeSurpluses_thenTheLowerPriceIsKept() {
+        // 100 executes 2 leaving 1 bid over; 101 executes 2 leaving 1 ask over
+        rest(Side.BUY, "101", "2");
+        rest(Side.BUY, "100", "1");
+        rest(Side.SELL, "100", "2");
+        rest(Side.SELL, "101", "1");
+
+        AuctionIndication indication = AuctionCalculator.indicate(book);
+
+        assertThat(indication.price()).isEqualByComparingTo("100");
+        assertThat(indication.matchedVolume()).isEqualByComparingTo("2");
+        assertThat(indication.imbalanceSide()).isEqualTo(Side.BUY);
+    }
+
+    private void rest(Side side, String price, String quantity) {
+        book.addOrder(new Order(SYMBOL, side, OrderType.LIMIT, new BigDecimal(price), new BigDecimal(quantity)));
+    }
+}
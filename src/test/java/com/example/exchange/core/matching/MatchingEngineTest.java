@@ -0,0 +1,321 @@
+package com.example.exchange.core.matching;
+
+import com.example.exchange.core.events.EngineEvent;
+import com.example.exchange.core.events.EngineEventRing;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.journal.EventJournal;
+import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.core.orderbook.TradingPhase;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderStatus;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.metrics.EngineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MatchingEngineTest {
+
+    private static final String SYMBOL = "BTC/USD";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // 10% circuit breaker band
+    private final InstrumentRegistry instruments = new InstrumentRegistry("BTC/USD:0.01:0.001:10", InstrumentState.OPEN);
+    private final EngineEventRing events = new EngineEventRing(64);
+    private final MatchingEngine engine = new MatchingEngine(
+            new EngineMetrics(meterRegistry),
+            new EventJournal(false, "unused", 0, 1, meterRegistry),
+            instruments,
+            events);
+    private long nextId = 1;
+
+    @Test
+    void whenIncomingOrderSweepsLevels_thenFilledLevelsAreRemovedAndTotalsTrackRemainder() {
+        engine.processOrder(order(Side.SELL, "100", "1"));
+        engine.processOrder(order(Side.SELL, "100", "2"));
+        engine.processOrder(order(Side.SELL, "101", "5"));
+
+        List<Trade> trades = engine.processOrder(order(Side.BUY, "101", "4")).trades();
+
+        assertThat(trades).extracting(Trade::getPrice).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100"), new BigDecimal("100"), new BigDecimal("101"));
+        assertThat(trades).extracting(Trade::getQuantity).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("1"), new BigDecimal("2"), new BigDecimal("1"));
+
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(book.getAsks()).containsOnlyKeys(new BigDecimal("101"));
+        assertThat(book.getAsks().firstEntry().getValue().getTotalQuantity()).isEqualByComparingTo("4");
+        assertThat(book.getBids()).isEmpty();
+    }
+
+    @Test
+    void whenOrderDoesNotCross_thenItRestsAndBookSequenceAdvances() {
+        engine.processOrder(order(Side.SELL, "105", "1"));
+        long sequence = engine.getOrderBook(SYMBOL).getSequence();
+
+        List<Trade> trades = engine.processOrder(order(Side.BUY, "100", "2")).trades();
+
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(trades).isEmpty();
+        assertThat(book.getBestBidPrice()).contains(new BigDecimal("100"));
+        assertThat(book.getBids().firstEntry().getValue().getTotalQuantity()).isEqualByComparingTo("2");
+        assertThat(book.getSequence()).isGreaterThan(sequence);
+    }
+
+    @Test
+    void whenOrdersTrade_thenEngineReportsFillsAndKeepsLiveIndexCurrent() {
+        Order resting = order(Side.SELL, "100", "3");
+        engine.processOrder(resting);
+        assertThat(engine.findLiveOrder(resting.getId())).isPresent();
+
+        Order incoming = order(Side.BUY, "100", "1");
+        MatchResult result = engine.processOrder(incoming);
+
+        assertThat(result.fills()).hasSize(2);
+        assertThat(result.fills().get(0).order()).isSameAs(incoming);
+        assertThat(result.fills().get(0).status()).isEqualTo(OrderStatus.FILLED);
+        assertThat(result.fills().get(1).order()).isSameAs(resting);
+        assertThat(result.fills().get(1).status()).isEqualTo(OrderStatus.PARTIALLY_FILLED);
+        assertThat(result.fills().get(1).remainingQuantity()).isEqualByComparingTo("2");
+        assertThat(engine.findLiveOrder(incoming.getId())).isEmpty();
+
+        Order live = engine.findLiveOrder(resting.getId()).orElseThrow();
+        assertThat(live).isNotSameAs(resting);
+        assertThat(live.getStatus()).isEqualTo(OrderStatus.PARTIALLY_FILLED);
+        Order copy = engine.copyOrder(resting);
+        assertThat(copy).isNotSameAs(resting);
+        assertThat(copy.getRemainingQuantity()).isEqualByComparingTo("2");
+
+        engine.processOrder(order(Side.BUY, "100", "2"));
+        assertThat(resting.getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(engine.findLiveOrder(resting.getId())).isEmpty();
+    }
+
+    @Test
+    void whenTheBookIsDropped_thenItsOrdersAreNoLongerLive() {
+        Order resting = order(Side.SELL, "100", "3");
+        engine.processOrder(resting);
+
+        engine.removeOrderBook(SYMBOL);
+
+        assertThat(engine.findLiveOrder(resting.getId())).isEmpty();
+        assertThat(engine.copyOrder(resting).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void whenOrdersChangeTheBook_thenEachChangeIsPublishedToTheEventRingInOrder() {
+        engine.processOrder(order(Side.SELL, "100", "3", "maker"));
+        MatchResult result = engine.processOrder(order(Side.BUY, "100", "1"));
+        engine.cancelOrders(SYMBOL, "maker", null);
+
+        assertThat(events.getNextSequence()).isEqualTo(3);
+        EngineEvent rested = events.get(0);
+        assertThat(rested.trades()).isEmpty();
+        assertThat(rested.fills()).isEmpty();
+        EngineEvent traded = events.get(1);
+        assertThat(traded.sequence()).isEqualTo(1);
+        assertThat(traded.symbol()).isEqualTo(SYMBOL);
+        assertThat(traded.trades()).isEqualTo(result.trades());
+        assertThat(traded.fills()).isEqualTo(result.fills());
+        assertThat(events.get(2).fills()).extracting(FillReport::status).containsExactly(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void whenBookIsInCallPhase_thenCrossingOrdersRestAndIndicationTracksEquilibrium() {
+        engine.startAuction(SYMBOL);
+        placeAuctionBook();
+
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(book.getPhase()).isEqualTo(TradingPhase.CALL);
+        assertThat(book.getBestBidPrice()).contains(new BigDecimal("102"));
+        assertThat(book.getBestAskPrice()).contains(new BigDecimal("99"));
+
+        // 100 and 101 both execute 5, but 101 leaves the smaller imbalance (1 unfilled on the sell side instead of 4)
+        AuctionIndication indication = engine.indicateAuction(SYMBOL);
+        assertThat(indication.phase()).isEqualTo(TradingPhase.CALL);
+        assertThat(indication.sequence()).isEqualTo(book.getSequence());
+        assertThat(indication.price()).isEqualByComparingTo("101");
+        assertThat(indication.matchedVolume()).isEqualByComparingTo("5");
+        assertThat(indication.imbalance()).isEqualByComparingTo("1");
+        assertThat(indication.imbalanceSide()).isEqualTo(Side.SELL);
+    }
+
+    @Test
+    void whenAuctionUncrosses_thenAllCrossingOrdersExecuteAtOnePriceInPriority() {
+        engine.startAuction(SYMBOL);
+        placeAuctionBook();
+
+        UncrossResult uncross = engine.uncross(SYMBOL);
+
+        List<Trade> trades = uncross.result().trades();
+        assertThat(trades).extracting(Trade::getPrice).allSatisfy(price -> assertThat(price).isEqualByComparingTo("101"));
+        assertThat(trades).extracting(Trade::getQuantity).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("2"), new BigDecimal("1"), new BigDecimal("2"));
+        assertThat(uncross.result().fills()).hasSize(6);
+        assertThat(uncross.auction().phase()).isEqualTo(TradingPhase.CONTINUOUS);
+        assertThat(uncross.auction().sequence()).isEqualTo(engine.getOrderBook(SYMBOL).getSequence());
+
+        // Only the non-crossing remainder rests: the 100 bid and what is left of the 101 ask
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(book.getPhase()).isEqualTo(TradingPhase.CONTINUOUS);
+        assertThat(book.getBids()).containsOnlyKeys(new BigDecimal("100"));
+        assertThat(book.getAsks()).containsOnlyKeys(new BigDecimal("101"));
+        assertThat(book.getAsks().firstEntry().getValue().getTotalQuantity()).isEqualByComparingTo("1");
+        assertThat(book.getLastTradePrice()).isEqualByComparingTo("101");
+
+        // Continuous matching has resumed
+        assertThat(engine.processOrder(order(Side.BUY, "101", "1")).trades()).hasSize(1);
+    }
+
+    @Test
+    void whenSymbolIsNotInCallPhase_thenUncrossIsRejected() {
+        engine.processOrder(order(Side.SELL, "100", "1"));
+
+        assertThatThrownBy(() -> engine.uncross(SYMBOL)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.uncross("ETH/USD")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenSymbolIsUnknown_thenOrderIsRejectedWithoutCreatingABook() {
+        Order order = new Order("BTC/USDT", Side.BUY, OrderType.LIMIT, new BigDecimal("100"), BigDecimal.ONE);
+
+        assertThatThrownBy(() -> engine.processOrder(order)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(engine.getOrderBook("BTC/USDT")).isNull();
+    }
+
+    @Test
+    void whenTradeWouldLeaveThePriceBand_thenSymbolHaltsAndReopensThroughAnAuction() {
+        // The first trade at 100 sets the reference: the band is 90 to 110
+        engine.processOrder(order(Side.SELL, "100", "1"));
+        engine.processOrder(order(Side.BUY, "100", "1"));
+        engine.processOrder(order(Side.SELL, "105", "1"));
+        engine.processOrder(order(Side.SELL, "120", "1"));
+
+        MatchResult sweep = engine.processOrder(order(Side.BUY, "130", "2"));
+
+        assertThat(sweep.halted()).isTrue();
+        assertThat(sweep.trades()).extracting(Trade::getPrice).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("105"));
+        assertThat(instruments.find(SYMBOL).state()).isEqualTo(InstrumentState.HALTED);
+        // The remainder rests crossed until the reopening auction
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(book.getBestBidPrice()).contains(new BigDecimal("130"));
+        assertThat(book.getBestAskPrice()).contains(new BigDecimal("120"));
+
+        Order rejected = order(Side.BUY, "100", "1");
+        MatchResult result = engine.processOrder(rejected);
+        assertThat(result.trades()).isEmpty();
+        assertThat(rejected.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(result.fills()).singleElement().satisfies(fill -> assertThat(fill.status()).isEqualTo(OrderStatus.CANCELLED));
+        assertThatThrownBy(() -> engine.changeState(SYMBOL, InstrumentState.OPEN)).isInstanceOf(IllegalArgumentException.class);
+
+        engine.startAuction(SYMBOL);
+        UncrossResult uncross = engine.uncross(SYMBOL);
+
+        assertThat(uncross.auction().price()).isEqualByComparingTo("120");
+        assertThat(instruments.find(SYMBOL).state()).isEqualTo(InstrumentState.OPEN);
+        assertThat(book.getReferencePrice()).isEqualByComparingTo("120");
+    }
+
+    @Test
+    void whenThePriceDriftsInSteps_thenTheBandFollowsItWithoutHalting() {
+        // Each step is 5% above the last trade; after four of them the price is over 20% above the first trade
+        for (String price : List.of("100", "105", "110.25", "115.76", "121.54")) {
+            engine.processOrder(order(Side.SELL, price, "1"));
+            assertThat(engine.processOrder(order(Side.BUY, price, "1")).halted()).isFalse();
+        }
+
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(instruments.find(SYMBOL).state()).isEqualTo(InstrumentState.OPEN);
+        assertThat(book.getReferencePrice()).isEqualByComparingTo("121.54");
+        assertThat(book.isWithinPriceLimits(new BigDecimal("100"))).isFalse();
+    }
+
+    @Test
+    void whenTheSymbolHaltsAfterTheCallerCheckedIt_thenTheOrderIsRejectedAsCancelled() {
+        engine.processOrder(order(Side.SELL, "100", "1"));
+        Order order = order(Side.BUY, "100", "1");
+        // What OrderServiceImpl checks before handing the order to the engine
+        instruments.require(SYMBOL).checkOrder(order.getPrice(), order.getQuantity());
+
+        engine.changeState(SYMBOL, InstrumentState.HALTED);
+        long sequence = engine.getOrderBook(SYMBOL).getSequence();
+        MatchResult result = engine.processOrder(order);
+
+        assertThat(result.trades()).isEmpty();
+        assertThat(result.halted()).isFalse();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(result.fills()).singleElement().satisfies(fill -> {
+            assertThat(fill.order()).isSameAs(order);
+            assertThat(fill.status()).isEqualTo(OrderStatus.CANCELLED);
+            assertThat(fill.filledQuantity()).isEqualByComparingTo("0");
+            assertThat(fill.remainingQuantity()).isEqualByComparingTo("1");
+        });
+        // Nothing rested or traded, but the rejection is published so it is persisted
+        assertThat(engine.findLiveOrder(order.getId())).isEmpty();
+        assertThat(engine.getOrderBook(SYMBOL).getAsks()).containsOnlyKeys(new BigDecimal("100"));
+        assertThat(engine.getOrderBook(SYMBOL).getSequence()).isEqualTo(sequence);
+        assertThat(events.get(events.getNextSequence() - 1).fills()).isEqualTo(result.fills());
+    }
+
+    @Test
+    void whenAccountOrdersAreMassCancelled_thenOnlyThatAccountsOrdersOnThatSideLeaveTheBook() {
+        Order bid = order(Side.BUY, "99", "1", "mm-1");
+        Order otherBid = order(Side.BUY, "99", "2", "mm-2");
+        Order lowerBid = order(Side.BUY, "98", "3", "mm-1");
+        Order ask = order(Side.SELL, "101", "1", "mm-1");
+        List.of(bid, otherBid, lowerBid, ask).forEach(engine::processOrder);
+        long sequence = engine.getOrderBook(SYMBOL).getSequence();
+
+        MatchResult result = engine.cancelOrders(SYMBOL, "mm-1", Side.BUY);
+
+        assertThat(result.trades()).isEmpty();
+        assertThat(result.fills()).extracting(FillReport::order).containsExactly(bid, lowerBid);
+        assertThat(result.fills()).allSatisfy(fill -> {
+            assertThat(fill.status()).isEqualTo(OrderStatus.CANCELLED);
+            assertThat(fill.filledQuantity()).isEqualByComparingTo("0");
+        });
+        OrderBook book = engine.getOrderBook(SYMBOL);
+        assertThat(book.getSequence()).isEqualTo(sequence + 1);
+        assertThat(book.getBids()).containsOnlyKeys(new BigDecimal("99"));
+        assertThat(book.getBids().firstEntry().getValue().getTotalQuantity()).isEqualByComparingTo("2");
+        assertThat(engine.findLiveOrder(bid.getId())).isEmpty();
+        assertThat(engine.findLiveOrder(ask.getId())).isPresent();
+
+        engine.cancelOrders(SYMBOL, "mm-1", null);
+        assertThat(book.getAsks()).isEmpty();
+        assertThat(engine.symbolsWithLiveOrders("mm-1")).isEmpty();
+        assertThat(engine.symbolsWithLiveOrders("mm-2")).containsExactly(SYMBOL);
+    }
+
+    /**
+     * Bids 102 x3, 101 x2, 100 x4 against asks 99 x2, 100 x3, 101 x1.
+     */
+    private void placeAuctionBook() {
+        engine.processOrder(order(Side.BUY, "102", "3"));
+        engine.processOrder(order(Side.BUY, "101", "2"));
+        engine.processOrder(order(Side.BUY, "100", "4"));
+        engine.processOrder(order(Side.SELL, "99", "2"));
+        assertThat(engine.processOrder(order(Side.SELL, "100", "3")).trades()).isEmpty();
+        engine.processOrder(order(Side.SELL, "101", "1"));
+    }
+
+    private Order order(Side side, String price, String quantity) {
+        return order(side, price, quantity, null);
+    }
+
+    private Order order(Side side, String price, String quantity, String account) {
+        Order order = new Order(SYMBOL, side, OrderType.LIMIT, new BigDecimal(price), new BigDecimal(quantity));
+        order.setId(nextId++);
+        order.setAccount(account);
+        return order;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.exchange.loadgen;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.core.events.EngineEventDispatcher;
+import com.example.exchange.core.events.EngineEventRing;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.journal.EventJournal;
+import com.example.exchange.core.marketdata.TradeAggregator;
+import com.example.exchange.core.matching.MatchingEngine;
+import com.example.exchange.domain.Order;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.repository.CandleRepository;
+import com.example.exchange.repository.OrderBookBinarySerializer;
+import com.example.exchange.repository.OrderBookCache;
+import com.example.exchange.repository.OrderBookNearCache;
+import com.example.exchange.repository.OrderRepository;
+import com.example.exchange.repository.TradeRepository;
+import com.example.exchange.service.BackpressurePolicy;
+import com.example.exchange.service.EngineWarmup;
+import com.example.exchange.service.MarketDataEventConsumer;
+import com.example.exchange.service.MarketDataServiceImpl;
+import com.example.exchange.service.OrderBookCacheEventConsumer;
+import com.example.exchange.service.OrderService;
+import com.example.exchange.service.OrderServiceImpl;
+import com.example.exchange.service.PersistenceEventConsumer;
+import com.example.exchange.service.PersistenceService;
+import com.example.exchange.service.TradeHistoryEventConsumer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The production OrderService with everything it talks to, wired by hand instead of by Spring.
+ * Everything that runs in the application's process is real: the engine, the event journal (writing to a scratch
+ * directory), the engine event ring and its consumers, the persistence workers and their queues, trade aggregation,
+ * the near cache, and STOMP messages encoded with Jackson. Only what sits across a network is stubbed:
+ * - the JPA repositories accept every write and assign order ids;
+ * - the message channel discards the encoded messages instead of handing them to the broker;
+ * - the Redis cache encodes every snapshot with the binary serializer but does not send it.
+ */
+final class InProcessExchange implements AutoCloseable {
+
+    private final String instruments;
+    private final Path workDirectory;
+    private final ObjectMapper objectMapper;
+    private final MatchingEngine engine;
+    private final EventJournal journal;
+    private final EngineEventDispatcher dispatcher;
+    private final PersistenceService persistence;
+    private final OrderService orderService;
+
+    private InProcessExchange(String instruments, Path workDirectory, ObjectMapper objectMapper, MatchingEngine engine,
+                              EventJournal journal, EngineEventDispatcher dispatcher, PersistenceService persistence,
+                              OrderService orderService) {
+        this.instruments = instruments;
+        this.workDirectory = workDirectory;
+        this.objectMapper = objectMapper;
+        this.engine = engine;
+        this.journal = journal;
+        this.dispatcher = dispatcher;
+        this.persistence = persistence;
+        this.orderService = orderService;
+    }
+
+    /**
+     * @param instruments Instrument definitions, in the format of exchange.instruments.definitions.
+     * @param parent      Where the scratch directory for the journal and the persistence spill files is created.
+     */
+    static InProcessExchange start(String instruments, Path parent) throws IOException {
+        Files.createDirectories(parent);
+        Path workDirectory = Files.createTempDirectory(parent, "exchange-");
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EngineMetrics metrics = new EngineMetrics(meterRegistry);
+
+        EventJournal journal = new EventJournal(true, workDirectory.resolve("journal").toString(), 64 * 1024 * 1024, 65_536, meterRegistry);
+        journal.start();
+        InstrumentRegistry registry = new InstrumentRegistry(instruments, InstrumentState.OPEN);
+        EngineEventRing ring = new EngineEventRing(65_536);
+        MatchingEngine engine = new MatchingEngine(metrics, journal, registry, ring);
+
+        OrderRepository orderRepository = repository(OrderRepository.class);
+        PersistenceService persistence = new PersistenceService(repository(TradeRepository.class), orderRepository,
+                new NoOpTransactionManager(), objectMapper, meterRegistry,
+                4, 8192, BackpressurePolicy.SPILL, workDirectory.resolve("spill").toString(), 5, 50, 5000, 3);
+        persistence.start();
+
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messagingTemplate.setMessageConverter(converter);
+
+        OrderBookCache orderBookCache = new EncodingOnlyOrderBookCache();
+        EngineEventDispatcher dispatcher = new EngineEventDispatcher(ring, List.of(
+                new PersistenceEventConsumer(persistence, metrics),
+                new MarketDataEventConsumer(messagingTemplate, metrics),
+                new TradeHistoryEventConsumer(
+                        new MarketDataServiceImpl(new TradeAggregator(1000, 500), repository(CandleRepository.class), messagingTemplate)),
+                new OrderBookCacheEventConsumer(engine, orderBookCache, metrics)), meterRegistry);
+        dispatcher.start();
+
+        OrderService orderService = new OrderServiceImpl(orderRepository, engine, registry, orderBookCache,
+                new OrderBookNearCache(), messagingTemplate, objectMapper);
+        return new InProcessExchange(instruments, workDirectory, objectMapper, engine, journal, dispatcher, persistence, orderService);
+    }
+
+    OrderService orderService() {
+        return orderService;
+    }
+
+    /**
+     * Runs the startup warm-up the application runs when exchange.warmup.enabled is set.
+     */
+    void warmUp(int orders) throws IOException, InterruptedException {
+        new EngineWarmup(engine, objectMapper, instruments, true, false, orders).warmUp();
+    }
+
+    /**
+     * Drains the event consumers, the persistence queues and the journal, then deletes the scratch directory.
+     */
+    @Override
+    public void close() throws InterruptedException, IOException {
+        dispatcher.stop();
+        persistence.stop();
+        journal.stop();
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * A repository that accepts every write. Orders are given increasing ids on save, as the database sequence would.
+     */
+    private static <T> T repository(Class<T> type) {
+        AtomicLong ids = new AtomicLong();
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "save" -> {
+                        if (args[0] instanceof Order order && order.getId() == null) {
+                            order.setId(ids.incrementAndGet());
+                        }
+                        yield args[0];
+                    }
+                    case "saveAll" -> args[0];
+                    case "applyState" -> 1;
+                    case "findById" -> Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "stub " + type.getSimpleName();
+                    default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                });
+        return type.cast(stub);
+    }
+
+    private static final class EncodingOnlyOrderBookCache extends OrderBookCache {
+
+        private final OrderBookBinarySerializer serializer = new OrderBookBinarySerializer();
+
+        EncodingOnlyOrderBookCache() {
+            super(null);
+        }
+
+        @Override
+        public Optional<OrderBookDto> getOrderBook(String symbol) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void updateOrderBook(String symbol, OrderBookDto orderBook) {
+            serializer.serialize(orderBook);
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
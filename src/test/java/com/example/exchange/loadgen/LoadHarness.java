@@ -0,0 +1,155 @@
+package com.example.exchange.loadgen;
+
+import com.example.exchange.loadgen.OrderFlow.Operation;
+import com.example.exchange.service.OrderService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the full in-process order pipeline (see {@link InProcessExchange}) with seeded order flows at a fixed rate
+ * and reports throughput and latency percentiles.
+ * Each client thread sends its pre-generated {@link OrderFlow} on schedule: it waits until an operation is due, and if
+ * it is already late it sends immediately, so a stall delays everything behind it and every delayed operation is
+ * charged for its wait. Latency is measured from the due time, never from when the call happened to start.
+ * A warm-up run on a throwaway exchange comes first; only the second run is reported.
+ *
+ * Not part of the test suite; run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.example.exchange.loadgen.LoadHarness
+ * </pre>
+ * Optional system properties (defaults in brackets): loadgen.rate, total operations per second [20000];
+ * loadgen.clients [4]; loadgen.duration-seconds [30]; loadgen.warmup-seconds [10]; loadgen.seed [42];
+ * loadgen.label, the report name [the current git commit]. Reports are written to target/loadgen.
+ */
+public class LoadHarness {
+
+    static final String INSTRUMENTS = "BTC/USD:0.01:0.00000001:10,ETH/USD:0.01:0.00000001:10";
+    static final Path OUTPUT = Path.of("target", "loadgen");
+    private static final String[] SYMBOLS = {"BTC/USD", "ETH/USD"};
+    private static final long[] BASE_PRICE_TICKS = {5_000_000, 300_000};
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("loadgen.rate", 20_000);
+        int clients = Integer.getInteger("loadgen.clients", 4);
+        int durationSeconds = Integer.getInteger("loadgen.duration-seconds", 30);
+        int warmupSeconds = Integer.getInteger("loadgen.warmup-seconds", 10);
+        long seed = Long.getLong("loadgen.seed", 42L);
+        String label = System.getProperty("loadgen.label", gitRevision());
+
+        try (InProcessExchange exchange = InProcessExchange.start(INSTRUMENTS, OUTPUT)) {
+            run(exchange, flows(clients, rate, warmupSeconds, seed));
+        }
+        LoadReport report;
+        try (InProcessExchange exchange = InProcessExchange.start(INSTRUMENTS, OUTPUT)) {
+            report = run(exchange, flows(clients, rate, durationSeconds, seed));
+        }
+
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("rate", rate);
+        configuration.put("clients", clients);
+        configuration.put("duration_s", durationSeconds);
+        configuration.put("seed", seed);
+        report.write(OUTPUT, label, configuration);
+    }
+
+    static List<List<Operation>> flows(int clients, int rate, int durationSeconds, long seed) {
+        List<List<Operation>> flows = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            int symbol = client % SYMBOLS.length;
+            flows.add(OrderFlow.generate(client, SYMBOLS[symbol], BASE_PRICE_TICKS[symbol], seed,
+                    (double) rate / clients, TimeUnit.SECONDS.toNanos(durationSeconds)));
+        }
+        return flows;
+    }
+
+    /**
+     * Runs the flows against an exchange. The run ends when every operation has completed; draining the consumers and
+     * the persistence pipeline afterwards is not part of it.
+     */
+    static LoadReport run(InProcessExchange exchange, List<List<Operation>> flows) throws InterruptedException {
+        LoadReport report = new LoadReport();
+        OrderService orderService = exchange.orderService();
+        CountDownLatch ready = new CountDownLatch(flows.size());
+        CountDownLatch done = new CountDownLatch(flows.size());
+        AtomicLong lastCompletion = new AtomicLong();
+        List<LoadReport> clientReports = new ArrayList<>();
+        // Starting a little in the future gives every client time to reach its first operation
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+        for (int client = 0; client < flows.size(); client++) {
+            List<Operation> flow = flows.get(client);
+            LoadReport clientReport = new LoadReport();
+            clientReports.add(clientReport);
+            Thread thread = new Thread(() -> {
+                try {
+                    ready.countDown();
+                    for (Operation operation : flow) {
+                        send(orderService, operation, start, clientReport);
+                    }
+                    lastCompletion.accumulateAndGet(System.nanoTime(), Math::max);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + client);
+            thread.start();
+        }
+        ready.await();
+        done.await();
+        clientReports.forEach(report::merge);
+        report.setElapsedNanos(lastCompletion.get() - start);
+        return report;
+    }
+
+    private static void send(OrderService orderService, Operation operation, long start, LoadReport report) {
+        long due = start + operation.dueNanos();
+        awaitDue(due);
+        long begin = System.nanoTime();
+        try {
+            switch (operation.kind()) {
+                case QUOTE, TAKE -> orderService.placeNewOrder(operation.request());
+                case CANCEL -> orderService.cancelOrders(operation.account(), operation.symbol(), null);
+            }
+        } catch (RuntimeException e) {
+            // E.g. an instrument halted by its circuit breaker; the attempt still counts towards the latencies
+            report.recordError(operation.kind());
+        }
+        report.record(operation.kind(), due, begin, System.nanoTime());
+    }
+
+    /**
+     * Parks until shortly before the due time, then spins, since parking alone can overshoot by tens of microseconds.
+     */
+    private static void awaitDue(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    static String gitRevision() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String revision = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 && !revision.isEmpty() ? revision : "local";
+        } catch (IOException e) {
+            return "local";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "local";
+        }
+    }
+}
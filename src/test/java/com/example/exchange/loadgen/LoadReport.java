@@ -0,0 +1,151 @@
+package com.example.exchange.loadgen;
+
+import com.example.exchange.loadgen.OrderFlow.Kind;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The latencies and counts of one run, merged from every client.
+ * Two latencies are kept per operation kind, both in nanoseconds:
+ * - response time, measured from when the operation was due, which is what a client sending at a fixed rate would
+ *   see, including the time it spent waiting behind a slow operation (this corrects for coordinated omission);
+ * - service time, measured from when the call actually started, which is what naive timing reports.
+ * A run where the two diverge at the tail could not keep up with its schedule.
+ *
+ * Written to a directory as three files, so runs on different commits can be compared:
+ * - {label}.txt, the summary;
+ * - {label}.hgrm, the full response time distribution of all operations in HdrHistogram's percentile format (in
+ *   microseconds), which the HdrHistogram plotter can overlay;
+ * - history.csv, one line appended per run.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final Map<Kind, Histogram> responseTimes = new EnumMap<>(Kind.class);
+    private final Map<Kind, Histogram> serviceTimes = new EnumMap<>(Kind.class);
+    private final Map<Kind, Long> errors = new EnumMap<>(Kind.class);
+    private long elapsedNanos;
+
+    LoadReport() {
+        for (Kind kind : Kind.values()) {
+            responseTimes.put(kind, new Histogram(3));
+            serviceTimes.put(kind, new Histogram(3));
+            errors.put(kind, 0L);
+        }
+    }
+
+    /**
+     * Records one operation. Only called by the client that owns this report.
+     */
+    void record(Kind kind, long dueNanos, long startNanos, long endNanos) {
+        responseTimes.get(kind).recordValue(endNanos - dueNanos);
+        serviceTimes.get(kind).recordValue(endNanos - startNanos);
+    }
+
+    void recordError(Kind kind) {
+        errors.merge(kind, 1L, Long::sum);
+    }
+
+    void merge(LoadReport other) {
+        for (Kind kind : Kind.values()) {
+            responseTimes.get(kind).add(other.responseTimes.get(kind));
+            serviceTimes.get(kind).add(other.serviceTimes.get(kind));
+            errors.merge(kind, other.errors.get(kind), Long::sum);
+        }
+    }
+
+    /**
+     * @param elapsedNanos From the start of the run to the completion of its last operation.
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    long totalOperations() {
+        return combined(responseTimes).getTotalCount();
+    }
+
+    double throughput() {
+        return totalOperations() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Prints the summary to the console and writes the report files.
+     *
+     * @param configuration The parameters of the run, one "name=value" per entry, as printed in the summary.
+     */
+    void write(Path directory, String label, Map<String, Object> configuration) throws IOException {
+        Files.createDirectories(directory);
+        String summary = summary(label, configuration);
+        System.out.print(summary);
+        Files.writeString(directory.resolve(label + ".txt"), summary);
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(label + ".hgrm")), false, StandardCharsets.UTF_8)) {
+            combined(responseTimes).outputPercentileDistribution(out, NANOS_PER_MICRO);
+        }
+
+        Path history = directory.resolve("history.csv");
+        if (Files.notExists(history)) {
+            Files.writeString(history, "label,time," + String.join(",", configuration.keySet())
+                    + ",operations,throughput,p50_us,p90_us,p99_us,p99.9_us,p99.99_us,max_us,errors\n");
+        }
+        Histogram all = combined(responseTimes);
+        StringBuilder line = new StringBuilder(label).append(',').append(Instant.now());
+        configuration.values().forEach(value -> line.append(',').append(value));
+        line.append(',').append(all.getTotalCount()).append(',').append(Math.round(throughput()));
+        for (double percentile : PERCENTILES) {
+            line.append(',').append(micros(all.getValueAtPercentile(percentile)));
+        }
+        line.append(',').append(micros(all.getMaxValue()))
+                .append(',').append(errors.values().stream().mapToLong(Long::longValue).sum())
+                .append('\n');
+        Files.writeString(history, line, StandardOpenOption.APPEND);
+    }
+
+    private String summary(String label, Map<String, Object> configuration) {
+        StringBuilder out = new StringBuilder();
+        out.append("run ").append(label).append('\n');
+        configuration.forEach((name, value) -> out.append("  ").append(name).append('=').append(value).append('\n'));
+        out.append(String.format("operations=%d elapsed=%dms throughput=%,.0f ops/s%n",
+                totalOperations(), elapsedNanos / 1_000_000, throughput()));
+        out.append(String.format("%-8s %-8s %10s %10s %10s %10s %10s %10s %10s %8s%n",
+                "op", "latency", "count", "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "p99.99(us)", "max(us)", "errors"));
+        for (Kind kind : Kind.values()) {
+            out.append(row(kind.name(), "response", responseTimes.get(kind), errors.get(kind)));
+            out.append(row(kind.name(), "service", serviceTimes.get(kind), errors.get(kind)));
+        }
+        long totalErrors = errors.values().stream().mapToLong(Long::longValue).sum();
+        out.append(row("ALL", "response", combined(responseTimes), totalErrors));
+        out.append(row("ALL", "service", combined(serviceTimes), totalErrors));
+        return out.toString();
+    }
+
+    private static String row(String operation, String latency, Histogram histogram, long errors) {
+        StringBuilder row = new StringBuilder(String.format("%-8s %-8s %10d", operation, latency, histogram.getTotalCount()));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(" %10.1f", micros(histogram.getValueAtPercentile(percentile))));
+        }
+        return row.append(String.format(" %10.1f %8d%n", micros(histogram.getMaxValue()), errors)).toString();
+    }
+
+    private static Histogram combined(Map<Kind, Histogram> histograms) {
+        Histogram all = new Histogram(3);
+        histograms.values().forEach(all::add);
+        return all;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / NANOS_PER_MICRO;
+    }
+}
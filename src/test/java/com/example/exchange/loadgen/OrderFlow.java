@@ -0,0 +1,121 @@
+package com.example.exchange.loadgen;
+
+import com.example.exchange.api.dto.OrderRequest;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The operations one load client sends, generated up front from a seed so every run of the same configuration sends
+ * exactly the same orders at exactly the same offsets, and generation is never part of what is measured.
+ *
+ * A client trades one symbol and plays three roles around a mid price that follows a seeded random walk:
+ * - market makers (accounts "mm-{client}-{n}") quote limit orders a few ticks away from the mid on both sides;
+ * - an aggressive taker (account "taker-{client}") sends limit orders priced through the spread, which trade against
+ *   the quotes and rest any remainder;
+ * - at a fixed interval, a cancel storm pulls every maker's quotes at once with one mass cancel per maker, all due at
+ *   the same instant, as when makers react to a price move.
+ *
+ * Operations are spaced evenly at the client's rate; storm cancels share one due time, so a storm shows up in the
+ * latencies of everything queued behind it.
+ */
+final class OrderFlow {
+
+    enum Kind {QUOTE, TAKE, CANCEL}
+
+    /**
+     * @param dueNanos When the operation should be sent, as an offset from the start of the run.
+     * @param request  The order to place, or null for a cancel.
+     */
+    record Operation(long dueNanos, Kind kind, String symbol, String account, OrderRequest request) {
+    }
+
+    static final int MAKERS_PER_CLIENT = 8;
+
+    private static final double TAKE_RATIO = 0.25;
+    private static final long STORM_INTERVAL_NANOS = 1_000_000_000L;
+    private static final long MID_STEP_NANOS = 10_000_000L;
+    private static final int MAX_MID_MOVE_TICKS = 5;
+    private static final int HALF_SPREAD_TICKS = 5;
+    private static final int QUOTE_LEVELS = 10;
+    private static final int MAX_TAKE_THROUGH_TICKS = 5;
+    // Prices are generated in ticks of 0.01 and quantities in lots of 0.001 (1 to 1000 lots)
+    private static final int PRICE_SCALE = 2;
+    private static final int QUANTITY_SCALE = 3;
+    private static final int MAX_LOTS = 1000;
+
+    private OrderFlow() {
+    }
+
+    /**
+     * @param basePriceTicks Where the mid price starts, in ticks.
+     */
+    static List<Operation> generate(int client, String symbol, long basePriceTicks, long seed,
+                                    double operationsPerSecond, long durationNanos) {
+        Random random = new Random(seed * 31 + client);
+        long[] mid = midPath(basePriceTicks, durationNanos, new Random(seed * 31 + symbol.hashCode()));
+        double interval = 1e9 / operationsPerSecond;
+
+        List<Operation> operations = new ArrayList<>((int) (durationNanos / interval) + 16);
+        long nextStorm = STORM_INTERVAL_NANOS;
+        for (long n = 0; ; n++) {
+            long due = (long) (n * interval);
+            if (due >= durationNanos) {
+                break;
+            }
+            if (due >= nextStorm) {
+                for (int maker = 0; maker < MAKERS_PER_CLIENT; maker++) {
+                    operations.add(new Operation(nextStorm, Kind.CANCEL, symbol, maker(client, maker), null));
+                }
+                nextStorm += STORM_INTERVAL_NANOS;
+            }
+
+            long midTicks = mid[(int) (due / MID_STEP_NANOS)];
+            Side side = random.nextBoolean() ? Side.BUY : Side.SELL;
+            int direction = side == Side.BUY ? 1 : -1;
+            if (random.nextDouble() < TAKE_RATIO) {
+                long price = midTicks + direction * (HALF_SPREAD_TICKS + random.nextInt(MAX_TAKE_THROUGH_TICKS + 1));
+                String account = "taker-" + client;
+                operations.add(new Operation(due, Kind.TAKE, symbol, account, order(symbol, account, side, price, random)));
+            } else {
+                long price = midTicks - direction * (HALF_SPREAD_TICKS + random.nextInt(QUOTE_LEVELS));
+                String account = maker(client, random.nextInt(MAKERS_PER_CLIENT));
+                operations.add(new Operation(due, Kind.QUOTE, symbol, account, order(symbol, account, side, price, random)));
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * One mid price per step of the run, shared by every client on the symbol because it does not depend on the client.
+     */
+    private static long[] midPath(long basePriceTicks, long durationNanos, Random random) {
+        long[] path = new long[(int) (durationNanos / MID_STEP_NANOS) + 1];
+        long price = basePriceTicks;
+        for (int i = 0; i < path.length; i++) {
+            price = Math.max(HALF_SPREAD_TICKS + QUOTE_LEVELS + 1,
+                    price + random.nextInt(2 * MAX_MID_MOVE_TICKS + 1) - MAX_MID_MOVE_TICKS);
+            path[i] = price;
+        }
+        return path;
+    }
+
+    private static OrderRequest order(String symbol, String account, Side side, long priceTicks, Random random) {
+        OrderRequest request = new OrderRequest();
+        request.setSymbol(symbol);
+        request.setAccount(account);
+        request.setSide(side);
+        request.setOrderType(OrderType.LIMIT);
+        request.setPrice(BigDecimal.valueOf(priceTicks, PRICE_SCALE));
+        request.setQuantity(BigDecimal.valueOf(1 + random.nextInt(MAX_LOTS), QUANTITY_SCALE));
+        return request;
+    }
+
+    private static String maker(int client, int maker) {
+        return "mm-" + client + "-" + maker;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.exchange.loadgen;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the first minute of latency after startup with and without the startup warm-up (EngineWarmup).
+ * JIT state cannot be reset inside a JVM, so each mode runs in a freshly forked JVM: "cold" sends the load harness
+ * flow to a new exchange straight away, "warm" runs the warm-up first. Both send the same seeded flow at the same
+ * rate, and both reports are written to target/loadgen/warmup, with a line each in its history.csv.
+ *
+ * Not part of the test suite; run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.example.exchange.loadgen.WarmupBenchmark
+ * </pre>
+ * Optional system properties (defaults in brackets), passed on to both JVMs: loadgen.rate [5000]; loadgen.clients [4];
+ * loadgen.duration-seconds [60]; loadgen.seed [42]; loadgen.warmup-orders [50000]; loadgen.label [the current git commit].
+ */
+public class WarmupBenchmark {
+
+    private static final String[] MODES = {"cold", "warm"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1) {
+            runMode(args[0]);
+            return;
+        }
+        for (String mode : MODES) {
+            List<String> command = new ArrayList<>(List.of(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-cp", classpath()));
+            System.getProperties().stringPropertyNames().stream()
+                    .filter(name -> name.startsWith("loadgen."))
+                    .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+            command.add(WarmupBenchmark.class.getName());
+            command.add(mode);
+
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) {
+                throw new IllegalStateException("The " + mode + " run failed with exit code " + exit);
+            }
+        }
+    }
+
+    private static void runMode(String mode) throws Exception {
+        int rate = Integer.getInteger("loadgen.rate", 5_000);
+        int clients = Integer.getInteger("loadgen.clients", 4);
+        int durationSeconds = Integer.getInteger("loadgen.duration-seconds", 60);
+        long seed = Long.getLong("loadgen.seed", 42L);
+        int warmupOrders = Integer.getInteger("loadgen.warmup-orders", 50_000);
+        String label = System.getProperty("loadgen.label", LoadHarness.gitRevision());
+
+        LoadReport report;
+        long warmupMillis = 0;
+        try (InProcessExchange exchange = InProcessExchange.start(LoadHarness.INSTRUMENTS, LoadHarness.OUTPUT)) {
+            if (mode.equals("warm")) {
+                long start = System.nanoTime();
+                exchange.warmUp(warmupOrders);
+                warmupMillis = (System.nanoTime() - start) / 1_000_000;
+            }
+            report = LoadHarness.run(exchange, LoadHarness.flows(clients, rate, durationSeconds, seed));
+        }
+
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("mode", mode);
+        configuration.put("warmup_ms", warmupMillis);
+        configuration.put("rate", rate);
+        configuration.put("clients", clients);
+        configuration.put("duration_s", durationSeconds);
+        configuration.put("seed", seed);
+        report.write(LoadHarness.OUTPUT.resolve("warmup"), label + "-" + mode, configuration);
+    }
+
+    /**
+     * exec:java loads the test classpath into its own class loader rather than onto java.class.path, so the forked JVMs
+     * get the classpath of the loader that loaded this class.
+     */
+    private static String classpath() throws URISyntaxException {
+        if (!(WarmupBenchmark.class.getClassLoader() instanceof URLClassLoader loader)) {
+            return System.getProperty("java.class.path");
+        }
+        List<String> entries = new ArrayList<>();
+        for (URL url : loader.getURLs()) {
+            entries.add(Path.of(url.toURI()).toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.exchange.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StageLatencyHistogramTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final StageLatencyHistogram histogram = new StageLatencyHistogram(clock::get);
+
+    @Test
+    void whenSeveralThreadsRecord_thenTheirObservationsAreMergedAndFinishedThreadsAreDropped() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 1; t <= 4; t++) {
+            long micros = t * 100L;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(50));
+        assertThat(histogram.recordingThreads()).isEqualTo(5);
+
+        assertThat(histogram.totalCount()).isEqualTo(4_001);
+        assertThat(histogram.maxSeconds()).isCloseTo(400e-6, within(4e-6));
+        assertThat(histogram.percentileSeconds(50.0)).isCloseTo(200e-6, within(2e-6));
+        // The four finished threads were merged one last time and let go; the test thread keeps its recorder
+        assertThat(histogram.recordingThreads()).isEqualTo(1);
+
+        // What they recorded is still reported until it leaves the window
+        advanceSeconds(30);
+        assertThat(histogram.totalCount()).isEqualTo(4_001);
+        assertThat(histogram.maxSeconds()).isCloseTo(400e-6, within(4e-6));
+    }
+
+    @Test
+    void whenTimePasses_thenObservationsOlderThanAMinuteAreNoLongerReported() {
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(histogram.maxSeconds()).isCloseTo(0.005, within(0.0001));
+
+        advanceSeconds(30);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        assertThat(histogram.maxSeconds()).isCloseTo(0.005, within(0.0001));
+
+        // 65 seconds after the first observation, 35 after the second
+        advanceSeconds(35);
+        assertThat(histogram.maxSeconds()).isCloseTo(0.002, within(0.0001));
+
+        // Without a scrape in between, the window still only holds the last minute
+        advanceSeconds(300);
+        assertThat(histogram.maxSeconds()).isZero();
+        assertThat(histogram.percentileSeconds(99.0)).isZero();
+        // The count is cumulative, for rate() in Prometheus
+        assertThat(histogram.totalCount()).isEqualTo(2);
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
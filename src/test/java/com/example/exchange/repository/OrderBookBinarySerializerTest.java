@@ -0,0 +1,57 @@
+package com.example.exchange.repository;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookBinarySerializerTest {
+
+    private final OrderBookBinarySerializer serializer = new OrderBookBinarySerializer();
+
+    @Test
+    void whenBookIsSerialized_thenItRoundTripsWithEqualValues() {
+        OrderBookDto book = new OrderBookDto("BTC/USD",
+                List.of(level("50000.12", "0.5"), level("50000.11", "1.25"), level("49990", "0.00000001")),
+                List.of(level("50000.13", "2"), level("50100.5", "10")));
+
+        OrderBookDto decoded = serializer.deserialize(serializer.serialize(book));
+
+        assertThat(decoded.getSymbol()).isEqualTo("BTC/USD");
+        assertThat(decoded.getBids()).hasSize(3);
+        assertThat(decoded.getAsks()).hasSize(2);
+        for (int i = 0; i < book.getBids().size(); i++) {
+            assertThat(decoded.getBids().get(i).getPrice()).isEqualByComparingTo(book.getBids().get(i).getPrice());
+            assertThat(decoded.getBids().get(i).getTotalQuantity()).isEqualByComparingTo(book.getBids().get(i).getTotalQuantity());
+        }
+        assertThat(decoded.getAsks().get(1).getPrice()).isEqualByComparingTo("50100.5");
+        assertThat(decoded.getAsks().get(1).getTotalQuantity()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void whenLevelsShareTrailingZeros_thenPayloadIsCompact() {
+        OrderBookDto book = new OrderBookDto("ETH/USD",
+                List.of(level("3000.01", "1"), level("3000.00", "2")),
+                List.of(level("3000.02", "3")));
+
+        byte[] bytes = serializer.serialize(book);
+
+        // header (2) + symbol (1 + 7) + exponents (2) + counts (2) + three levels of at most 4 + 1 bytes
+        assertThat(bytes.length).isLessThanOrEqualTo(29);
+    }
+
+    @Test
+    void whenPayloadIsLegacyJson_thenItDecodesAsCacheMiss() {
+        byte[] json = "{\"symbol\":\"BTC/USD\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(serializer.deserialize(json)).isNull();
+    }
+
+    private static OrderBookDto.PriceLevel level(String price, String quantity) {
+        return new OrderBookDto.PriceLevel(new BigDecimal(price), new BigDecimal(quantity));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.exchange.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookNearCacheTest {
+
+    private static final String SYMBOL = "BTC/USD";
+
+    private final OrderBookNearCache cache = new OrderBookNearCache();
+
+    @Test
+    void whenTheSequenceMatches_thenTheCachedBytesAreReturned() {
+        byte[] body = body("v5");
+        cache.put(SYMBOL, 0, 5, body);
+
+        assertThat(cache.get(SYMBOL, 0, 5)).isSameAs(body);
+        assertThat(cache.get(SYMBOL, 0, 6)).isNull();
+        assertThat(cache.get(SYMBOL, 0, 4)).isNull();
+        // Views and symbols are cached independently
+        assertThat(cache.get(SYMBOL, 1, 5)).isNull();
+        assertThat(cache.get("ETH/USD", 0, 5)).isNull();
+    }
+
+    @Test
+    void whenAnOlderVersionIsPutLate_thenItDoesNotReplaceTheNewerEntry() {
+        byte[] newer = body("v7");
+        cache.put(SYMBOL, 0, 7, newer);
+
+        // A reader that built the view at sequence 6 finishes encoding after one that built it at 7
+        cache.put(SYMBOL, 0, 6, body("v6"));
+
+        assertThat(cache.get(SYMBOL, 0, 7)).isSameAs(newer);
+        assertThat(cache.get(SYMBOL, 0, 6)).isNull();
+
+        byte[] newest = body("v8");
+        cache.put(SYMBOL, 0, 8, newest);
+        assertThat(cache.get(SYMBOL, 0, 8)).isSameAs(newest);
+    }
+
+    @Test
+    void whenPutsRace_thenTheNewestVersionWins() throws InterruptedException {
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            int first = w;
+            writers[w] = new Thread(() -> {
+                for (long sequence = first; sequence < 10_000; sequence += writers.length) {
+                    cache.put(SYMBOL, 0, sequence, body("v" + sequence));
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(new String(cache.get(SYMBOL, 0, 9_999), StandardCharsets.UTF_8)).isEqualTo("v9999");
+    }
+
+    private static byte[] body(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.exchange.repository;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the binary order book codec with the type-annotated JSON serializer previously configured in RedisConfig.
+ * Not part of the test suite; run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dbenchmark.class=com.example.exchange.repository.OrderBookSerializationBenchmark
+ * </pre>
+ */
+public class OrderBookSerializationBenchmark {
+
+    private static final int[] DEPTHS = {10, 1_000, 10_000};
+    private static final long TARGET_NANOS_PER_CASE = 2_000_000_000L;
+
+    public static void main(String[] args) {
+        RedisSerializer<Object> json = legacyJsonSerializer();
+        RedisSerializer<OrderBookDto> binary = new OrderBookBinarySerializer();
+
+        System.out.printf("%-8s %-7s %12s %14s %14s%n", "depth", "codec", "bytes", "encode ns/op", "decode ns/op");
+        for (int depth : DEPTHS) {
+            OrderBookDto book = book(depth, new Random(42));
+            report(depth, "json", json::serialize, json::deserialize, book);
+            report(depth, "binary", b -> binary.serialize((OrderBookDto) b), binary::deserialize, book);
+        }
+    }
+
+    private static void report(int depth, String name, Encoder encoder, Decoder decoder, OrderBookDto book) {
+        byte[] payload = encoder.encode(book);
+        int iterations = calibrate(encoder, decoder, book, payload);
+
+        long encodeNanos = time(iterations, () -> encoder.encode(book));
+        long decodeNanos = time(iterations, () -> decoder.decode(payload));
+        System.out.printf("%-8d %-7s %12d %14d %14d%n", depth, name, payload.length,
+                encodeNanos / iterations, decodeNanos / iterations);
+    }
+
+    /**
+     * Warms up both paths and picks an iteration count that runs for roughly the target time.
+     */
+    private static int calibrate(Encoder encoder, Decoder decoder, OrderBookDto book, byte[] payload) {
+        int iterations = 10;
+        long elapsed;
+        do {
+            iterations *= 2;
+            int n = iterations;
+            elapsed = time(n, () -> encoder.encode(book)) + time(n, () -> decoder.decode(payload));
+        } while (elapsed < TARGET_NANOS_PER_CASE / 4);
+        return iterations;
+    }
+
+    private static long time(int iterations, Runnable operation) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static OrderBookDto book(int depth, Random random) {
+        List<OrderBookDto.PriceLevel> bids = new ArrayList<>(depth);
+        List<OrderBookDto.PriceLevel> asks = new ArrayList<>(depth);
+        BigDecimal tick = new BigDecimal("0.01");
+        BigDecimal bid = new BigDecimal("50000.00");
+        BigDecimal ask = new BigDecimal("50000.01");
+        for (int i = 0; i < depth; i++) {
+            bids.add(new OrderBookDto.PriceLevel(bid, quantity(random)));
+            asks.add(new OrderBookDto.PriceLevel(ask, quantity(random)));
+            bid = bid.subtract(tick.multiply(BigDecimal.valueOf(1 + random.nextInt(3))));
+            ask = ask.add(tick.multiply(BigDecimal.valueOf(1 + random.nextInt(3))));
+        }
+        return new OrderBookDto("BTC/USD", bids, asks);
+    }
+
+    private static BigDecimal quantity(Random random) {
+        return BigDecimal.valueOf(1 + random.nextInt(500_000), 4);
+    }
+
+    private static RedisSerializer<Object> legacyJsonSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build(),
+                ObjectMapper.DefaultTyping.NON_FINAL
+        );
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode(OrderBookDto book);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        Object decode(byte[] payload);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.exchange.repository;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionMaintenanceTest {
+
+    @Test
+    void whenRetentionIsTwelveMonths_thenCurrentAndElevenPreviousMonthsAreKept() {
+        LocalDate cutoff = PartitionMaintenance.archiveCutoff(LocalDate.of(2026, 10, 1), 12);
+
+        // Months ending on or before the cutoff are archived: October 2025 goes, November 2025 stays
+        assertThat(cutoff).isEqualTo(LocalDate.of(2025, 11, 1));
+    }
+
+    @Test
+    void whenRetentionIsOneMonth_thenOnlyTheCurrentMonthIsKept() {
+        assertThat(PartitionMaintenance.archiveCutoff(LocalDate.of(2026, 1, 1), 1)).isEqualTo(LocalDate.of(2026, 1, 1));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.exchange.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL and exercises the partition functions they create, through
+ * PartitionMaintenance as the application calls them.
+ */
+@Testcontainers
+class PartitionMigrationIT {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    private final LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyDatabase() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS archive CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+    }
+
+    @Test
+    void whenMigrated_thenUpcomingMonthsExistAndOrdersLandInTheirMonthsHashPartition() {
+        assertThat(migrate()).isEqualTo(2);
+
+        for (int month = 0; month <= 3; month++) {
+            String orders = partition("orders", currentMonth.plusMonths(month));
+            assertThat(exists(orders)).as(orders).isTrue();
+            assertThat(exists(partition("trades", currentMonth.plusMonths(month)))).isTrue();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_inherits WHERE inhparent = to_regclass(?)", Integer.class, orders)).isEqualTo(4);
+        }
+
+        insertOrder(OffsetDateTime.now(ZoneOffset.UTC), "mm-1");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM orders", String.class))
+                .startsWith(partition("orders", currentMonth) + "_h");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM orders_default", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT account FROM orders", String.class)).isEqualTo("mm-1");
+    }
+
+    @Test
+    void whenMaintenanceRuns_thenMonthsPastRetentionMoveToTheArchiveWithTheirRows() {
+        migrate();
+        LocalDate expired = currentMonth.minusMonths(13);
+        LocalDate retained = currentMonth.minusMonths(11);
+        jdbcTemplate.queryForList("SELECT ensure_monthly_partitions(?, ?, ?, ?)", "orders", Date.valueOf(expired), 3, 4);
+        insertOrder(expired.plusDays(14).atStartOfDay().atOffset(ZoneOffset.UTC), null);
+        insertOrder(retained.plusDays(14).atStartOfDay().atOffset(ZoneOffset.UTC), null);
+
+        PartitionMaintenance maintenance = new PartitionMaintenance(jdbcTemplate, true, 4, 12);
+        maintenance.maintainPartitions();
+        // Idempotent: a second run creates and archives nothing more
+        maintenance.maintainPartitions();
+
+        assertThat(exists(partition("orders", expired))).isFalse();
+        assertThat(exists("archive." + partition("orders", expired))).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM archive." + partition("orders", expired), Integer.class)).isEqualTo(1);
+        assertThat(exists(partition("orders", retained))).isTrue();
+        assertThat(exists(partition("orders", currentMonth.plusMonths(4)))).isTrue();
+        assertThat(exists(partition("trades", currentMonth.plusMonths(4)))).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void whenTablesFromDdlAutoExist_thenTheirRowsAreMovedIntoPartitionsAndIdsContinue() {
+        jdbcTemplate.execute("""
+                CREATE TABLE orders (
+                    id BIGSERIAL PRIMARY KEY, symbol VARCHAR(255), side VARCHAR(255), order_type VARCHAR(255),
+                    status VARCHAR(255), price NUMERIC(18, 8), quantity NUMERIC(18, 8),
+                    remaining_quantity NUMERIC(18, 8), "timestamp" TIMESTAMP(6) WITH TIME ZONE)""");
+        LocalDate legacyMonth = currentMonth.minusMonths(2);
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, symbol, side, order_type, status, price, quantity, remaining_quantity, "timestamp")
+                VALUES (41, 'BTC/USD', 'BUY', 'LIMIT', 'OPEN', 100, 1, 1, ?)""",
+                legacyMonth.plusDays(3).atStartOfDay().atOffset(ZoneOffset.UTC));
+
+        migrate();
+
+        assertThat(exists("orders_unpartitioned")).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM orders WHERE id = 41", String.class))
+                .startsWith(partition("orders", legacyMonth) + "_h");
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('order_id_seq')", Long.class)).isEqualTo(42);
+    }
+
+    /**
+     * Migrates like the application does (see spring.flyway.* in application.properties).
+     *
+     * @return The number of migrations applied.
+     */
+    private int migrate() {
+        return Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate()
+                .migrationsExecuted;
+    }
+
+    private void insertOrder(OffsetDateTime timestamp, String account) {
+        jdbcTemplate.update("""
+                INSERT INTO orders (symbol, side, order_type, status, price, quantity, remaining_quantity, "timestamp", account)
+                VALUES ('BTC/USD', 'BUY', 'LIMIT', 'OPEN', 100, 1, 1, ?, ?)""", timestamp, account);
+    }
+
+    private boolean exists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    private static String partition(String table, LocalDate month) {
+        return table + "_" + month.format(PARTITION_MONTH);
+    }
+}
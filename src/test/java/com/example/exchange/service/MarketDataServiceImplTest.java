@@ -0,0 +1,59 @@
+package com.example.exchange.service;
+
+import com.example.exchange.core.marketdata.TradeAggregator;
+import com.example.exchange.domain.Candle;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.repository.CandleRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MarketDataServiceImplTest {
+
+    private final CandleRepository candleRepository = mock(CandleRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final MarketDataServiceImpl service =
+            new MarketDataServiceImpl(new TradeAggregator(10, 10), candleRepository, messagingTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSavingClosedBarsFails_thenTheyAreRetriedOnTheNextFlushWithoutBeingPublishedAgain() {
+        when(candleRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Trade trade = new Trade("BTC/USD", 1L, 2L, new BigDecimal("100"), BigDecimal.ONE);
+        trade.setTimestamp(Instant.ofEpochMilli(0));
+        service.onTrades(List.of(trade));
+
+        // The trade is long past, so the first flush closes one bar per interval
+        service.flushClosedBars();
+        service.flushClosedBars();
+
+        ArgumentCaptor<List<Candle>> saved = ArgumentCaptor.forClass(List.class);
+        verify(candleRepository, times(2)).saveAll(saved.capture());
+        List<Candle> failed = saved.getAllValues().get(0);
+        List<Candle> retried = saved.getAllValues().get(1);
+        assertThat(retried).isNotEmpty().hasSameSizeAs(failed);
+        assertThat(retried).extracting(Candle::getInterval)
+                .containsExactlyElementsOf(failed.stream().map(Candle::getInterval).toList());
+        assertThat(retried).allSatisfy(bar -> assertThat(bar.getId()).isNull());
+        verify(messagingTemplate, times(failed.size())).convertAndSend(eq("/topic/candles"), any(Candle.class));
+
+        service.flushClosedBars();
+        verify(candleRepository, times(2)).saveAll(anyList());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.exchange.service;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookViewsTest {
+
+    private final OrderBook book = new OrderBook("BTC/USD");
+    private long nextId = 1;
+
+    @Test
+    void whenDepthIsLimited_thenOnlyBestLevelsAreReturned() {
+        rest(Side.BUY, "99", "1");
+        rest(Side.BUY, "100", "2");
+        rest(Side.BUY, "98", "3");
+        rest(Side.SELL, "101", "4");
+
+        OrderBookDto view = OrderBookViews.fromBook(book, 2, null);
+
+        assertThat(view.getBids()).extracting(OrderBookDto.PriceLevel::getPrice).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100"), new BigDecimal("99"));
+        assertThat(view.getAsks()).hasSize(1);
+    }
+
+    @Test
+    void whenGroupingIsSet_thenBidsRoundDownAndAsksRoundUpIntoBuckets() {
+        rest(Side.BUY, "100.7", "1");
+        rest(Side.BUY, "100.2", "2");
+        rest(Side.BUY, "99.9", "3");
+        rest(Side.SELL, "101.1", "4");
+        rest(Side.SELL, "101.9", "5");
+        rest(Side.SELL, "102.5", "6");
+
+        OrderBookDto view = OrderBookViews.fromBook(book, 1, BigDecimal.ONE);
+
+        assertThat(view.getBids()).hasSize(1);
+        assertThat(view.getBids().get(0).getPrice()).isEqualByComparingTo("100");
+        assertThat(view.getBids().get(0).getTotalQuantity()).isEqualByComparingTo("3");
+        assertThat(view.getAsks()).hasSize(1);
+        assertThat(view.getAsks().get(0).getPrice()).isEqualByComparingTo("102");
+        assertThat(view.getAsks().get(0).getTotalQuantity()).isEqualByComparingTo("9");
+    }
+
+    private void rest(Side side, String price, String quantity) {
+        Order order = new Order("BTC/USD", side, OrderType.LIMIT, new BigDecimal(price), new BigDecimal(quantity));
+        order.setId(nextId++);
+        book.addOrder(order);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.exchange.service;
+
+import com.example.exchange.api.dto.OrderBookDto;
+import com.example.exchange.core.events.EngineEventRing;
+import com.example.exchange.core.instrument.InstrumentRegistry;
+import com.example.exchange.core.instrument.InstrumentState;
+import com.example.exchange.core.journal.EventJournal;
+import com.example.exchange.core.matching.MatchingEngine;
+import com.example.exchange.core.orderbook.OrderBook;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.metrics.EngineMetrics;
+import com.example.exchange.repository.OrderBookCache;
+import com.example.exchange.repository.OrderBookNearCache;
+import com.example.exchange.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceImplTest {
+
+    private static final String SYMBOL = "BTC/USD";
+
+    private final AtomicLong orderIds = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderBookCache orderBookCache = mock(OrderBookCache.class);
+    private final InstrumentRegistry instruments = new InstrumentRegistry(SYMBOL + ":0.01:0.001", InstrumentState.OPEN);
+    private final MatchingEngine engine = new MatchingEngine(new EngineMetrics(new SimpleMeterRegistry()),
+            new EventJournal(false, "unused", 0, 1, new SimpleMeterRegistry()), instruments, new EngineEventRing(64));
+
+    @Test
+    void whenTheBookIsUnchanged_thenTheSameEncodedBytesAreServedAgain() {
+        OrderServiceImpl service = service(engine);
+        engine.processOrder(order(Side.SELL, "101", "1", "mm-1"));
+
+        byte[] first = service.getOrderBookJson(SYMBOL, null, null);
+
+        assertThat(service.getOrderBookJson(SYMBOL, null, null)).isSameAs(first);
+        assertThat(service.getOrderBookJson(SYMBOL, 10, null)).isNotSameAs(first);
+        assertThat(service.getOrderBookJson(SYMBOL, 10, null)).isSameAs(service.getOrderBookJson(SYMBOL, 10, null));
+        verify(orderBookCache, never()).getOrderBook(anyString());
+    }
+
+    @Test
+    void whenTheBookChanges_thenTheNextReadIsBuiltFromTheNewBook() throws IOException {
+        OrderServiceImpl service = service(engine);
+        engine.processOrder(order(Side.SELL, "101", "1", "mm-1"));
+        byte[] before = service.getOrderBookJson(SYMBOL, null, null);
+
+        // An order
+        engine.processOrder(order(Side.BUY, "99", "2", "mm-2"));
+        byte[] afterOrder = service.getOrderBookJson(SYMBOL, null, null);
+        assertThat(afterOrder).isNotSameAs(before);
+        assertThat(levels(afterOrder, "bids")).hasSize(1);
+
+        // A mass cancel
+        engine.cancelOrders(SYMBOL, "mm-1", null);
+        byte[] afterCancel = service.getOrderBookJson(SYMBOL, null, null);
+        assertThat(levels(afterCancel, "asks")).isEmpty();
+
+        // An auction start, which changes no level but does change the book
+        engine.startAuction(SYMBOL);
+        byte[] afterStart = service.getOrderBookJson(SYMBOL, null, null);
+        assertThat(afterStart).isNotSameAs(afterCancel).isEqualTo(afterCancel);
+
+        // Orders resting uncrossed during the call phase, then the uncross
+        engine.processOrder(order(Side.SELL, "98", "2", "mm-1"));
+        assertThat(levels(service.getOrderBookJson(SYMBOL, null, null), "asks")).hasSize(1);
+        engine.uncross(SYMBOL);
+        byte[] afterUncross = service.getOrderBookJson(SYMBOL, null, null);
+        assertThat(levels(afterUncross, "bids")).isEmpty();
+        assertThat(levels(afterUncross, "asks")).isEmpty();
+    }
+
+    @Test
+    void whenTheBookIsDroppedAndRecreated_thenBytesOfTheOldBookAreNotServed() throws IOException {
+        OrderServiceImpl service = service(engine);
+        engine.processOrder(order(Side.SELL, "101", "1", "mm-1"));
+        service.getOrderBookJson(SYMBOL, null, null);
+
+        // The same number of changes to the new book: it must not come back with the sequence the old one had
+        engine.removeOrderBook(SYMBOL);
+        engine.processOrder(order(Side.SELL, "105", "1", "mm-1"));
+
+        JsonNode asks = levels(service.getOrderBookJson(SYMBOL, null, null), "asks");
+        assertThat(asks).hasSize(1);
+        assertThat(asks.get(0).get("price").decimalValue()).isEqualByComparingTo("105");
+    }
+
+    @Test
+    void whenTheBookIsDroppedWhileItIsRead_thenTheRedisSnapshotIsServed() throws IOException {
+        MatchingEngine dropping = mock(MatchingEngine.class);
+        when(dropping.getOrderBook(SYMBOL)).thenReturn(new OrderBook(SYMBOL));
+        when(dropping.readBook(eq(SYMBOL), any())).thenReturn(null);
+        OrderBookDto snapshot = new OrderBookDto(SYMBOL, List.of(),
+                List.of(new OrderBookDto.PriceLevel(new BigDecimal("102"), BigDecimal.ONE)));
+        when(orderBookCache.getOrderBook(SYMBOL)).thenReturn(Optional.of(snapshot));
+
+        JsonNode asks = levels(service(dropping).getOrderBookJson(SYMBOL, null, null), "asks");
+
+        assertThat(asks).hasSize(1);
+        assertThat(asks.get(0).get("price").decimalValue()).isEqualByComparingTo("102");
+    }
+
+    @Test
+    void whenTheBookIsDroppedWhileItIsReadAndRedisHasNoSnapshot_thenAnEmptyBookIsServedAndNothingIsCached() throws IOException {
+        MatchingEngine dropping = mock(MatchingEngine.class);
+        when(dropping.getOrderBook(SYMBOL)).thenReturn(new OrderBook(SYMBOL));
+        when(dropping.readBook(eq(SYMBOL), any())).thenReturn(null);
+        when(orderBookCache.getOrderBook(SYMBOL)).thenReturn(Optional.empty());
+        OrderServiceImpl service = service(dropping);
+
+        assertThat(service.findOrderBookJson(SYMBOL, null, null)).isEmpty();
+        byte[] body = service.getOrderBookJson(SYMBOL, null, null);
+
+        assertThat(levels(body, "bids")).isEmpty();
+        assertThat(levels(body, "asks")).isEmpty();
+        verify(orderBookCache, never()).updateOrderBook(anyString(), any());
+    }
+
+    private OrderServiceImpl service(MatchingEngine matchingEngine) {
+        return new OrderServiceImpl(mock(OrderRepository.class), matchingEngine, instruments, orderBookCache,
+                new OrderBookNearCache(), mock(SimpMessagingTemplate.class), objectMapper);
+    }
+
+    private Order order(Side side, String price, String quantity, String account) {
+        Order order = new Order(SYMBOL, side, OrderType.LIMIT, new BigDecimal(price), new BigDecimal(quantity));
+        order.setId(orderIds.incrementAndGet());
+        order.setAccount(account);
+        return order;
+    }
+
+    private JsonNode levels(byte[] body, String side) throws IOException {
+        return objectMapper.readTree(body).get(side);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.exchange.service;
+
+import com.example.exchange.core.matching.FillReport;
+import com.example.exchange.domain.Order;
+import com.example.exchange.domain.OrderStatus;
+import com.example.exchange.domain.OrderType;
+import com.example.exchange.domain.Side;
+import com.example.exchange.domain.Trade;
+import com.example.exchange.repository.OrderRepository;
+import com.example.exchange.repository.TradeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PersistenceServiceTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private final TradeRepository tradeRepository = mock(TradeRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private PersistenceService service;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void whenAnOrderFillsSeveralTimes_thenOnlyItsLastStateIsWritten() {
+        Order resting = order(1L, "3");
+        List<FillReport> fills = List.of(
+                new FillReport(resting, new BigDecimal("1"), new BigDecimal("2"), OrderStatus.PARTIALLY_FILLED),
+                new FillReport(resting, new BigDecimal("2"), BigDecimal.ZERO, OrderStatus.FILLED),
+                // Reports are ranked by state, not by position, so an out-of-order report does not win
+                new FillReport(resting, new BigDecimal("1"), new BigDecimal("2"), OrderStatus.PARTIALLY_FILLED));
+
+        PersistenceBatch batch = PersistenceBatch.of("BTC/USD", List.of(), fills);
+
+        assertThat(batch.orderUpdates()).containsExactly(
+                new OrderStateUpdate(1L, "BTC/USD", resting.getTimestamp(), BigDecimal.ZERO, OrderStatus.FILLED));
+    }
+
+    @Test
+    void whenABatchIsBuilt_thenItHoldsCopiesOfThePublishedTrades() {
+        Trade published = new Trade("BTC/USD", 1L, 2L, new BigDecimal("50000"), BigDecimal.ONE);
+
+        PersistenceBatch batch = PersistenceBatch.of("BTC/USD", List.of(published), List.of());
+        batch.trades().get(0).setId(99L);
+
+        assertThat(batch.trades().get(0)).isNotSameAs(published);
+        assertThat(batch.trades().get(0)).usingRecursiveComparison().ignoringFields("id").isEqualTo(published);
+        assertThat(published.getId()).isNull();
+    }
+
+    @Test
+    void whenAWriteFails_thenItIsRetriedUntilItSucceeds() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return invocation.getArgument(0);
+        });
+        service = newService(1, 16, BackpressurePolicy.BLOCK, 5);
+
+        submitTradeAndFill(7L);
+
+        verify(orderRepository, timeout(2_000)).applyState(eq(7L), eq("BTC/USD"), any(), any(), eq(OrderStatus.FILLED));
+        assertThat(attempts).hasValue(3);
+        assertThat(service.getSpilledCount()).isZero();
+    }
+
+    @Test
+    void whenRetriesAreExhausted_thenTheBatchIsSpilledAndReplayed() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return invocation.getArgument(0);
+        });
+        service = newService(1, 16, BackpressurePolicy.BLOCK, 2);
+
+        submitTradeAndFill(7L);
+
+        verify(orderRepository, timeout(5_000)).applyState(eq(7L), eq("BTC/USD"), any(), any(), eq(OrderStatus.FILLED));
+        assertThat(service.getSpilledCount()).isEqualTo(1);
+        assertThat(service.getSpillPendingCount()).isZero();
+    }
+
+    @Test
+    void whenTheQueueIsFullUnderShedPolicy_thenBatchesAreDroppedAndCounted() throws Exception {
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            writerStarted.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        service = newService(1, 1, BackpressurePolicy.SHED, 1);
+
+        submitTradeAndFill(1L);
+        writerStarted.await();
+        submitTradeAndFill(2L); // fills the queue
+        submitTradeAndFill(3L); // shed
+        release.countDown();
+
+        verify(orderRepository, timeout(2_000)).applyState(eq(2L), eq("BTC/USD"), any(), any(), any());
+        assertThat(service.getShedCount()).isEqualTo(1);
+        verify(tradeRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void whenOneBatchIsRejected_thenTheOthersAreWrittenAndItIsDeadLetteredAfterRepeatedRejections() throws Exception {
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Rejected in the group write, on its own, and once more when replayed
+        CountDownLatch rejections = new CountDownLatch(3);
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Trade> trades = invocation.getArgument(0);
+            if (trades.stream().anyMatch(trade -> trade.getBuyOrderId() == 13L)) {
+                rejections.countDown();
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            writerStarted.countDown();
+            release.await();
+            return trades;
+        });
+        service = newService(1, 16, BackpressurePolicy.BLOCK, 5, 2);
+
+        submitTradeAndFill(1L);
+        writerStarted.await();
+        // Queued behind the first write, so the worker drains all three into one group
+        submitTradeAndFill(2L);
+        submitTradeAndFill(13L);
+        submitTradeAndFill(3L);
+        release.countDown();
+
+        verify(orderRepository, timeout(2_000)).applyState(eq(2L), eq("BTC/USD"), any(), any(), eq(OrderStatus.FILLED));
+        verify(orderRepository, timeout(2_000)).applyState(eq(3L), eq("BTC/USD"), any(), any(), eq(OrderStatus.FILLED));
+        assertThat(rejections.await(5, TimeUnit.SECONDS)).isTrue();
+        service.stop();
+
+        verify(orderRepository, never()).applyState(eq(13L), eq("BTC/USD"), any(), any(), any());
+        assertThat(service.getDeadLetteredCount()).isEqualTo(1);
+        assertThat(service.getSpillPendingCount()).isZero();
+        try (Stream<Path> deadLetters = Files.list(spillDirectory.resolve("dead-letter"))) {
+            assertThat(deadLetters).hasSize(1);
+        }
+    }
+
+    private PersistenceService newService(int workers, int queueCapacity, BackpressurePolicy policy, int maxAttempts) throws Exception {
+        return newService(workers, queueCapacity, policy, maxAttempts, 3);
+    }
+
+    private PersistenceService newService(int workers, int queueCapacity, BackpressurePolicy policy, int maxAttempts,
+                                          int maxRejections) throws Exception {
+        PersistenceService persistence = new PersistenceService(tradeRepository, orderRepository, new NoOpTransactionManager(),
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                workers, queueCapacity, policy, spillDirectory.toString(), maxAttempts, 1, 1, maxRejections);
+        persistence.start();
+        return persistence;
+    }
+
+    private void submitTradeAndFill(long orderId) {
+        Order order = order(orderId, "1");
+        Trade trade = new Trade("BTC/USD", orderId, 100L, new BigDecimal("50000"), BigDecimal.ONE);
+        service.persistTradesAndFills("BTC/USD", List.of(trade),
+                List.of(new FillReport(order, BigDecimal.ONE, BigDecimal.ZERO, OrderStatus.FILLED)));
+    }
+
+    private static Order order(long id, String quantity) {
+        Order order = new Order("BTC/USD", Side.BUY, OrderType.LIMIT, new BigDecimal("50000"), new BigDecimal(quantity));
+        order.setId(id);
+        return order;
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}